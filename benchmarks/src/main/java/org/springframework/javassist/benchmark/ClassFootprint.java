@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javassist.bytecode.AnnotationsAttribute;
+import javassist.bytecode.AttributeInfo;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.ParameterAnnotationsAttribute;
+import javassist.bytecode.annotation.Annotation;
+
+/**
+ * 动态类的 Class 文件组成分析：文件大小、常量池构成、属性大小以及各注解类型的大小
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ClassFootprint {
+
+	/**
+	 * 属性头：attribute_name_index(u2) + attribute_length(u4)
+	 */
+	private static final int ATTRIBUTE_HEADER = 6;
+	
+	private final String className;
+	private final int classFileSize;
+	// 常量池：类型 -> { 数量, 字节数 }
+	private final Map<String, long[]> constantPool = new TreeMap<>();
+	// 属性：名称 -> 字节数
+	private final Map<String, Long> attributes = new TreeMap<>();
+	// 注解：类型 -> 字节数
+	private final Map<String, Long> annotations = new TreeMap<>();
+	
+	private ClassFootprint(String className, int classFileSize) {
+		this.className = className;
+		this.classFileSize = classFileSize;
+	}
+	
+	public static ClassFootprint analyze(byte[] bytecode) throws IOException {
+		
+		ClassFile classFile = new ClassFile(new DataInputStream(new ByteArrayInputStream(bytecode)));
+		ClassFootprint footprint = new ClassFootprint(classFile.getName(), bytecode.length);
+		
+		ConstPool constPool = classFile.getConstPool();
+		for (int i = 1; i < constPool.getSize(); i++) {
+			int tag = constPool.getTag(i);
+			long[] entry = footprint.constantPool.computeIfAbsent(tagName(tag), key -> new long[2]);
+			entry[0]++;
+			entry[1] += entrySize(constPool, i, tag);
+			// long、double 占用两个常量池索引
+			if (tag == ConstPool.CONST_Long || tag == ConstPool.CONST_Double) {
+				i++;
+			}
+		}
+		
+		footprint.addAttributes(classFile.getAttributes());
+		for (Object field : classFile.getFields()) {
+			footprint.addAttributes(((FieldInfo) field).getAttributes());
+		}
+		for (Object method : classFile.getMethods()) {
+			footprint.addAttributes(((MethodInfo) method).getAttributes());
+		}
+		
+		return footprint;
+	}
+	
+	private void addAttributes(List<?> list) {
+		for (Object item : list) {
+			AttributeInfo attribute = (AttributeInfo) item;
+			// length() 包含属性头
+			attributes.merge(attribute.getName(), (long) (attribute.length() - ATTRIBUTE_HEADER), Long::sum);
+			if (attribute instanceof AnnotationsAttribute) {
+				AnnotationsAttribute annotationsAttribute = (AnnotationsAttribute) attribute;
+				for (Annotation annotation : annotationsAttribute.getAnnotations()) {
+					addAnnotation(annotationsAttribute.getConstPool(), annotationsAttribute.getName(), annotation);
+				}
+			} else if (attribute instanceof ParameterAnnotationsAttribute) {
+				ParameterAnnotationsAttribute parameterAttribute = (ParameterAnnotationsAttribute) attribute;
+				for (Annotation[] parameter : parameterAttribute.getAnnotations()) {
+					for (Annotation annotation : parameter) {
+						addAnnotation(parameterAttribute.getConstPool(), AnnotationsAttribute.visibleTag, annotation);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 单个注解的大小：将注解单独写入一个属性，减去属性头及  num_annotations(u2)
+	 */
+	private void addAnnotation(ConstPool constPool, String tag, Annotation annotation) {
+		AnnotationsAttribute single = new AnnotationsAttribute(constPool, tag);
+		single.setAnnotation(annotation);
+		annotations.merge(annotation.getTypeName(), (long) (single.length() - ATTRIBUTE_HEADER - 2), Long::sum);
+	}
+	
+	private static String tagName(int tag) {
+		switch (tag) {
+			case ConstPool.CONST_Utf8: return "Utf8";
+			case ConstPool.CONST_Integer: return "Integer";
+			case ConstPool.CONST_Float: return "Float";
+			case ConstPool.CONST_Long: return "Long";
+			case ConstPool.CONST_Double: return "Double";
+			case ConstPool.CONST_Class: return "Class";
+			case ConstPool.CONST_String: return "String";
+			case ConstPool.CONST_Fieldref: return "Fieldref";
+			case ConstPool.CONST_Methodref: return "Methodref";
+			case ConstPool.CONST_InterfaceMethodref: return "InterfaceMethodref";
+			case ConstPool.CONST_NameAndType: return "NameAndType";
+			case ConstPool.CONST_MethodHandle: return "MethodHandle";
+			case ConstPool.CONST_MethodType: return "MethodType";
+			case ConstPool.CONST_InvokeDynamic: return "InvokeDynamic";
+			default: return "Tag" + tag;
+		}
+	}
+	
+	private static int entrySize(ConstPool constPool, int index, int tag) {
+		switch (tag) {
+			case ConstPool.CONST_Utf8: return 3 + modifiedUtf8Length(constPool.getUtf8Info(index));
+			case ConstPool.CONST_Class:
+			case ConstPool.CONST_String:
+			case ConstPool.CONST_MethodType: return 3;
+			case ConstPool.CONST_MethodHandle: return 4;
+			case ConstPool.CONST_Long:
+			case ConstPool.CONST_Double: return 9;
+			default: return 5;
+		}
+	}
+	
+	private static int modifiedUtf8Length(String value) {
+		int length = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c >= 0x0001 && c <= 0x007F) {
+				length += 1;
+			} else if (c <= 0x07FF) {
+				length += 2;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+	
+	public long getConstantPoolCount() {
+		return constantPool.values().stream().mapToLong(entry -> entry[0]).sum();
+	}
+	
+	public long getConstantPoolBytes() {
+		return constantPool.values().stream().mapToLong(entry -> entry[1]).sum();
+	}
+	
+	/**
+	 * @return 注解属性（RuntimeVisibleAnnotations、RuntimeVisibleParameterAnnotations）的总字节数，含属性头
+	 */
+	public long getAnnotationAttributeBytes() {
+		return attributes.entrySet().stream().filter(entry -> entry.getKey().contains("Annotations"))
+				.mapToLong(entry -> entry.getValue() + ATTRIBUTE_HEADER).sum();
+	}
+	
+	public void print(PrintStream out) {
+		out.println(String.format("Class %s : %d bytes", className, classFileSize));
+		out.println(String.format("  Constant Pool : %d entries, %d bytes", getConstantPoolCount(), getConstantPoolBytes()));
+		constantPool.forEach((tag, entry) -> out.println(String.format("    %-20s %8d %10d", tag, entry[0], entry[1])));
+		out.println("  Attributes (bytes, without header) :");
+		attributes.forEach((name, bytes) -> out.println(String.format("    %-40s %10d", name, bytes)));
+		out.println("  Annotations (bytes) :");
+		annotations.forEach((type, bytes) -> out.println(String.format("    %-60s %10d", type, bytes)));
+	}
+	
+	public String getClassName() {
+		return className;
+	}
+
+	public int getClassFileSize() {
+		return classFileSize;
+	}
+
+	public Map<String, long[]> getConstantPool() {
+		return constantPool;
+	}
+
+	public Map<String, Long> getAttributes() {
+		return attributes;
+	}
+
+	public Map<String, Long> getAnnotations() {
+		return annotations;
+	}
+	
+}
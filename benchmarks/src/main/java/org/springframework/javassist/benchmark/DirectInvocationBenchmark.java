@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 直接调用动态方法与手写方法的开销对比：
+ * 动态方法包含  getDeclaredMethod、InvocationHandler.invoke 以及参数装箱。
+ * <p>
+ * 使用  -prof gc 输出每次调用的内存分配：
+ * <pre>java -jar target/benchmarks.jar DirectInvocationBenchmark -prof gc</pre>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectInvocationBenchmark {
+
+	@Param({ "0", "1", "5", "10" })
+	public int arity;
+	
+	@Param({ Invocations.PRIMITIVE, Invocations.OBJECT })
+	public String type;
+	
+	/**
+	 * 参数值：超出 Integer 缓存范围，装箱时会产生分配
+	 */
+	public Integer value = 1024;
+	
+	private boolean primitive;
+	private InvocationEndpoints generated;
+	private InvocationEndpoints handWritten;
+	
+	@Setup
+	public void setup() throws Exception {
+		primitive = Invocations.PRIMITIVE.equals(type);
+		generated = Invocations.generate();
+		handWritten = new HandWrittenController();
+	}
+	
+	@Benchmark
+	public Object generated() {
+		return Invocations.invoke(generated, arity, primitive, value);
+	}
+	
+	@Benchmark
+	public Object handWritten() {
+		return Invocations.invoke(handWritten, arity, primitive, value);
+	}
+	
+}
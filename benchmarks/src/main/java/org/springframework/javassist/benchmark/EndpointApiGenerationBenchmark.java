@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+
+/**
+ * {@link EndpointApiCtClassBuilder#newMethod(Class, org.springframework.javassist.bytecode.definition.MvcMethod, org.springframework.javassist.bytecode.definition.MvcBound, MvcParam...)}
+ * 的生成吞吐量：classes/s 与 methods/s
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndpointApiGenerationBenchmark {
+
+	@Param({ "0", "1", "5", "10" })
+	public int params;
+	
+	@Param({ "1", "10" })
+	public int methods;
+	
+	@Param({ "false", "true" })
+	public boolean swagger;
+	
+	@Param({ "BUILD", "TO_CLASS", "TO_INSTANCE" })
+	public GenerationMode mode;
+	
+	private MvcParam<?>[] definitions;
+	
+	@Setup
+	public void setup() {
+		definitions = EndpointDefinitions.params(params);
+	}
+	
+	@Benchmark
+	public Object newMethod(GenerationCounters counters) throws Exception {
+		
+		EndpointApiCtClassBuilder builder = new EndpointApiCtClassBuilder(EndpointDefinitions.nextClassName("EndpointApi"));
+		if (swagger) {
+			builder.api("benchmark");
+		}
+		builder.restController();
+		for (int i = 0; i < methods; i++) {
+			builder.newMethod(Object.class, EndpointDefinitions.method(i), EndpointDefinitions.bound(i), definitions);
+		}
+		
+		Object result = mode.finish(builder);
+		counters.classes++;
+		counters.methods += methods;
+		return result;
+	}
+	
+}
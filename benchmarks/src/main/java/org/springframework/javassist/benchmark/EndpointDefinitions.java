@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcParamFrom;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * 基准测试使用的接口定义
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+final class EndpointDefinitions {
+
+	/**
+	 * 什么都不做的 InvocationHandler
+	 */
+	static final InvocationHandler NOOP_HANDLER = (proxy, method, args) -> null;
+	
+	private static final AtomicLong SEQUENCE = new AtomicLong();
+	
+	private EndpointDefinitions() {
+	}
+	
+	/**
+	 * 生成唯一的动态类名称：同一个 ClassLoader 中不能重复定义同名类
+	 * @param prefix 类名前缀
+	 * @return 动态类名称
+	 */
+	static String nextClassName(String prefix) {
+		return "org.springframework.javassist.benchmark.generated." + prefix + SEQUENCE.incrementAndGet();
+	}
+	
+	static MvcMethod method(int index) {
+		return new MvcMethod("method" + index, new String[] { "/method" + index }, RequestMethod.GET);
+	}
+	
+	static MvcBound bound(int index) {
+		MvcBound bound = new MvcBound(String.valueOf(index), "{\"index\":" + index + "}");
+		bound.setNotes("Method " + index);
+		return bound;
+	}
+	
+	/**
+	 * 构造参数定义：依次使用 String、Integer、Long 类型
+	 * @param count 参数个数
+	 * @return 参数定义
+	 */
+	static MvcParam<?>[] params(int count) {
+		MvcParam<?>[] params = new MvcParam<?>[count];
+		for (int i = 0; i < count; i++) {
+			switch (i % 3) {
+				case 0: params[i] = new MvcParam<>(String.class, "text" + i, MvcParamFrom.PARAM); break;
+				case 1: params[i] = new MvcParam<>(Integer.class, "number" + i, MvcParamFrom.PARAM, "0"); break;
+				default: params[i] = new MvcParam<>(Long.class, "id" + i, MvcParamFrom.HEADER); break;
+			}
+		}
+		return params;
+	}
+	
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+
+import javassist.CtClass;
+
+/**
+ * 动态类内存占用分析：Class 文件组成、CtClass/ClassPool 保留堆内存、加载后的 Metaspace 增量，
+ * 并按不同的构建选项进行对比。
+ * <pre>java -cp target/benchmarks.jar org.springframework.javassist.benchmark.FootprintAnalyzer -m 5 -p 3 -k 1000</pre>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class FootprintAnalyzer {
+
+	/**
+	 * 对比的构建选项
+	 */
+	public enum Option {
+		
+		/**
+		 * 仅 @RestController 及方法映射
+		 */
+		PLAIN {
+			@Override
+			void customize(EndpointApiCtClassBuilder builder) {
+			}
+		},
+		/**
+		 * 增加类级别  @WebBound
+		 */
+		BOUND {
+			@Override
+			void customize(EndpointApiCtClassBuilder builder) {
+				builder.bind("footprint", "{\"tenant\":\"footprint\",\"version\":1}");
+			}
+		},
+		/**
+		 * 增加 Swagger 注解：@Api、@ApiOperation、@ApiImplicitParams、@ApiResponses
+		 */
+		SWAGGER {
+			@Override
+			void customize(EndpointApiCtClassBuilder builder) {
+				builder.api("footprint");
+			}
+		},
+		/**
+		 * Swagger 注解及类级别  @WebBound
+		 */
+		SWAGGER_BOUND {
+			@Override
+			void customize(EndpointApiCtClassBuilder builder) {
+				builder.api("footprint");
+				builder.bind("footprint", "{\"tenant\":\"footprint\",\"version\":1}");
+			}
+		};
+		
+		abstract void customize(EndpointApiCtClassBuilder builder);
+		
+	}
+	
+	private final int methods;
+	private final MvcParam<?>[] params;
+	private final int samples;
+	
+	public FootprintAnalyzer(int methods, int params, int samples) {
+		this.methods = methods;
+		this.params = EndpointDefinitions.params(params);
+		this.samples = samples;
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		int methods = 5;
+		int params = 3;
+		int samples = 1000;
+		String options = "PLAIN,BOUND,SWAGGER,SWAGGER_BOUND";
+		for (int i = 0; i < args.length - 1; i += 2) {
+			switch (args[i]) {
+				case "-m": methods = Integer.parseInt(args[i + 1]); break;
+				case "-p": params = Integer.parseInt(args[i + 1]); break;
+				case "-k": samples = Integer.parseInt(args[i + 1]); break;
+				case "-o": options = args[i + 1]; break;
+				default: throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		
+		FootprintAnalyzer analyzer = new FootprintAnalyzer(methods, params, samples);
+		List<String> rows = new ArrayList<>();
+		for (String name : options.split(",")) {
+			Option option = Option.valueOf(name.trim());
+			
+			ClassFootprint footprint = analyzer.classFile(option);
+			System.out.println("========= " + option + " =========");
+			footprint.print(System.out);
+			
+			rows.add(String.format("%-16s %12d %10d %10d %14d %14d %14d", option, footprint.getClassFileSize(),
+					footprint.getConstantPoolCount(), footprint.getConstantPoolBytes(),
+					footprint.getAnnotationAttributeBytes(), analyzer.retainedHeap(option), analyzer.metaspace(option)));
+		}
+		
+		System.out.println("========= Per Class Comparison (bytes) =========");
+		System.out.println(String.format("%-16s %12s %10s %10s %14s %14s %14s", "option", "classFile", "cpEntries",
+				"cpBytes", "annotations", "retainedHeap", "metaspace"));
+		rows.forEach(System.out::println);
+	}
+	
+	EndpointApiCtClassBuilder generate(Option option) throws Exception {
+		EndpointApiCtClassBuilder builder = new EndpointApiCtClassBuilder(EndpointDefinitions.nextClassName("Footprint"));
+		option.customize(builder);
+		builder.restController();
+		for (int i = 0; i < methods; i++) {
+			builder.newMethod(Object.class, EndpointDefinitions.method(i), EndpointDefinitions.bound(i), params);
+		}
+		return builder;
+	}
+	
+	/**
+	 * @param option 构建选项
+	 * @return 单个动态类的 Class 文件组成
+	 * @throws Exception if generate failed
+	 */
+	public ClassFootprint classFile(Option option) throws Exception {
+		CtClass ctClass = generate(option).build();
+		try {
+			return ClassFootprint.analyze(ctClass.toBytecode());
+		} finally {
+			ctClass.detach();
+		}
+	}
+	
+	/**
+	 * @param option 构建选项
+	 * @return 每个未加载的  CtClass（含 ClassPool 缓存）平均保留的堆内存
+	 * @throws Exception if generate failed
+	 */
+	public long retainedHeap(Option option) throws Exception {
+		CtClass[] retained = new CtClass[samples];
+		long before = usedHeap();
+		for (int i = 0; i < samples; i++) {
+			retained[i] = generate(option).build();
+		}
+		long after = usedHeap();
+		for (CtClass ctClass : retained) {
+			ctClass.detach();
+		}
+		return (after - before) / samples;
+	}
+	
+	/**
+	 * @param option 构建选项
+	 * @return 每个已加载的动态类平均占用的 Metaspace
+	 * @throws Exception if generate failed
+	 */
+	public long metaspace(Option option) throws Exception {
+		Class<?>[] loaded = new Class<?>[samples];
+		usedHeap();
+		long before = usedMetaspace();
+		for (int i = 0; i < samples; i++) {
+			loaded[i] = generate(option).toClass();
+		}
+		usedHeap();
+		long after = usedMetaspace();
+		return loaded.length > 0 ? (after - before) / samples : 0;
+	}
+	
+	private static long usedHeap() throws InterruptedException {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+	
+	private static long usedMetaspace() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if ("Metaspace".equals(pool.getName())) {
+				return pool.getUsage().getUsed();
+			}
+		}
+		return -1;
+	}
+	
+}
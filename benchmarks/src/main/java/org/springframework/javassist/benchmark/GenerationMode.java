@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import org.springframework.javassist.bytecode.CtClassBuilder;
+
+import javassist.CtClass;
+
+/**
+ * 动态类的产出方式
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public enum GenerationMode {
+
+	/**
+	 * 仅生成 CtClass，不加载
+	 */
+	BUILD {
+		@Override
+		Object finish(CtClassBuilder builder) throws Exception {
+			CtClass ctClass = builder.build();
+			byte[] bytecode = ctClass.toBytecode();
+			ctClass.detach();
+			return bytecode;
+		}
+	},
+	/**
+	 * {@link CtClassBuilder#toClass()}
+	 */
+	TO_CLASS {
+		@Override
+		Object finish(CtClassBuilder builder) throws Exception {
+			return builder.toClass();
+		}
+	},
+	/**
+	 * {@link CtClassBuilder#toInstance(java.lang.reflect.InvocationHandler)}
+	 */
+	TO_INSTANCE {
+		@Override
+		Object finish(CtClassBuilder builder) throws Exception {
+			return builder.toInstance(EndpointDefinitions.NOOP_HANDLER);
+		}
+	};
+	
+	abstract Object finish(CtClassBuilder builder) throws Exception;
+	
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 与  {@link Invocations#generate()} 生成的 Controller 等价的手写实现，作为基准
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@RestController
+public class HandWrittenController implements InvocationEndpoints {
+
+	@Override
+	@GetMapping("/none")
+	public Object none() {
+		return Invocations.RESULT;
+	}
+
+	@Override
+	@GetMapping("/primitive1")
+	public Object primitive1(@RequestParam("a0") int a0) {
+		return Invocations.RESULT;
+	}
+
+	@Override
+	@GetMapping("/primitive5")
+	public Object primitive5(@RequestParam("a0") int a0, @RequestParam("a1") int a1, @RequestParam("a2") int a2,
+			@RequestParam("a3") int a3, @RequestParam("a4") int a4) {
+		return Invocations.RESULT;
+	}
+
+	@Override
+	@GetMapping("/primitive10")
+	public Object primitive10(@RequestParam("a0") int a0, @RequestParam("a1") int a1, @RequestParam("a2") int a2,
+			@RequestParam("a3") int a3, @RequestParam("a4") int a4, @RequestParam("a5") int a5,
+			@RequestParam("a6") int a6, @RequestParam("a7") int a7, @RequestParam("a8") int a8,
+			@RequestParam("a9") int a9) {
+		return Invocations.RESULT;
+	}
+
+	@Override
+	@GetMapping("/object1")
+	public Object object1(@RequestParam("a0") Integer a0) {
+		return Invocations.RESULT;
+	}
+
+	@Override
+	@GetMapping("/object5")
+	public Object object5(@RequestParam("a0") Integer a0, @RequestParam("a1") Integer a1,
+			@RequestParam("a2") Integer a2, @RequestParam("a3") Integer a3, @RequestParam("a4") Integer a4) {
+		return Invocations.RESULT;
+	}
+
+	@Override
+	@GetMapping("/object10")
+	public Object object10(@RequestParam("a0") Integer a0, @RequestParam("a1") Integer a1,
+			@RequestParam("a2") Integer a2, @RequestParam("a3") Integer a3, @RequestParam("a4") Integer a4,
+			@RequestParam("a5") Integer a5, @RequestParam("a6") Integer a6, @RequestParam("a7") Integer a7,
+			@RequestParam("a8") Integer a8, @RequestParam("a9") Integer a9) {
+		return Invocations.RESULT;
+	}
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+/**
+ * 调用开销基准测试的接口：动态生成的 Controller 与手写的 Controller 均实现该接口，
+ * 以便在不经过反射的情况下直接调用
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface InvocationEndpoints {
+
+	Object none();
+	
+	Object primitive1(int a0);
+	
+	Object primitive5(int a0, int a1, int a2, int a3, int a4);
+	
+	Object primitive10(int a0, int a1, int a2, int a3, int a4, int a5, int a6, int a7, int a8, int a9);
+	
+	Object object1(Integer a0);
+	
+	Object object5(Integer a0, Integer a1, Integer a2, Integer a3, Integer a4);
+	
+	Object object10(Integer a0, Integer a1, Integer a2, Integer a3, Integer a4, Integer a5, Integer a6, Integer a7,
+			Integer a8, Integer a9);
+	
+}
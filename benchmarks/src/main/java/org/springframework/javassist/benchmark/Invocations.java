@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcParamFrom;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javassist.CtClass;
+
+/**
+ * 调用开销基准测试的公共逻辑：生成与  {@link HandWrittenController} 等价的动态 Controller，
+ * 并按参数个数、参数类型分派调用
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+final class Invocations {
+
+	static final String RESULT = "ok";
+	
+	static final InvocationHandler RESULT_HANDLER = (proxy, method, args) -> RESULT;
+	
+	static final String PRIMITIVE = "primitive";
+	static final String OBJECT = "object";
+	
+	private Invocations() {
+	}
+	
+	/**
+	 * 根据参数个数及类型得到方法名称
+	 * @param arity	参数个数：0、1、5、10
+	 * @param type	参数类型：primitive、object
+	 * @return 方法名称，同时也是请求路径
+	 */
+	static String methodName(int arity, String type) {
+		return arity == 0 ? "none" : type + arity;
+	}
+	
+	static InvocationEndpoints generate() throws Exception {
+		
+		EndpointApiCtClassBuilder builder = new EndpointApiCtClassBuilder(EndpointDefinitions.nextClassName("InvocationEndpoints"))
+				.restController();
+		for (int arity : new int[] { 0, 1, 5, 10 }) {
+			for (String type : new String[] { PRIMITIVE, OBJECT }) {
+				if (arity == 0 && OBJECT.equals(type)) {
+					continue;
+				}
+				String name = methodName(arity, type);
+				builder.newMethod(Object.class, new MvcMethod(name, new String[] { "/" + name }, RequestMethod.GET),
+						new MvcBound(name), params(arity, type));
+			}
+		}
+		
+		CtClass ctClass = builder.build();
+		ctClass.addInterface(ctClass.getClassPool().get(InvocationEndpoints.class.getName()));
+		
+		return (InvocationEndpoints) builder.toInstance(RESULT_HANDLER);
+	}
+	
+	static MvcParam<?>[] params(int arity, String type) {
+		MvcParam<?>[] params = new MvcParam<?>[arity];
+		for (int i = 0; i < arity; i++) {
+			params[i] = new MvcParam<>(PRIMITIVE.equals(type) ? int.class : Integer.class, "a" + i, MvcParamFrom.PARAM);
+		}
+		return params;
+	}
+	
+	/**
+	 * 直接调用
+	 * @param target	被调用的 Controller
+	 * @param arity		参数个数
+	 * @param primitive	是否基本类型参数
+	 * @param value		参数值
+	 * @return 调用结果
+	 */
+	static Object invoke(InvocationEndpoints target, int arity, boolean primitive, Integer value) {
+		int v = value;
+		switch (arity) {
+			case 0:
+				return target.none();
+			case 1:
+				return primitive ? target.primitive1(v) : target.object1(value);
+			case 5:
+				return primitive ? target.primitive5(v, v, v, v, v) : target.object5(value, value, value, value, value);
+			default:
+				return primitive ? target.primitive10(v, v, v, v, v, v, v, v, v, v)
+						: target.object10(value, value, value, value, value, value, value, value, value, value);
+		}
+	}
+	
+}
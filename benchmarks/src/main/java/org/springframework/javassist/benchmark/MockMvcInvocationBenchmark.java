@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * 通过 MockMvc 在进程内调用动态 Controller 与手写 Controller 的开销对比，包含参数解析与类型转换。
+ * <p>
+ * 使用  -prof gc 输出每次调用的内存分配：
+ * <pre>java -jar target/benchmarks.jar MockMvcInvocationBenchmark -prof gc</pre>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MockMvcInvocationBenchmark {
+
+	@Param({ "0", "1", "5", "10" })
+	public int arity;
+	
+	@Param({ Invocations.PRIMITIVE, Invocations.OBJECT })
+	public String type;
+	
+	private MockMvc generated;
+	private MockMvc handWritten;
+	private MockHttpServletRequestBuilder request;
+	
+	@Setup
+	public void setup() throws Exception {
+		generated = MockMvcBuilders.standaloneSetup(Invocations.generate()).build();
+		handWritten = MockMvcBuilders.standaloneSetup(new HandWrittenController()).build();
+		request = MockMvcRequestBuilders.get("/" + Invocations.methodName(arity, type));
+		for (int i = 0; i < arity; i++) {
+			request.param("a" + i, "1024");
+		}
+	}
+	
+	@Benchmark
+	public MvcResult generated() throws Exception {
+		return generated.perform(request).andReturn();
+	}
+	
+	@Benchmark
+	public MvcResult handWritten() throws Exception {
+		return handWritten.perform(request).andReturn();
+	}
+	
+}
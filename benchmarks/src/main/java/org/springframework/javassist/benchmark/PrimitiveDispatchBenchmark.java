@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.invoke.PrimitiveInvocationHandler;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javassist.CtClass;
+
+/**
+ * 基本类型参数及返回值的调用开销：同一个动态 Controller 分别使用普通 InvocationHandler（参数装箱、Object[]）
+ * 与 {@link PrimitiveInvocationHandler}（直接传递 long | double）。
+ * <p>
+ * 使用  -prof gc 对比每次调用的内存分配：
+ * <pre>java -jar target/benchmarks.jar PrimitiveDispatchBenchmark -prof gc</pre>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveDispatchBenchmark {
+
+	static final String BOXED = "boxed";
+	static final String PRIMITIVE = "primitive";
+	
+	@Param({ BOXED, PRIMITIVE })
+	public String handler;
+	
+	/**
+	 * 参数值：超出 Integer | Long 缓存范围，装箱时会产生分配
+	 */
+	public int a = 1024;
+	public long id = 4096L;
+	public double rate = 0.75D;
+	
+	private PrimitiveEndpoints endpoints;
+	
+	@Setup
+	public void setup() throws Exception {
+		
+		EndpointApiCtClassBuilder builder = new EndpointApiCtClassBuilder(EndpointDefinitions.nextClassName("PrimitiveEndpoints"))
+				.restController()
+				.newMethod(Object.class, new MvcMethod("find", new String[] { "/find" }, RequestMethod.GET), new MvcBound("find"),
+						new MvcParam<>(long.class, "id"))
+				.newMethod(long.class, new MvcMethod("sum", new String[] { "/sum" }, RequestMethod.GET), new MvcBound("sum"),
+						new MvcParam<>(int.class, "a"), new MvcParam<>(long.class, "b"))
+				.newMethod(double.class, new MvcMethod("price", new String[] { "/price" }, RequestMethod.GET), new MvcBound("price"),
+						new MvcParam<>(long.class, "id"), new MvcParam<>(double.class, "rate"));
+		
+		CtClass ctClass = builder.build();
+		ctClass.addInterface(ctClass.getClassPool().get(PrimitiveEndpoints.class.getName()));
+		
+		endpoints = (PrimitiveEndpoints) builder.toInstance(PRIMITIVE.equals(handler) ? new PrimitiveHandler() : new BoxedHandler());
+	}
+	
+	@Benchmark
+	public Object find() {
+		return endpoints.find(id);
+	}
+	
+	@Benchmark
+	public long sum() {
+		return endpoints.sum(a, id);
+	}
+	
+	@Benchmark
+	public double price() {
+		return endpoints.price(id, rate);
+	}
+	
+	/**
+	 * 普通 InvocationHandler：参数及返回值均为包装类型
+	 */
+	static class BoxedHandler implements InvocationHandler {
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "find":
+					return Invocations.RESULT;
+				case "sum":
+					return ((Integer) args[0]) + ((Long) args[1]);
+				default:
+					return ((Long) args[0]) * ((Double) args[1]);
+			}
+		}
+		
+	}
+	
+	/**
+	 * 基本类型 InvocationHandler：与 {@link BoxedHandler} 结果一致
+	 */
+	static class PrimitiveHandler extends BoxedHandler implements PrimitiveInvocationHandler {
+
+		@Override
+		public Object invoke(Object proxy, Method method, long id) throws Throwable {
+			return Invocations.RESULT;
+		}
+		
+		@Override
+		public long invokeLong(Object proxy, Method method, long a, long b) throws Throwable {
+			return a + b;
+		}
+		
+		@Override
+		public double invokeDouble(Object proxy, Method method, long id, double rate) throws Throwable {
+			return id * rate;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+/**
+ * 基本类型调用基准测试的接口：由动态生成的 Controller 实现，以便在不经过反射的情况下直接调用
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface PrimitiveEndpoints {
+
+	Object find(long id);
+	
+	long sum(int a, long b);
+	
+	double price(long id, double rate);
+	
+}
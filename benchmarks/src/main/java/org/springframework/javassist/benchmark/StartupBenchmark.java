@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.github.hiwepy.javassist.utils.ClassPoolFactory;
+
+import javassist.ClassPool;
+
+/**
+ * 启动基准测试：生成 N 个 Controller（每个 M 个方法），加载并实例化后注册到 Spring MVC 上下文，
+ * 记录各阶段耗时、堆内存峰值、Metaspace 以及 ClassPool 缓存的类数量。
+ * <p>
+ * 每个 N 在独立的 JVM 中执行，子进程继承当前 JVM 的启动参数（如 -Xmx）：
+ * <pre>java -cp target/benchmarks.jar org.springframework.javassist.benchmark.StartupBenchmark -n 10000,20000,50000,100000 -m 5</pre>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StartupBenchmark {
+
+	private static final String HEADER = String.format("%10s %6s %12s %12s %12s %12s %14s %14s %12s %12s", "N", "M",
+			"generate(ms)", "load(ms)", "register(ms)", "total(ms)", "peakHeap(MB)", "metaspace(MB)", "classPool",
+			"mappings");
+	
+	public static void main(String[] args) throws Exception {
+		
+		String counts = "10000,20000,50000,100000";
+		int methods = 5;
+		boolean fork = true;
+		for (int i = 0; i < args.length - 1; i += 2) {
+			switch (args[i]) {
+				case "-n": counts = args[i + 1]; break;
+				case "-m": methods = Integer.parseInt(args[i + 1]); break;
+				case "-fork": fork = Boolean.parseBoolean(args[i + 1]); break;
+				default: throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		
+		System.out.println(HEADER);
+		for (String count : counts.split(",")) {
+			int controllers = Integer.parseInt(count.trim());
+			if (fork) {
+				System.out.println(fork(controllers, methods));
+			} else {
+				System.out.println(run(controllers, methods));
+			}
+		}
+	}
+	
+	/**
+	 * 在新的 JVM 中执行，避免已加载的动态类影响后续结果
+	 */
+	private static String fork(int controllers, int methods) throws Exception {
+		
+		List<String> command = new ArrayList<>();
+		command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(StartupBenchmark.class.getName());
+		command.add("-n");
+		command.add(String.valueOf(controllers));
+		command.add("-m");
+		command.add(String.valueOf(methods));
+		command.add("-fork");
+		command.add("false");
+		
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		String result = null;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!HEADER.equals(line)) {
+					result = line;
+				}
+			}
+		}
+		process.waitFor();
+		return result;
+	}
+	
+	private static String run(int controllers, int methods) throws Exception {
+		
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			pool.resetPeakUsage();
+		}
+		
+		MvcParam<?>[] params = EndpointDefinitions.params(2);
+		
+		// 1、生成
+		long start = System.nanoTime();
+		EndpointApiCtClassBuilder[] builders = new EndpointApiCtClassBuilder[controllers];
+		for (int i = 0; i < controllers; i++) {
+			builders[i] = new EndpointApiCtClassBuilder(EndpointDefinitions.nextClassName("Startup"))
+					.restController()
+					.requestMapping("/c" + i);
+			for (int j = 0; j < methods; j++) {
+				builders[i].newMethod(Object.class, new MvcMethod("m" + j, new String[] { "/m" + j }, RequestMethod.GET),
+						EndpointDefinitions.bound(j), params);
+			}
+			builders[i].build();
+		}
+		long generated = System.nanoTime();
+		int classPoolSize = classPoolSize(ClassPoolFactory.getDefaultPool());
+		
+		// 2、加载并实例化
+		Object[] instances = new Object[controllers];
+		for (int i = 0; i < controllers; i++) {
+			instances[i] = builders[i].toInstance(EndpointDefinitions.NOOP_HANDLER);
+			builders[i] = null;
+		}
+		long loaded = System.nanoTime();
+		
+		// 3、注册到 Spring MVC 上下文
+		AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+		context.setServletContext(new MockServletContext());
+		context.register(WebMvcConfiguration.class);
+		context.addBeanFactoryPostProcessor(beanFactory -> {
+			for (int i = 0; i < instances.length; i++) {
+				beanFactory.registerSingleton("startup" + i, instances[i]);
+			}
+		});
+		context.refresh();
+		long registered = System.nanoTime();
+		
+		int mappings = 0;
+		for (RequestMappingHandlerMapping mapping : context.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+			mappings += mapping.getHandlerMethods().size();
+		}
+		
+		String result = String.format("%10d %6d %12d %12d %12d %12d %14.1f %14.1f %12d %12d", controllers, methods,
+				millis(start, generated), millis(generated, loaded), millis(loaded, registered), millis(start, registered),
+				peakHeap() / 1048576.0, metaspace() / 1048576.0, classPoolSize, mappings);
+		context.close();
+		return result;
+	}
+	
+	private static long millis(long from, long to) {
+		return (to - from) / 1000000L;
+	}
+	
+	private static long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+	
+	private static long metaspace() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if ("Metaspace".equals(pool.getName())) {
+				return pool.getUsage().getUsed();
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * ClassPool 未公开缓存大小，这里通过反射读取其  classes 缓存
+	 */
+	private static int classPoolSize(ClassPool pool) {
+		try {
+			Field field = ClassPool.class.getDeclaredField("classes");
+			field.setAccessible(true);
+			return ((Map<?, ?>) field.get(pool)).size();
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+	
+	@Configuration
+	@EnableWebMvc
+	static class WebMvcConfiguration {
+	}
+	
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * 通过 WebTestClient 在进程内（WebFlux 注解 Controller）调用动态 Controller 与手写 Controller 的开销对比。
+ * <p>
+ * 使用  -prof gc 输出每次调用的内存分配：
+ * <pre>java -jar target/benchmarks.jar WebTestClientInvocationBenchmark -prof gc</pre>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebTestClientInvocationBenchmark {
+
+	@Param({ "0", "1", "5", "10" })
+	public int arity;
+	
+	@Param({ Invocations.PRIMITIVE, Invocations.OBJECT })
+	public String type;
+	
+	private WebTestClient generated;
+	private WebTestClient handWritten;
+	private String uri;
+	
+	@Setup
+	public void setup() throws Exception {
+		generated = WebTestClient.bindToController(Invocations.generate()).build();
+		handWritten = WebTestClient.bindToController(new HandWrittenController()).build();
+		StringBuilder builder = new StringBuilder("/").append(Invocations.methodName(arity, type));
+		for (int i = 0; i < arity; i++) {
+			builder.append(i == 0 ? '?' : '&').append('a').append(i).append("=1024");
+		}
+		uri = builder.toString();
+	}
+	
+	@Benchmark
+	public Object generated() {
+		return generated.get().uri(uri).exchange().expectBody(String.class).returnResult().getResponseBody();
+	}
+	
+	@Benchmark
+	public Object handWritten() {
+		return handWritten.get().uri(uri).exchange().expectBody(String.class).returnResult().getResponseBody();
+	}
+	
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bound;
+
+/**
+ * 解析 @WebBound 的 json 绑定数据，生成动态类时只解析一次；
+ * 默认实现 {@link SimpleJsonDecoder} 解析为不可变的 Map | List 对象，也可以使用 Jackson 等解析为业务对象：
+ * <pre>
+ * builder.boundDecoder(json -&gt; objectMapper.readValue(json, BoundConfig.class));
+ * </pre>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@FunctionalInterface
+public interface BoundDecoder {
+
+	/**
+	 * @param json	: The json of @WebBound
+	 * @return The decoded payload, should be immutable or not modified by handlers
+	 * @throws Exception if json can't be decoded
+	 */
+	Object decode(String json) throws Exception;
+	
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bound;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * 按 @WebBound uid 注册业务 InvocationHandler：
+ * 生成动态类时将 uid 转换为连续的整数 id，调用时按 id 取得 InvocationHandler，不再按 uid 字符串查找；
+ * uid 没有注册 InvocationHandler 时使用动态类实例的 InvocationHandler
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface BoundHandlerRegistry {
+
+	/**
+	 * @param uid	: The uid of @WebBound
+	 * @return uid 对应的连续整数 id，同一个 uid 始终返回相同的 id
+	 */
+	int id(String uid);
+	
+	/**
+	 * @param id	: The id of uid, see {@link #id(String)}
+	 * @return The registered handler, or null
+	 */
+	InvocationHandler handler(int id);
+	
+	/**
+	 * @param uid		: The uid of @WebBound
+	 * @param handler	: The handler
+	 * @return The previous handler, or null
+	 */
+	InvocationHandler register(String uid, InvocationHandler handler);
+	
+	/**
+	 * @param uid	: The uid of @WebBound
+	 * @return The removed handler, or null
+	 */
+	InvocationHandler unregister(String uid);
+	
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bound;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 堆外存储 @WebBound 绑定数据：json 以 UTF-8 写入内存映射文件，动态类中只保存 long 类型的句柄（数据在文件中的位置）；
+ * 调用时按句柄读取并解析 json，解析结果保存在容量有限的 LRU 缓存中，只有热点数据常驻堆内存。
+ * 文件按固定大小分段映射，单条数据不跨段。
+ * <p>写入时先解析一次 json，无效的 json 直接失败；动态类不再使用时通过 {@link #release(long)} 释放句柄，
+ * 仍有句柄被使用时不能关闭</p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BoundPayloadStore implements Closeable {
+
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+	
+	private final Path file;
+	private final boolean temporary;
+	private final FileChannel channel;
+	private final int segmentSize;
+	private final BoundDecoder decoder;
+	private final Map<Long, Object> cache;
+	// 写时复制：读取不加锁
+	private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+	private long position = 0;
+	private int count = 0;
+	// 尚未释放的句柄数
+	private int live = 0;
+	private volatile boolean closed = false;
+	
+	/**
+	 * 使用临时文件存储，关闭时删除
+	 * @throws IOException if create temp file failed
+	 */
+	public BoundPayloadStore() throws IOException {
+		this(Files.createTempFile("bound-", ".dat"), true, DEFAULT_SEGMENT_SIZE, DEFAULT_CACHE_SIZE, SimpleJsonDecoder.INSTANCE);
+	}
+	
+	/**
+	 * @param file			: 存储文件，已存在时覆盖
+	 * @param segmentSize	: 每个映射段的字节数，单条数据不能超过该值
+	 * @param cacheSize		: 解析结果缓存的条目数，0 表示不缓存
+	 * @param decoder		: json 解析器
+	 * @throws IOException if open file failed
+	 */
+	public BoundPayloadStore(Path file, int segmentSize, int cacheSize, BoundDecoder decoder) throws IOException {
+		this(file, false, segmentSize, cacheSize, decoder);
+	}
+	
+	private BoundPayloadStore(Path file, boolean temporary, int segmentSize, int cacheSize, BoundDecoder decoder) throws IOException {
+		if (segmentSize <= 4) {
+			throw new IllegalArgumentException("segmentSize must be greater than 4");
+		}
+		this.file = file;
+		this.temporary = temporary;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.segmentSize = segmentSize;
+		this.decoder = decoder;
+		this.cache = new LinkedHashMap<Long, Object>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+				return size() > cacheSize;
+			}
+			
+		};
+	}
+	
+	/**
+	 * 解析并写入 json，返回句柄；解析结果直接放入缓存
+	 * @param json	: The json of @WebBound
+	 * @return 句柄
+	 * @throws IllegalArgumentException if json can't be decoded or exceeds segment size
+	 */
+	public synchronized long put(String json) {
+		if (closed) {
+			throw new IllegalStateException("BoundPayloadStore closed : " + file);
+		}
+		Object payload;
+		try {
+			payload = decoder.decode(json);
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Invalid bound json", e);
+		}
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		int length = 4 + bytes.length;
+		if (length > segmentSize) {
+			throw new IllegalArgumentException("Bound json of " + bytes.length + " bytes exceeds segment size " + segmentSize);
+		}
+		long offset = position % segmentSize;
+		if (offset + length > segmentSize) {
+			position += segmentSize - offset;
+		}
+		long handle = position;
+		ByteBuffer buffer = this.segment(handle).duplicate();
+		buffer.position((int) (handle % segmentSize));
+		buffer.putInt(bytes.length).put(bytes);
+		position += length;
+		count++;
+		live++;
+		if (payload != null) {
+			synchronized (cache) {
+				cache.put(handle, payload);
+			}
+		}
+		return handle;
+	}
+	
+	/**
+	 * 释放句柄：使用该句柄的动态类不再使用时调用，文件空间不回收
+	 * @param handle	: 句柄，see {@link #put(String)}
+	 */
+	public synchronized void release(long handle) {
+		synchronized (cache) {
+			cache.remove(handle);
+		}
+		if (live > 0) {
+			live--;
+		}
+	}
+	
+	/**
+	 * @param handle	: 句柄，see {@link #put(String)}
+	 * @return 原始 json
+	 */
+	public String json(long handle) {
+		if (closed) {
+			throw new IllegalStateException("BoundPayloadStore closed : " + file);
+		}
+		MappedByteBuffer[] segments = this.segments;
+		int index = (int) (handle / segmentSize);
+		if (handle < 0 || index >= segments.length) {
+			throw new IllegalArgumentException("Invalid bound handle " + handle);
+		}
+		ByteBuffer buffer = segments[index].duplicate();
+		buffer.position((int) (handle % segmentSize));
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * 读取并解析 json，解析结果按 LRU 缓存
+	 * @param handle	: 句柄，see {@link #put(String)}
+	 * @return 解析后的绑定数据
+	 */
+	public Object payload(long handle) {
+		synchronized (cache) {
+			Object payload = cache.get(handle);
+			if (payload != null) {
+				return payload;
+			}
+		}
+		Object payload;
+		try {
+			payload = decoder.decode(this.json(handle));
+		} catch (Exception e) {
+			throw new IllegalStateException("Invalid bound json of handle " + handle, e);
+		}
+		if (payload != null) {
+			synchronized (cache) {
+				cache.put(handle, payload);
+			}
+		}
+		return payload;
+	}
+	
+	private MappedByteBuffer segment(long handle) {
+		int index = (int) (handle / segmentSize);
+		MappedByteBuffer[] segments = this.segments;
+		if (index < segments.length) {
+			return segments[index];
+		}
+		try {
+			MappedByteBuffer[] copy = Arrays.copyOf(segments, index + 1);
+			for (int i = segments.length; i <= index; i++) {
+				copy[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * segmentSize, segmentSize);
+			}
+			this.segments = copy;
+			return copy[index];
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * @return 已写入的数据条数
+	 */
+	public synchronized int size() {
+		return count;
+	}
+	
+	/**
+	 * @return 尚未释放的句柄数
+	 */
+	public synchronized int live() {
+		return live;
+	}
+	
+	/**
+	 * @return 已使用的文件字节数
+	 */
+	public synchronized long bytes() {
+		return position;
+	}
+	
+	public Path getFile() {
+		return file;
+	}
+	
+	/**
+	 * 关闭文件，临时文件同时删除；映射的内存在段对象被回收后释放
+	 * @throws IllegalStateException if there are live handles, see {@link #release(long)}
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		if (live > 0) {
+			throw new IllegalStateException("BoundPayloadStore still has " + live
+					+ " live handles, release the generated classes (EndpointApiUtils#releaseInvokers) before closing");
+		}
+		closed = true;
+		synchronized (cache) {
+			cache.clear();
+		}
+		this.segments = new MappedByteBuffer[0];
+		channel.close();
+		if (temporary) {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bound;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 写时复制数组实现的 {@link BoundHandlerRegistry}：调用时只读取 volatile 数组的一个元素，
+ * 注册及注销时复制数组，适合注册少、调用多的场景
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DefaultBoundHandlerRegistry implements BoundHandlerRegistry {
+
+	private static final DefaultBoundHandlerRegistry INSTANCE = new DefaultBoundHandlerRegistry();
+	
+	private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+	private final AtomicInteger sequence = new AtomicInteger();
+	private volatile InvocationHandler[] handlers = new InvocationHandler[0];
+	
+	/**
+	 * @return 全局共享的 {@link DefaultBoundHandlerRegistry}
+	 */
+	public static DefaultBoundHandlerRegistry getInstance() {
+		return INSTANCE;
+	}
+	
+	@Override
+	public int id(String uid) {
+		return ids.computeIfAbsent(uid, key -> sequence.getAndIncrement());
+	}
+	
+	@Override
+	public InvocationHandler handler(int id) {
+		InvocationHandler[] handlers = this.handlers;
+		return id < handlers.length ? handlers[id] : null;
+	}
+
+	@Override
+	public synchronized InvocationHandler register(String uid, InvocationHandler handler) {
+		int id = this.id(uid);
+		InvocationHandler[] handlers = this.handlers;
+		InvocationHandler previous = id < handlers.length ? handlers[id] : null;
+		InvocationHandler[] copy = Arrays.copyOf(handlers, Math.max(handlers.length, Math.max(id + 1, sequence.get())));
+		copy[id] = handler;
+		this.handlers = copy;
+		return previous;
+	}
+	
+	@Override
+	public synchronized InvocationHandler unregister(String uid) {
+		Integer id = ids.get(uid);
+		InvocationHandler[] handlers = this.handlers;
+		if (id == null || id >= handlers.length || handlers[id] == null) {
+			return null;
+		}
+		InvocationHandler[] copy = handlers.clone();
+		InvocationHandler previous = copy[id];
+		copy[id] = null;
+		this.handlers = copy;
+		return previous;
+	}
+	
+	/**
+	 * @return 已分配 id 的 uid 个数
+	 */
+	public int size() {
+		return ids.size();
+	}
+	
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bound;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 不依赖 JSON 类库的解析：对象解析为不可变的 Map（保持字段顺序），数组解析为不可变的 List，
+ * 整数解析为 Long（超出范围时为 BigInteger），小数解析为 Double
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SimpleJsonDecoder implements BoundDecoder {
+
+	public static final SimpleJsonDecoder INSTANCE = new SimpleJsonDecoder();
+	
+	@Override
+	public Object decode(String json) {
+		Parser parser = new Parser(json);
+		Object value = parser.value();
+		parser.whitespace();
+		if (parser.index < json.length()) {
+			throw parser.error("Unexpected character");
+		}
+		return value;
+	}
+	
+	private static class Parser {
+		
+		private final String json;
+		private int index = 0;
+		
+		Parser(String json) {
+			this.json = json;
+		}
+		
+		Object value() {
+			this.whitespace();
+			if (index >= json.length()) {
+				throw this.error("Unexpected end of json");
+			}
+			char c = json.charAt(index);
+			switch (c) {
+				case '{':
+					return this.object();
+				case '[':
+					return this.array();
+				case '"':
+					return this.string();
+				case 't':
+					return this.literal("true", Boolean.TRUE);
+				case 'f':
+					return this.literal("false", Boolean.FALSE);
+				case 'n':
+					return this.literal("null", null);
+				default:
+					if (c == '-' || (c >= '0' && c <= '9')) {
+						return this.number();
+					}
+					throw this.error("Unexpected character");
+			}
+		}
+		
+		Map<String, Object> object() {
+			Map<String, Object> map = new LinkedHashMap<>();
+			index++;
+			this.whitespace();
+			if (this.peek() == '}') {
+				index++;
+				return Collections.emptyMap();
+			}
+			while (true) {
+				this.whitespace();
+				if (this.peek() != '"') {
+					throw this.error("Expected field name");
+				}
+				String name = this.string();
+				this.whitespace();
+				this.expect(':');
+				map.put(name, this.value());
+				this.whitespace();
+				if (this.peek() == ',') {
+					index++;
+					continue;
+				}
+				this.expect('}');
+				return Collections.unmodifiableMap(map);
+			}
+		}
+		
+		List<Object> array() {
+			List<Object> list = new ArrayList<>();
+			index++;
+			this.whitespace();
+			if (this.peek() == ']') {
+				index++;
+				return Collections.emptyList();
+			}
+			while (true) {
+				list.add(this.value());
+				this.whitespace();
+				if (this.peek() == ',') {
+					index++;
+					continue;
+				}
+				this.expect(']');
+				return Collections.unmodifiableList(list);
+			}
+		}
+		
+		String string() {
+			index++;
+			StringBuilder builder = null;
+			int start = index;
+			while (index < json.length()) {
+				char c = json.charAt(index);
+				if (c == '"') {
+					String value = builder == null ? json.substring(start, index) : builder.append(json, start, index).toString();
+					index++;
+					return value;
+				}
+				if (c != '\\') {
+					index++;
+					continue;
+				}
+				if (builder == null) {
+					builder = new StringBuilder();
+				}
+				builder.append(json, start, index);
+				if (++index >= json.length()) {
+					break;
+				}
+				char escaped = json.charAt(index++);
+				switch (escaped) {
+					case 'b':
+						builder.append('\b');
+						break;
+					case 'f':
+						builder.append('\f');
+						break;
+					case 'n':
+						builder.append('\n');
+						break;
+					case 'r':
+						builder.append('\r');
+						break;
+					case 't':
+						builder.append('\t');
+						break;
+					case 'u':
+						builder.append(this.unicode());
+						break;
+					case '"':
+					case '\\':
+					case '/':
+						builder.append(escaped);
+						break;
+					default:
+						index--;
+						throw this.error("Invalid escape '\\" + escaped + "'");
+				}
+				start = index;
+			}
+			throw this.error("Unterminated string");
+		}
+		
+		/**
+		 * 解析 unicode 转义的 4 位十六进制数字
+		 */
+		char unicode() {
+			if (index + 4 > json.length()) {
+				throw this.error("Invalid unicode escape");
+			}
+			int code = 0;
+			for (int end = index + 4; index < end; index++) {
+				int digit = Character.digit(json.charAt(index), 16);
+				if (digit < 0) {
+					throw this.error("Invalid unicode escape");
+				}
+				code = (code << 4) | digit;
+			}
+			return (char) code;
+		}
+		
+		Object number() {
+			int start = index;
+			boolean decimal = false;
+			if (this.peek() == '-') {
+				index++;
+			}
+			while (index < json.length()) {
+				char c = json.charAt(index);
+				if (c >= '0' && c <= '9') {
+					index++;
+				} else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+					decimal = true;
+					index++;
+				} else {
+					break;
+				}
+			}
+			String text = json.substring(start, index);
+			try {
+				if (decimal) {
+					return Double.valueOf(text);
+				}
+				return text.length() < 19 ? (Object) Long.valueOf(text) : new BigInteger(text);
+			} catch (NumberFormatException e) {
+				throw this.error("Invalid number '" + text + "'");
+			}
+		}
+		
+		Object literal(String literal, Object value) {
+			if (!json.startsWith(literal, index)) {
+				throw this.error("Unexpected character");
+			}
+			index += literal.length();
+			return value;
+		}
+		
+		void whitespace() {
+			while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+				index++;
+			}
+		}
+		
+		char peek() {
+			return index < json.length() ? json.charAt(index) : 0;
+		}
+		
+		void expect(char c) {
+			if (this.peek() != c) {
+				throw this.error("Expected '" + c + "'");
+			}
+			index++;
+		}
+		
+		IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " at position " + index + " of json");
+		}
+		
+	}
+	
+}
@@ -2,12 +2,27 @@ package org.springframework.javassist.bytecode;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.Builder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.javassist.bound.BoundDecoder;
+import org.springframework.javassist.bound.BoundHandlerRegistry;
+import org.springframework.javassist.bound.BoundPayloadStore;
 import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcInterner;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.invoke.BoundInvoker;
+import org.springframework.javassist.invoke.EndpointInvoker;
+import org.springframework.javassist.invoke.RegistryInvoker;
+import org.springframework.javassist.jfr.EndpointEvent;
+import org.springframework.javassist.jfr.EndpointEvents;
 import org.springframework.javassist.utils.EndpointApiUtils;
 
 import com.github.hiwepy.javassist.bytecode.CtAnnotationBuilder;
@@ -45,6 +60,14 @@ public class CtClassBuilder implements Builder<CtClass> {
 	protected ClassFile classFile = null;
 	//private Loader loader = new Loader(pool);
 	protected boolean annotApi = false;
+	// 类级别 @WebBound 绑定数据
+	protected MvcBound bound = null;
+	// JFR 类生成事件
+	protected EndpointEvent generation = null;
+	// 静态字段初始值：类加载后通过反射写入
+	protected Map<String, Object> statics = new LinkedHashMap<>();
+	// 定义对象字符串去重，不为空时新增方法前对定义对象去重
+	protected MvcInterner interner = null;
 	
 	public CtClassBuilder(final String classname) throws CannotCompileException, NotFoundException  {
 		this(ClassPoolFactory.getDefaultPool(), classname, Object.class);
@@ -56,6 +79,7 @@ public class CtClassBuilder implements Builder<CtClass> {
 	
 	public CtClassBuilder(final ClassPool pool, final String classname, final Class<?> superclass) throws CannotCompileException, NotFoundException {
 		
+		this.generation = EndpointEvents.classGeneration(classname);
 		this.pool = pool;
 		this.declaring = EndpointApiUtils.makeClass(pool, classname);
 		
@@ -185,6 +209,7 @@ public class CtClassBuilder implements Builder<CtClass> {
 		ConstPool constPool = this.classFile.getConstPool();
 		Annotation annot = EndpointApiUtils.annotWebBound(constPool, bound);
 		JavassistUtils.addClassAnnotation(declaring, annot);
+		this.bound = bound;
 		
 		return this;
 	}
@@ -270,11 +295,176 @@ public class CtClassBuilder implements Builder<CtClass> {
 		return this;
 	}
 	
+	/**
+	 * 添加 public static 字段，字段值在类加载后（实例化之前）写入
+	 * @param type		: The type of field
+	 * @param name		: The name of field
+	 * @param value		: The value of field
+	 * @return The name of field
+	 * @throws CannotCompileException if can't compile
+	 */
+	protected String makeStaticField(final Class<?> type, final String name, final Object value) throws CannotCompileException {
+		CtField field = CtField.make(String.format("public static %s %s;", type.getName(), name), declaring);
+		declaring.addField(field);
+		statics.put(name, value);
+		return name;
+	}
+	
+	/**
+	 * 为方法添加调用链静态字段，方法重载时字段名追加序号
+	 * @param methodName	: The name of method
+	 * @param invoker		: The {@link EndpointInvoker invoker} instance
+	 * @return The name of field
+	 * @throws CannotCompileException if can't compile
+	 */
+	protected String makeInvoker(final String methodName, final EndpointInvoker invoker) throws CannotCompileException {
+		return this.makeStaticField(EndpointInvoker.class, this.staticFieldName("__invoker_", methodName), invoker);
+	}
+	
+	/**
+	 * @param prefix		: The prefix of field name
+	 * @param methodName	: The name of method
+	 * @return 未被使用的静态字段名称，方法重载时追加序号
+	 */
+	protected String staticFieldName(final String prefix, final String methodName) {
+		String name = prefix + methodName;
+		for (int i = 1; statics.containsKey(name); i++) {
+			name = prefix + methodName + "_" + i;
+		}
+		return name;
+	}
+	
+	/**
+	 * 在生成时解析方法的 @WebBound json（为空时使用类级别 json），由构造的 {@link BoundInvoker} 持有；
+	 * 指定 {@link BoundPayloadStore} 时 json 写入堆外存储，BoundInvoker 只持有 long 类型的句柄，调用时再读取解析
+	 * @param methodName	: The name of method
+	 * @param bound			: 方法级 @WebBound 绑定数据
+	 * @param decoder		: The {@link BoundDecoder}, null to skip
+	 * @param store			: The {@link BoundPayloadStore}, 不为空时优先于 decoder
+	 * @param next			: The next {@link EndpointInvoker invoker}
+	 * @return {@link BoundInvoker} instance, or next when there is no json to decode
+	 * @throws CannotCompileException if json can't be decoded
+	 */
+	protected EndpointInvoker boundInvoker(final String methodName, final MvcBound bound, final BoundDecoder decoder,
+			final BoundPayloadStore store, final EndpointInvoker next) throws CannotCompileException {
+		if (decoder == null && store == null) {
+			return next;
+		}
+		String json = bound != null && StringUtils.isNotBlank(bound.getJson()) ? bound.getJson()
+				: this.bound != null ? this.bound.getJson() : null;
+		if (StringUtils.isBlank(json)) {
+			return next;
+		}
+		if (store != null) {
+			long handle;
+			try {
+				handle = store.put(json);
+			} catch (IllegalArgumentException e) {
+				throw new CannotCompileException(new IllegalArgumentException("Invalid @WebBound json of method " + methodName, e));
+			}
+			return new BoundInvoker(store, handle, next);
+		}
+		Object payload;
+		try {
+			payload = decoder.decode(json);
+		} catch (Exception e) {
+			throw new CannotCompileException(new IllegalArgumentException("Invalid @WebBound json of method " + methodName, e));
+		}
+		return new BoundInvoker(payload, next);
+	}
+	
+	/**
+	 * 设置了 {@link MvcInterner} 时，方法、绑定数据及参数定义中的字符串替换为去重后的实例
+	 * @param method	: The {@link MvcMethod method} instance, nullable
+	 * @param bound		: The {@link MvcBound bound} instance, nullable
+	 * @param params	: The {@link MvcParam param} instances
+	 */
+	protected void intern(final MvcMethod method, final MvcBound bound, final MvcParam<?>... params) {
+		if (interner == null) {
+			return;
+		}
+		if (method != null) {
+			method.intern(interner);
+		}
+		if (bound != null) {
+			bound.intern(interner);
+		}
+		if (params != null) {
+			for (MvcParam<?> param : params) {
+				param.intern(interner);
+			}
+		}
+	}
+	
+	/**
+	 * @param bound	: 方法级 @WebBound 绑定数据
+	 * @param store	: The {@link BoundPayloadStore}
+	 * @return 使用堆外存储时不带 json 的 @WebBound 绑定数据，json 不再写入动态类常量池
+	 */
+	protected MvcBound annotBound(final MvcBound bound, final BoundPayloadStore store) {
+		if (store == null || bound == null || StringUtils.isBlank(bound.getJson())) {
+			return bound;
+		}
+		MvcBound stored = new MvcBound(bound.getUid());
+		stored.setNotes(bound.getNotes());
+		return stored;
+	}
+	
+	/**
+	 * 生成时为方法的 uid（为空时使用类级别 uid）分配 id，构造从 {@link BoundHandlerRegistry} 取得 InvocationHandler 的 {@link RegistryInvoker}
+	 * @param bound			: 方法级 @WebBound 绑定数据
+	 * @param registry		: The {@link BoundHandlerRegistry}, null to skip
+	 * @param async			: 是否为异步方法
+	 * @param next			: The next {@link EndpointInvoker invoker}, {@link BoundInvoker} 的绑定数据同样传给注册的 InvocationHandler
+	 * @return {@link RegistryInvoker} instance, or next when there is no uid
+	 */
+	protected EndpointInvoker registryInvoker(final MvcBound bound, final BoundHandlerRegistry registry, final boolean async,
+			final EndpointInvoker next) {
+		String uid = this.uid(bound);
+		if (registry == null || StringUtils.isBlank(uid)) {
+			return next;
+		}
+		return new RegistryInvoker(registry, registry.id(uid), async, next);
+	}
+	
+	/**
+	 * @param bound	: 方法级 @WebBound 绑定数据
+	 * @return 方法级 uid，为空时使用类级别 uid
+	 */
+	protected String uid(final MvcBound bound) {
+		if (bound != null && bound.getUid() != null) {
+			return bound.getUid();
+		}
+		return this.bound != null ? this.bound.getUid() : null;
+	}
+	
+	/**
+	 * 调用链等静态字段只能在类加载后通过 {@link #toClass()}、{@link #toInstance(InvocationHandler)} 写入，
+	 * 存在此类字段时自行加载的类在首次调用时会出现空指针，因此直接失败；初始值为 null 的字段（如首次调用时查找的 Method）不受影响
+	 * @throws IllegalStateException if the class has static fields set after loading
+	 */
 	@Override
 	public CtClass build() {
+		List<String> fields = statics.entrySet().stream().filter(entry -> entry.getValue() != null)
+				.map(Map.Entry::getKey).collect(Collectors.toList());
+		if (!fields.isEmpty()) {
+			throw new IllegalStateException("Class " + declaring.getName() + " has static fields " + fields
+					+ " initialized after loading, load it through toClass() or toInstance()");
+		}
+		this.generated();
         return declaring;
 	}
 	
+	/**
+	 * 提交 JFR 类生成事件
+	 */
+	protected void generated() {
+		if(generation != null) {
+			EndpointEvents.classGenerated(generation, bound != null ? bound.getUid() : null);
+			generation = null;
+		}
+	}
+	
 	/**
 	 * 
 	 * javassist在加载类时会用Hashtable将类信息缓存到内存中，这样随着类的加载，内存会越来越大，甚至导致内存溢出。
@@ -283,10 +473,24 @@ public class CtClassBuilder implements Builder<CtClass> {
 	 * @throws CannotCompileException if can't compile
 	 */
 	public Class<?> toClass() throws CannotCompileException {
+		// 通过 ClassPool 的类加载器（线程上下文类加载器）加载该CtClass
+		return this.toClass(declaring.getClassPool().getClassLoader());
+	}
+	
+	/**
+	 * 使用指定的类加载器加载：重新生成同名动态类时每次使用新的类加载器，旧版本不再被引用后随类加载器一起卸载
+	 * @param loader	: The {@link ClassLoader}
+	 * @return The Class 
+	 * @throws CannotCompileException if can't compile
+	 */
+	public Class<?> toClass(final ClassLoader loader) throws CannotCompileException {
         try {
-        	// 通过类加载器加载该CtClass
-			return declaring.toClass();
+			Class<?> clazz = declaring.toClass(loader, null);
+			// 初始化静态字段
+			EndpointApiUtils.initStaticFields(clazz, statics);
+			return clazz;
 		} finally {
+			this.generated();
 			// 将该class从ClassPool中删除
 			declaring.detach();
 		} 
@@ -296,9 +500,12 @@ public class CtClassBuilder implements Builder<CtClass> {
         try {
         	// 设置InvocationHandler参数构造器
 			declaring.addConstructor(EndpointApiUtils.makeConstructor(pool, declaring));
-			// 通过类加载器加载该CtClass，并通过构造器初始化对象
-			return declaring.toClass().getConstructor(InvocationHandler.class).newInstance(handler);
+			// 通过类加载器加载该CtClass，初始化静态字段后通过构造器初始化对象
+			Class<?> clazz = declaring.toClass();
+			EndpointApiUtils.initStaticFields(clazz, statics);
+			return clazz.getConstructor(InvocationHandler.class).newInstance(handler);
 		} finally {
+			this.generated();
 			// 将该class从ClassPool中删除
 			declaring.detach();
 		} 
@@ -1,6 +1,17 @@
 package org.springframework.javassist.bytecode;
 
+import java.io.OutputStream;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import org.springframework.javassist.invoke.AsyncInvocationHandler;
+import org.springframework.javassist.invoke.BatchInvocationHandler;
+import org.springframework.javassist.invoke.BoundInvocationHandler;
+import org.springframework.javassist.invoke.StreamingInvocationHandler;
+import org.springframework.javassist.jfr.EndpointEvent;
+import org.springframework.javassist.jfr.EndpointEvents;
 
 public abstract class EndpointApi {
 
@@ -17,4 +28,113 @@ public abstract class EndpointApi {
 		return handler;
 	}
 	
+	/**
+	 * 动态方法调用 InvocationHandler 的统一入口
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of method
+	 * @return The result of {@link InvocationHandler}
+	 * @throws Throwable if handler throws
+	 */
+	public Object invokeHandler(Method method, Object[] args) throws Throwable {
+		EndpointEvent event = EndpointEvents.handlerDispatch(this, method);
+		try {
+			return getHandler().invoke(this, method, args);
+		} finally {
+			event.commit();
+		}
+	}
+	
+	/**
+	 * 异步动态方法调用 InvocationHandler 的统一入口：{@link AsyncInvocationHandler} 返回其 {@link CompletionStage}，
+	 * 其他 InvocationHandler 同步调用并返回结果
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of method
+	 * @return The {@link CompletionStage} or result of {@link InvocationHandler}
+	 * @throws Throwable if handler throws
+	 */
+	public Object invokeHandlerAsync(Method method, Object[] args) throws Throwable {
+		if (!(getHandler() instanceof AsyncInvocationHandler)) {
+			return invokeHandler(method, args);
+		}
+		EndpointEvent event = EndpointEvents.handlerDispatch(this, method);
+		try {
+			return ((AsyncInvocationHandler) getHandler()).invokeAsync(this, method, args);
+		} finally {
+			event.commit();
+		}
+	}
+	
+	/**
+	 * 批量调用 {@link BatchInvocationHandler} 的统一入口
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of each call
+	 * @return The results of each call, in the same order as args
+	 * @throws Throwable if handler throws
+	 */
+	public List<?> invokeHandlerBatch(Method method, List<Object[]> args) throws Throwable {
+		return invokeHandlerBatch((BatchInvocationHandler) getHandler(), method, args);
+	}
+	
+	/**
+	 * 批量调用指定的 {@link BatchInvocationHandler}（如按 uid 注册的 InvocationHandler）
+	 * @param handler	: The {@link BatchInvocationHandler}
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of each call
+	 * @return The results of each call, in the same order as args
+	 * @throws Throwable if handler throws
+	 */
+	public List<?> invokeHandlerBatch(BatchInvocationHandler handler, Method method, List<Object[]> args) throws Throwable {
+		EndpointEvent event = EndpointEvents.handlerDispatch(this, method);
+		try {
+			return handler.invokeBatch(this, method, args);
+		} finally {
+			event.commit();
+		}
+	}
+	
+	/**
+	 * 调用 {@link BoundInvocationHandler} 的统一入口
+	 * @param method	: The invoked {@link Method}
+	 * @param payload	: The decoded json of @WebBound
+	 * @param args		: The arguments of method
+	 * @return The result of {@link BoundInvocationHandler}
+	 * @throws Throwable if handler throws
+	 */
+	public Object invokeHandlerBound(Method method, Object payload, Object[] args) throws Throwable {
+		EndpointEvent event = EndpointEvents.handlerDispatch(this, method);
+		try {
+			return ((BoundInvocationHandler) getHandler()).invokeBound(this, method, payload, args);
+		} finally {
+			event.commit();
+		}
+	}
+	
+	/**
+	 * 流式调用 {@link StreamingInvocationHandler} 的统一入口
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of method
+	 * @param output	: The response body
+	 * @throws Throwable if handler throws
+	 */
+	public void invokeHandlerStreaming(Method method, Object[] args, OutputStream output) throws Throwable {
+		invokeHandlerStreaming((StreamingInvocationHandler) getHandler(), method, args, output);
+	}
+	
+	/**
+	 * 流式调用指定的 {@link StreamingInvocationHandler}（如按 uid 注册的 InvocationHandler）
+	 * @param handler	: The {@link StreamingInvocationHandler}
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of method
+	 * @param output	: The response body
+	 * @throws Throwable if handler throws
+	 */
+	public void invokeHandlerStreaming(StreamingInvocationHandler handler, Method method, Object[] args, OutputStream output) throws Throwable {
+		EndpointEvent event = EndpointEvents.handlerDispatch(this, method);
+		try {
+			handler.invokeStreaming(this, method, args, output);
+		} finally {
+			event.commit();
+		}
+	}
+	
 }
\ No newline at end of file
@@ -1,17 +1,57 @@
 package org.springframework.javassist.bytecode;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
+import org.springframework.core.io.Resource;
+import org.springframework.javassist.bound.BoundDecoder;
+import org.springframework.javassist.bound.BoundHandlerRegistry;
+import org.springframework.javassist.bound.BoundPayloadStore;
+import org.springframework.javassist.bound.DefaultBoundHandlerRegistry;
+import org.springframework.javassist.bound.SimpleJsonDecoder;
+import org.springframework.javassist.annotation.TypedParam;
+import org.springframework.javassist.bytecode.definition.MvcAdaptiveLimit;
 import org.springframework.javassist.bytecode.definition.MvcApiImplicitParam;
 import org.springframework.javassist.bytecode.definition.MvcApiResponse;
+import org.springframework.javassist.bytecode.definition.MvcAsync;
+import org.springframework.javassist.bytecode.definition.MvcBatch;
 import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcInterner;
+import org.springframework.javassist.bytecode.definition.MvcBulkhead;
+import org.springframework.javassist.bytecode.definition.MvcCache;
 import org.springframework.javassist.bytecode.definition.MvcMapping;
 import org.springframework.javassist.bytecode.definition.MvcMethod;
 import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcRateLimit;
+import org.springframework.javassist.invoke.AsyncInvocationHandler;
+import org.springframework.javassist.invoke.AdaptiveLimitInvoker;
+import org.springframework.javassist.invoke.AdaptiveLimiter;
+import org.springframework.javassist.invoke.AsyncInvoker;
+import org.springframework.javassist.invoke.BatchInvocationHandler;
+import org.springframework.javassist.invoke.BoundInvocationHandler;
+import org.springframework.javassist.invoke.BatchInvoker;
+import org.springframework.javassist.invoke.Bulkhead;
+import org.springframework.javassist.invoke.BulkheadInvoker;
+import org.springframework.javassist.invoke.CacheInvoker;
+import org.springframework.javassist.invoke.CoalescingInvoker;
+import org.springframework.javassist.invoke.EndpointExecutors;
+import org.springframework.javassist.invoke.EndpointInvoker;
+import org.springframework.javassist.invoke.PrimitiveInvocationHandler;
+import org.springframework.javassist.invoke.RateLimitInvoker;
+import org.springframework.javassist.invoke.ResponseCache;
+import org.springframework.javassist.invoke.ResourceInvoker;
+import org.springframework.javassist.invoke.ResponseCaches;
+import org.springframework.javassist.invoke.StreamingInvocationHandler;
+import org.springframework.javassist.invoke.StreamingInvoker;
+import org.springframework.javassist.resolver.TypedArgumentResolver;
+import org.springframework.javassist.resolver.TypedArguments;
 import org.springframework.javassist.utils.EndpointApiUtils;
 import org.springframework.javassist.utils.SwaggerApiUtils;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.github.hiwepy.javassist.utils.JavassistUtils;
 
@@ -22,6 +62,7 @@ import javassist.CtMethod;
 import javassist.NotFoundException;
 import javassist.bytecode.AnnotationsAttribute;
 import javassist.bytecode.ConstPool;
+import javassist.bytecode.Descriptor;
 import javassist.bytecode.MethodInfo;
 
 /**
@@ -29,6 +70,33 @@ import javassist.bytecode.MethodInfo;
  */
 public class EndpointApiCtClassBuilder extends CtClassBuilder {
 	
+	// 异步返回类型：为空时同步调用 InvocationHandler
+	protected MvcAsync async = null;
+	// 执行 InvocationHandler 的线程池：为空时使用 EndpointExecutors.blocking()
+	protected Executor executor = null;
+	// 异步请求超时时间（毫秒）：为空时使用 Spring MVC 的默认配置
+	protected Long asyncTimeout = null;
+	// 默认的方法级并发隔离配置，MvcMethod 可单独指定
+	protected MvcBulkhead bulkhead = null;
+	// 默认的方法级自适应并发限制配置，MvcMethod 可单独指定
+	protected MvcAdaptiveLimit adaptiveLimit = null;
+	// 默认的令牌桶限流配置，MvcMethod 可单独指定
+	protected MvcRateLimit rateLimit = null;
+	// 默认的响应缓存配置，MvcMethod 可单独指定
+	protected MvcCache cache = null;
+	// 是否合并参数值相同的并发调用，MvcMethod 可单独指定
+	protected boolean coalesce = false;
+	// 默认的批量调用配置，MvcMethod 可单独指定
+	protected MvcBatch batch = null;
+	// 是否为 PARAM | HEADER | PATH 参数生成直接类型转换的参数解析规则
+	protected boolean typedArguments = false;
+	// @WebBound json 解析器，不为空时在生成时解析绑定数据
+	protected BoundDecoder boundDecoder = null;
+	// @WebBound json 堆外存储，不为空时动态类只保存句柄
+	protected BoundPayloadStore boundStore = null;
+	// 按 uid 注册的业务 InvocationHandler，不为空时优先于实例的 InvocationHandler
+	protected BoundHandlerRegistry handlerRegistry = null;
+	
 	public EndpointApiCtClassBuilder(final String classname) throws CannotCompileException, NotFoundException  {
 		super(classname, EndpointApi.class);
 	}
@@ -93,6 +161,161 @@ public class EndpointApiCtClassBuilder extends CtClassBuilder {
 		return this;
 	}
 	
+	/**
+	 * 后续新增的方法返回 {@link MvcAsync} 类型：
+	 * {@link MvcAsync#COMPLETABLE_FUTURE} 、{@link MvcAsync#DEFERRED_RESULT} 将 InvocationHandler 提交到 {@link EndpointExecutors#blocking()} 执行
+	 * （JDK 21+ 使用虚拟线程，JDK 8 使用可配置的平台线程池）， {@link AsyncInvocationHandler} 则直接使用其返回的 CompletionStage；
+	 * {@link MvcAsync#CALLABLE} 、{@link MvcAsync#WEB_ASYNC_TASK} 由 Spring MVC 的 AsyncTaskExecutor 执行
+	 * @param async 异步返回类型
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder async(MvcAsync async) {
+		return this.async(async, null);
+	}
+	
+	/**
+	 * 后续新增的方法返回 {@link MvcAsync} 类型，InvocationHandler 提交到指定线程池执行
+	 * @param async 异步返回类型
+	 * @param executor 线程池
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder async(MvcAsync async, Executor executor) {
+		this.async = async;
+		this.executor = executor;
+		return this;
+	}
+	
+	/**
+	 * 异步请求超时时间，作用于 {@link MvcAsync#DEFERRED_RESULT} 、{@link MvcAsync#WEB_ASYNC_TASK}
+	 * @param timeout 超时时间（毫秒）
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder asyncTimeout(long timeout) {
+		this.asyncTimeout = timeout;
+		return this;
+	}
+	
+	/**
+	 * 后续新增的方法启用并发隔离：并发调用数超出限制（且排队已满或等待超时）时立即失败，不再调用 InvocationHandler；
+	 * {@link MvcMethod#getBulkhead()} 不为空时以其为准
+	 * @param bulkhead 并发隔离配置
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder bulkhead(MvcBulkhead bulkhead) {
+		this.bulkhead = bulkhead;
+		return this;
+	}
+	
+	/**
+	 * 后续新增的方法启用自适应并发限制：根据调用耗时动态调整并发上限，超出上限时立即失败；
+	 * {@link MvcMethod#getAdaptiveLimit()} 不为空时以其为准
+	 * @param adaptiveLimit 自适应并发限制配置
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder adaptiveLimit(MvcAdaptiveLimit adaptiveLimit) {
+		this.adaptiveLimit = adaptiveLimit;
+		return this;
+	}
+	
+	/**
+	 * 后续新增的方法启用令牌桶限流：调用 InvocationHandler 之前获取令牌，令牌不足时立即失败（默认 429）；
+	 * {@link MvcMethod#getRateLimit()} 不为空时以其为准
+	 * @param rateLimit 令牌桶限流配置
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder rateLimit(MvcRateLimit rateLimit) {
+		this.rateLimit = rateLimit;
+		return this;
+	}
+	
+	/**
+	 * 后续新增的方法启用响应缓存：以参数值为键，命中时不再调用 InvocationHandler，只作用于只映射 GET | HEAD 请求的方法；
+	 * 可通过 {@link ResponseCaches#invalidate(String)} 按 uid 清空缓存；{@link MvcMethod#getCache()} 不为空时以其为准
+	 * @param cache 响应缓存配置
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder cache(MvcCache cache) {
+		this.cache = cache;
+		return this;
+	}
+	
+	/**
+	 * 后续新增的方法是否合并参数值相同的并发调用：并发调用共享同一次 InvocationHandler 调用及其结果；
+	 * 只作用于只映射 GET | HEAD 请求的方法，{@link MvcMethod#getCoalesce()} 不为空时以其为准
+	 * @param coalesce 是否合并
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder coalesce(boolean coalesce) {
+		this.coalesce = coalesce;
+		return this;
+	}
+	
+	/**
+	 * 后续新增的方法启用批量调用：时间窗口内的并发调用合并后批量调用 {@link BatchInvocationHandler}；
+	 * 方法返回 CompletableFuture（同步返回类型的方法改为返回 CompletableFuture，不阻塞容器线程）；{@link MvcMethod#getBatch()} 不为空时以其为准
+	 * @param batch 批量调用配置
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder batch(MvcBatch batch) {
+		this.batch = batch;
+		return this;
+	}
+	
+	/**
+	 * 后续新增方法的 PARAM | HEADER | PATH 参数使用 {@link TypedParam} 注解，由 {@link TypedArgumentResolver} 按预先生成的
+	 * {@link TypedArguments} 直接转换参数值及默认值，不经过通用的参数解析及类型转换；需要在 WebMvcConfigurer 中注册 {@link TypedArgumentResolver}
+	 * @param typedArguments 是否生成参数解析规则
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder typedArguments(boolean typedArguments) {
+		this.typedArguments = typedArguments;
+		return this;
+	}
+	
+	/**
+	 * 后续新增方法的 @WebBound json 在生成时解析一次，由方法的调用链持有，
+	 * 调用时直接传给 {@link BoundInvocationHandler}，不再每次请求解析 json
+	 * @param boundDecoder json 解析器，如 {@link SimpleJsonDecoder#INSTANCE}
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder boundDecoder(BoundDecoder boundDecoder) {
+		this.boundDecoder = boundDecoder;
+		return this;
+	}
+	
+	/**
+	 * 后续新增方法的 @WebBound json 写入堆外存储，不再写入动态类常量池，方法的调用链只保存 long 类型的句柄；
+	 * 调用时按句柄读取解析，热点数据由 {@link BoundPayloadStore} 缓存
+	 * @param boundStore 堆外存储，优先于 {@link #boundDecoder(BoundDecoder)}
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder boundStore(BoundPayloadStore boundStore) {
+		this.boundStore = boundStore;
+		return this;
+	}
+	
+	/**
+	 * 后续新增方法的定义对象（方法、绑定数据、参数及 Swagger 参数描述）中的字符串通过 {@link MvcInterner} 去重，
+	 * 节省的内存见 {@link MvcInterner#stats()}
+	 * @param interner 去重表，如 {@link MvcInterner#getInstance()}
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder interner(MvcInterner interner) {
+		this.interner = interner;
+		return this;
+	}
+	
+	/**
+	 * 后续新增方法在生成时为 uid 分配连续 id，调用时按 id 从 {@link BoundHandlerRegistry} 取得业务 InvocationHandler，
+	 * 未注册时调用实例的 InvocationHandler
+	 * @param handlerRegistry 业务 InvocationHandler 注册表，如 {@link DefaultBoundHandlerRegistry#getInstance()}
+	 * @return {@link EndpointApiCtClassBuilder} instance
+	 */
+	public EndpointApiCtClassBuilder handlerRegistry(BoundHandlerRegistry handlerRegistry) {
+		this.handlerRegistry = handlerRegistry;
+		return this;
+	}
+	
 	/**
 	 * 添加类注解 @Api
 	 * @param tags 标签名称
@@ -223,10 +446,11 @@ public class EndpointApiCtClassBuilder extends CtClassBuilder {
 			MvcBound bound, MvcParam<?>... params) throws CannotCompileException, NotFoundException {
 		
 		//ResponseEntity.class
+		this.intern(null, bound, params);
 		
 		ConstPool constPool = this.classFile.getConstPool();
 		// 创建方法
-		CtClass returnType = pool.get(Object.class.getName());
+		CtClass returnType = pool.get(async != null ? async.getReturnType().getName() : Object.class.getName());
 		CtMethod ctMethod = null;
 		// 方法参数
 		CtClass[] parameters = EndpointApiUtils.makeParams(pool, params);
@@ -239,11 +463,13 @@ public class EndpointApiCtClassBuilder extends CtClassBuilder {
 			ctMethod = new CtMethod(returnType, methodName , null, declaring);
 		}
         // 设置方法体
-        EndpointApiUtils.methodBody(ctMethod, methodName);
+        this.methodBody(ctMethod, methodName, new MvcMethod(methodName, new String[] { path }, method), bound, async);
         // 设置方法异常捕获逻辑
         EndpointApiUtils.methodCatch(pool, ctMethod);
         // 为方法添加  @GetMapping | @PostMapping | @PutMapping | @DeleteMapping | @PatchMapping 注解
-        EndpointApiUtils.methodAnnotations(ctMethod, constPool, path, method, contentType, bound, params);
+        EndpointApiUtils.methodAnnotations(ctMethod, constPool, path, method, contentType, this.annotBound(bound, boundStore), params);
+        // 为 PARAM | HEADER | PATH 参数生成参数解析规则
+        this.typedParams(ctMethod, methodName, params);
         
         // 为方法添加  @ApiOperation | @ApiImplicitParams | @ApiResponses 注解
         if(annotApi) {
@@ -261,7 +487,7 @@ public class EndpointApiCtClassBuilder extends CtClassBuilder {
 					MvcApiImplicitParam implicitParam = new MvcApiImplicitParam(param.getName(), "", param.isRequired(),
 							param.getType().getName());
 					implicitParam.setDefaultValue(param.getDef());
-					return implicitParam;
+					return interner != null ? implicitParam.intern(interner) : implicitParam;
 				}).collect(Collectors.toList()).toArray(new MvcApiImplicitParam[params.length]);
 
 				methodAttr.addAnnotation(SwaggerApiUtils.annotApiImplicitParams(constPool, apiImplicitParams));
@@ -283,6 +509,11 @@ public class EndpointApiCtClassBuilder extends CtClassBuilder {
 	/**
 	 * 
 	 * 根据参数构造一个新的方法
+	 * <p>返回类型为 {@link StreamingResponseBody} 时生成流式方法：{@link StreamingInvocationHandler} 直接写入响应输出流，
+	 * 其他 InvocationHandler 的结果由 {@link StreamingInvoker} 分块写出</p>
+	 * <p>返回类型为 {@link Resource} 时生成文件下载方法：InvocationHandler 返回的 Resource | Path | File | byte[] | InputStream
+	 * 由 {@link ResourceInvoker} 转换为 Resource，Range 请求由 Spring MVC 处理</p>
+	 * <p>使用批量调用的同步方法返回类型改为 {@link CompletableFuture}，等待批量调用时不占用容器线程</p>
 	 * @param rtClass ：返回对象类型
 	 * @param method ：方法注释信息
 	 * @param bound  ：方法绑定数据信息
@@ -295,9 +526,22 @@ public class EndpointApiCtClassBuilder extends CtClassBuilder {
 	public <T> EndpointApiCtClassBuilder newMethod(final Class<T> rtClass, final MvcMethod method, final MvcBound bound, MvcParam<?>... params) throws CannotCompileException, NotFoundException {
 	       
 		ConstPool constPool = this.classFile.getConstPool();
+		// 定义对象字符串去重
+		this.intern(method, bound, params);
+		
+		// 返回类型为 CompletableFuture | DeferredResult | Callable | WebAsyncTask 时生成异步方法
+		MvcAsync rtAsync = MvcAsync.of(rtClass);
+		// 返回类型为 StreamingResponseBody | Resource 时生成流式方法，不使用异步返回类型
+		boolean streaming = StreamingResponseBody.class.equals(rtClass) || Resource.class.equals(rtClass);
+		MvcAsync methodAsync = streaming ? null : rtAsync != null ? rtAsync : async;
+		// 批量调用的同步方法：返回批量调用的 CompletableFuture
+		boolean batched = !streaming && methodAsync == null && !Object.class.equals(rtClass)
+				&& (method.getBatch() != null || this.batch != null);
 		
 		// 创建抽象方法
-		CtClass returnType = rtClass != null ? pool.get(rtClass.getName()) : CtClass.voidType;
+		CtClass returnType = !streaming && rtAsync == null && async != null ? pool.get(async.getReturnType().getName()) 
+				: batched ? pool.get(CompletableFuture.class.getName())
+				: rtClass != null ? pool.get(rtClass.getName()) : CtClass.voidType;
 		CtMethod ctMethod = null;
 		// 方法参数
 		CtClass[] parameters = EndpointApiUtils.makeParams(pool, params);
@@ -310,11 +554,13 @@ public class EndpointApiCtClassBuilder extends CtClassBuilder {
 			ctMethod = new CtMethod(returnType, method.getName() , null, declaring);
 		}
         // 设置方法体
-        EndpointApiUtils.methodBody(ctMethod, method);
+        this.methodBody(ctMethod, method.getName(), method, bound, methodAsync);
         // 设置方法异常捕获逻辑
         EndpointApiUtils.methodCatch(pool, ctMethod);
         // @GetMapping | @PostMapping | @PutMapping | @DeleteMapping | @PatchMapping 注解
-        EndpointApiUtils.methodAnnotations(ctMethod, constPool, method, bound, params);
+        EndpointApiUtils.methodAnnotations(ctMethod, constPool, method, this.annotBound(bound, boundStore), params);
+        // 为 PARAM | HEADER | PATH 参数生成参数解析规则
+        this.typedParams(ctMethod, method.getName(), params);
         
         // 为方法添加  @ApiOperation | @ApiImplicitParams | @ApiResponses 注解
         if(annotApi) {
@@ -332,7 +578,7 @@ public class EndpointApiCtClassBuilder extends CtClassBuilder {
 					MvcApiImplicitParam implicitParam = new MvcApiImplicitParam(param.getName(), "", param.isRequired(),
 							param.getType().getName());
 					implicitParam.setDefaultValue(param.getDef());
-					return implicitParam;
+					return interner != null ? implicitParam.intern(interner) : implicitParam;
 				}).collect(Collectors.toList()).toArray(new MvcApiImplicitParam[params.length]);
 
 				methodAttr.addAnnotation(SwaggerApiUtils.annotApiImplicitParams(constPool, apiImplicitParams));
@@ -351,6 +597,149 @@ public class EndpointApiCtClassBuilder extends CtClassBuilder {
         return this;
 	}
 	 
+	/**
+	 * 生成方法的 {@link TypedArguments} 静态字段，并将支持直接解析的参数注解替换为 {@link TypedParam}
+	 */
+	protected void typedParams(CtMethod ctMethod, String methodName, MvcParam<?>... params) throws CannotCompileException {
+		if (!typedArguments) {
+			return;
+		}
+		TypedArguments arguments = TypedArguments.of(params);
+		if (arguments == null) {
+			return;
+		}
+		String field = this.makeStaticField(TypedArguments.class, this.staticFieldName("__arguments_", methodName), arguments);
+		EndpointApiUtils.typedParams(ctMethod, this.classFile.getConstPool(), field, arguments);
+	}
+	 
+	/**
+	 * 设置方法体：存在异步、批量调用、并发隔离、限流、缓存、合并调用等调用链时，通过静态字段中的 {@link EndpointInvoker} 调用 InvocationHandler；
+	 * 参数均为基本数值类型时，为 {@link PrimitiveInvocationHandler} 生成不装箱的调用
+	 */
+	protected void methodBody(CtMethod ctMethod, String methodName, MvcMethod method, MvcBound bound, MvcAsync async) throws CannotCompileException {
+		EndpointInvoker invoker = this.invoker(ctMethod, methodName, method, bound, async);
+		String shape = invoker == EndpointInvoker.HANDLER ? EndpointApiUtils.primitiveShape(ctMethod) : null;
+		if (shape != null) {
+			String field = this.makeStaticField(Method.class, this.staticFieldName("__method_", methodName), null);
+			EndpointApiUtils.primitiveMethodBody(ctMethod, methodName, bound, field, shape);
+		} else if (invoker == EndpointInvoker.HANDLER) {
+			EndpointApiUtils.methodBody(ctMethod, methodName, bound);
+		} else {
+			EndpointApiUtils.methodBody(ctMethod, methodName, bound, this.makeInvoker(methodName, invoker));
+		}
+	}
+	
+	/**
+	 * 构造方法的调用链
+	 */
+	protected EndpointInvoker invoker(CtMethod ctMethod, String methodName, MvcMethod method, MvcBound bound, MvcAsync async) throws CannotCompileException {
+		// 预先解析的绑定数据
+		EndpointInvoker handler = this.boundInvoker(methodName, bound, boundDecoder, boundStore, async == null ? EndpointInvoker.HANDLER : EndpointInvoker.ASYNC_HANDLER);
+		// 按 uid 注册的业务 InvocationHandler
+		handler = this.registryInvoker(bound, handlerRegistry, async != null, handler);
+		// 流式方法及文件下载方法：响应写出前方法已经返回，只支持限流
+		if (this.isStreaming(ctMethod) || this.isResource(ctMethod)) {
+			MvcRateLimit rateLimit = method != null && method.getRateLimit() != null ? method.getRateLimit() : this.rateLimit;
+			EndpointInvoker invoker = this.isStreaming(ctMethod) ? new StreamingInvoker(handler)
+					: new ResourceInvoker(ResourceInvoker.Adapter.RESOURCE, handler);
+			return rateLimit != null ? RateLimitInvoker.of(rateLimit, this.uid(bound), invoker) : invoker;
+		}
+		EndpointInvoker invoker = handler;
+		// 批量调用
+		MvcBatch batch = method != null && method.getBatch() != null ? method.getBatch() : this.batch;
+		if (batch != null) {
+			invoker = new BatchInvoker(batch, BatchInvoker.Adapter.FUTURE, invoker);
+		}
+		// 并发隔离
+		MvcBulkhead bulkhead = method != null && method.getBulkhead() != null ? method.getBulkhead() : this.bulkhead;
+		if (bulkhead != null) {
+			if (bulkhead.getMaxConcurrent() <= 0 || bulkhead.getMaxQueue() < 0 || bulkhead.getMaxWait() < 0) {
+				throw new CannotCompileException("Invalid bulkhead (maxConcurrent=" + bulkhead.getMaxConcurrent() + ", maxQueue="
+						+ bulkhead.getMaxQueue() + ", maxWait=" + bulkhead.getMaxWait() + ") : " + methodName);
+			}
+			invoker = new BulkheadInvoker(new Bulkhead(bulkhead), bulkhead.getStatus(), invoker);
+		}
+		// 自适应并发限制
+		MvcAdaptiveLimit adaptiveLimit = method != null && method.getAdaptiveLimit() != null ? method.getAdaptiveLimit() : this.adaptiveLimit;
+		if (adaptiveLimit != null) {
+			invoker = new AdaptiveLimitInvoker(new AdaptiveLimiter(adaptiveLimit), adaptiveLimit.getStatus(), invoker);
+		}
+		// 合并并发调用：与响应缓存相同，只合并幂等的 GET | HEAD 请求
+		boolean coalesce = method != null && method.getCoalesce() != null ? method.getCoalesce() : this.coalesce;
+		if (coalesce && !this.isCacheable(method)) {
+			if (method != null && Boolean.TRUE.equals(method.getCoalesce())) {
+				throw new CannotCompileException("Coalescing requires a GET/HEAD only mapping : " + methodName);
+			}
+			coalesce = false;
+		}
+		if (coalesce) {
+			invoker = new CoalescingInvoker(invoker);
+		}
+		// 响应缓存：只缓存幂等的 GET | HEAD 请求，方法级配置用于其他请求方式时直接失败，构建器级配置则忽略
+		MvcCache cache = method != null && method.getCache() != null ? method.getCache() : this.cache;
+		if (cache != null && !this.isCacheable(method)) {
+			if (method != null && method.getCache() != null) {
+				throw new CannotCompileException("Response cache requires a GET/HEAD only mapping : " + methodName);
+			}
+			cache = null;
+		}
+		if (cache != null) {
+			ResponseCache responseCache = new ResponseCache(cache);
+			String uid = this.uid(bound);
+			if (uid != null) {
+				ResponseCaches.register(uid, responseCache);
+			}
+			invoker = new CacheInvoker(responseCache, uid, invoker);
+		}
+		// 令牌桶限流
+		MvcRateLimit rateLimit = method != null && method.getRateLimit() != null ? method.getRateLimit() : this.rateLimit;
+		if (rateLimit != null) {
+			invoker = RateLimitInvoker.of(rateLimit, this.uid(bound), invoker);
+		}
+		if (async == null) {
+			return invoker;
+		}
+		switch (async) {
+			case CALLABLE:
+			case WEB_ASYNC_TASK:
+				invoker = new AsyncInvoker(async, null, asyncTimeout, invoker);
+				break;
+			default:
+				invoker = new AsyncInvoker(async, executor != null ? executor : EndpointExecutors.blocking(), asyncTimeout, invoker);
+				break;
+		}
+		return invoker;
+	}
+	
+	/**
+	 * @return 方法是否只映射 GET | HEAD 请求，未指定请求方式时匹配全部请求方式，不可缓存
+	 */
+	protected boolean isCacheable(MvcMethod method) {
+		if (method == null || method.getMethod() == null || method.getMethod().length == 0) {
+			return false;
+		}
+		for (RequestMethod requestMethod : method.getMethod()) {
+			if (requestMethod != RequestMethod.GET && requestMethod != RequestMethod.HEAD) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * @return 方法返回类型是否为 {@link StreamingResponseBody}
+	 */
+	protected boolean isStreaming(CtMethod ctMethod) {
+		return ctMethod.getSignature().endsWith(")" + Descriptor.of(StreamingResponseBody.class.getName()));
+	}
+	
+	/**
+	 * @return 方法返回类型是否为 {@link Resource}
+	 */
+	protected boolean isResource(CtMethod ctMethod) {
+		return ctMethod.getSignature().endsWith(")" + Descriptor.of(Resource.class.getName()));
+	}
+	
 	public <T> EndpointApiCtClassBuilder removeMethod(final String methodName, MvcParam<?>... params) throws NotFoundException {
 		
 		// 有参方法
@@ -1,6 +1,24 @@
 package org.springframework.javassist.bytecode;
 
+import org.springframework.javassist.bound.BoundDecoder;
+import org.springframework.javassist.bound.BoundHandlerRegistry;
+import org.springframework.javassist.bound.BoundPayloadStore;
+import org.springframework.javassist.bound.DefaultBoundHandlerRegistry;
+import org.springframework.javassist.bound.SimpleJsonDecoder;
+import org.springframework.javassist.bytecode.definition.MvcAdaptiveLimit;
+import org.springframework.javassist.bytecode.definition.MvcBatch;
 import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcInterner;
+import org.springframework.javassist.bytecode.definition.MvcRateLimit;
+import org.springframework.javassist.invoke.AdaptiveLimitInvoker;
+import org.springframework.javassist.invoke.AdaptiveLimiter;
+import org.springframework.javassist.invoke.BatchInvocationHandler;
+import org.springframework.javassist.invoke.BatchInvoker;
+import org.springframework.javassist.invoke.BoundInvocationHandler;
+import org.springframework.javassist.invoke.CoalescingInvoker;
+import org.springframework.javassist.invoke.EndpointInvoker;
+import org.springframework.javassist.invoke.RateLimitInvoker;
+import org.springframework.javassist.invoke.ResourceInvoker;
 import org.springframework.javassist.utils.EndpointApiUtils;
 import org.springframework.web.reactive.function.server.ServerRequest;
 
@@ -23,6 +41,21 @@ public class ReactiveHandlerCtClassBuilder extends CtClassBuilder  {
 	public static final String METHOD_MONO_NAME = "mono";
 	public static final String METHOD_FLUX_NAME = "flux";
 	
+	// 方法自适应并发限制配置
+	protected MvcAdaptiveLimit adaptiveLimit = null;
+	// 方法令牌桶限流配置
+	protected MvcRateLimit rateLimit = null;
+	// 是否合并相同请求的并发调用
+	protected boolean coalesce = false;
+	// 方法批量调用配置
+	protected MvcBatch batch = null;
+	// @WebBound json 解析器，不为空时在生成时解析绑定数据
+	protected BoundDecoder boundDecoder = null;
+	// @WebBound json 堆外存储，不为空时动态类只保存句柄
+	protected BoundPayloadStore boundStore = null;
+	// 按 uid 注册的业务 InvocationHandler
+	protected BoundHandlerRegistry handlerRegistry = null;
+	
 	public ReactiveHandlerCtClassBuilder(final String classname) throws CannotCompileException, NotFoundException  {
 		super(classname, ReactiveHandler.class);
 	}
@@ -87,6 +120,89 @@ public class ReactiveHandlerCtClassBuilder extends CtClassBuilder  {
 		return this;
 	}
 	
+	/**
+	 * 后续新增的方法启用自适应并发限制：根据 Mono/Flux 完成耗时动态调整并发上限，超出上限时立即失败
+	 * @param adaptiveLimit 自适应并发限制配置
+	 * @return {@link ReactiveHandlerCtClassBuilder} instance
+	 */
+	public ReactiveHandlerCtClassBuilder adaptiveLimit(MvcAdaptiveLimit adaptiveLimit) {
+		this.adaptiveLimit = adaptiveLimit;
+		return this;
+	}
+	
+	/**
+	 * 后续新增的方法启用令牌桶限流：调用 InvocationHandler 之前获取令牌，令牌不足时立即失败（默认 429）
+	 * @param rateLimit 令牌桶限流配置
+	 * @return {@link ReactiveHandlerCtClassBuilder} instance
+	 */
+	public ReactiveHandlerCtClassBuilder rateLimit(MvcRateLimit rateLimit) {
+		this.rateLimit = rateLimit;
+		return this;
+	}
+	
+	/**
+	 * 后续新增的方法是否合并相同请求的并发调用：请求方法、URI 及身份请求头相同的 GET | HEAD 请求共享同一个 Mono，终止后重新调用 InvocationHandler
+	 * @param coalesce 是否合并
+	 * @return {@link ReactiveHandlerCtClassBuilder} instance
+	 */
+	public ReactiveHandlerCtClassBuilder coalesce(boolean coalesce) {
+		this.coalesce = coalesce;
+		return this;
+	}
+	
+	/**
+	 * 后续新增的方法启用批量调用：时间窗口内的并发调用合并后批量调用 {@link BatchInvocationHandler}，
+	 * Mono/Flux 方法在批量调用完成后发出结果
+	 * @param batch 批量调用配置
+	 * @return {@link ReactiveHandlerCtClassBuilder} instance
+	 */
+	public ReactiveHandlerCtClassBuilder batch(MvcBatch batch) {
+		this.batch = batch;
+		return this;
+	}
+	
+	/**
+	 * 后续新增方法的 @WebBound json 在生成时解析一次，由方法的调用链持有，调用时直接传给 {@link BoundInvocationHandler}
+	 * @param boundDecoder json 解析器，如 {@link SimpleJsonDecoder#INSTANCE}
+	 * @return {@link ReactiveHandlerCtClassBuilder} instance
+	 */
+	public ReactiveHandlerCtClassBuilder boundDecoder(BoundDecoder boundDecoder) {
+		this.boundDecoder = boundDecoder;
+		return this;
+	}
+	
+	/**
+	 * 后续新增方法的 @WebBound json 写入堆外存储，不再写入动态类常量池，方法的调用链只保存 long 类型的句柄；
+	 * 调用时按句柄读取解析，热点数据由 {@link BoundPayloadStore} 缓存
+	 * @param boundStore 堆外存储，优先于 {@link #boundDecoder(BoundDecoder)}
+	 * @return {@link ReactiveHandlerCtClassBuilder} instance
+	 */
+	public ReactiveHandlerCtClassBuilder boundStore(BoundPayloadStore boundStore) {
+		this.boundStore = boundStore;
+		return this;
+	}
+	
+	/**
+	 * 后续新增方法的定义对象（方法、绑定数据、参数及 Swagger 参数描述）中的字符串通过 {@link MvcInterner} 去重，
+	 * 节省的内存见 {@link MvcInterner#stats()}
+	 * @param interner 去重表，如 {@link MvcInterner#getInstance()}
+	 * @return {@link ReactiveHandlerCtClassBuilder} instance
+	 */
+	public ReactiveHandlerCtClassBuilder interner(MvcInterner interner) {
+		this.interner = interner;
+		return this;
+	}
+	
+	/**
+	 * 后续新增方法调用时按生成时分配的 uid id 从 {@link BoundHandlerRegistry} 取得业务 InvocationHandler
+	 * @param handlerRegistry 业务 InvocationHandler 注册表，如 {@link DefaultBoundHandlerRegistry#getInstance()}
+	 * @return {@link ReactiveHandlerCtClassBuilder} instance
+	 */
+	public ReactiveHandlerCtClassBuilder handlerRegistry(BoundHandlerRegistry handlerRegistry) {
+		this.handlerRegistry = handlerRegistry;
+		return this;
+	}
+	
 	/**
 	 * @param bound  		：方法绑定数据信息
 	 * @return {@link ReactiveHandlerCtClassBuilder} instance
@@ -96,6 +212,7 @@ public class ReactiveHandlerCtClassBuilder extends CtClassBuilder  {
 	public ReactiveHandlerCtClassBuilder monoMethod(final MvcBound bound) throws CannotCompileException, NotFoundException {
 		
 		ConstPool constPool = this.classFile.getConstPool();
+		this.intern(null, bound);
 		
 		// 方法参数
 		CtClass[] parameters = new CtClass[1];
@@ -105,11 +222,11 @@ public class ReactiveHandlerCtClassBuilder extends CtClassBuilder  {
 		CtMethod ctMethod = new CtMethod(returnType, METHOD_MONO_NAME, parameters, declaring);
 		
         // 设置方法体
-        EndpointApiUtils.methodBody(ctMethod, METHOD_MONO_NAME);
+        this.methodBody(ctMethod, METHOD_MONO_NAME, bound);
         // 设置方法异常捕获逻辑
         EndpointApiUtils.methodCatch(pool, ctMethod);
         // @WebBound 注解
-        EndpointApiUtils.methodBound(ctMethod, constPool, bound);
+        EndpointApiUtils.methodBound(ctMethod, constPool, this.annotBound(bound, boundStore));
         
         //新增方法
         declaring.addMethod(ctMethod);
@@ -127,6 +244,7 @@ public class ReactiveHandlerCtClassBuilder extends CtClassBuilder  {
 	public ReactiveHandlerCtClassBuilder fluxMethod(final MvcBound bound) throws CannotCompileException, NotFoundException {
 		
 		ConstPool constPool = this.classFile.getConstPool();
+		this.intern(null, bound);
 		
 		// 方法参数
 		CtClass[] parameters = new CtClass[1];
@@ -136,11 +254,11 @@ public class ReactiveHandlerCtClassBuilder extends CtClassBuilder  {
 		CtMethod ctMethod = new CtMethod(returnType, METHOD_FLUX_NAME, parameters, declaring);
 		
         // 设置方法体
-        EndpointApiUtils.methodBody(ctMethod, METHOD_FLUX_NAME);
+        this.methodBody(ctMethod, METHOD_FLUX_NAME, bound);
         // 设置方法异常捕获逻辑
         EndpointApiUtils.methodCatch(pool, ctMethod);
         // @WebBound 注解
-        EndpointApiUtils.methodBound(ctMethod, constPool, bound);
+        EndpointApiUtils.methodBound(ctMethod, constPool, this.annotBound(bound, boundStore));
         
         //新增方法
         declaring.addMethod(ctMethod);
@@ -149,9 +267,49 @@ public class ReactiveHandlerCtClassBuilder extends CtClassBuilder  {
 
 	}
 	
+	/**
+	 * 构造文件下载方法：返回 Mono&lt;ServerResponse&gt;，InvocationHandler 返回（或通过 Publisher 发布）的 Resource | Path | File | byte[] | InputStream
+	 * 由 {@link ResourceInvoker} 写出，文件资源通过 ZeroCopyHttpOutputMessage 零拷贝写出并支持 Range 请求
+	 * @param methodName 	：方法名称
+	 * @param bound  		：方法绑定数据信息
+	 * @return {@link ReactiveHandlerCtClassBuilder} instance
+	 * @throws CannotCompileException if can't compile
+	 * @throws NotFoundException  if not found
+	 */
+	public ReactiveHandlerCtClassBuilder resourceMethod(final String methodName, final MvcBound bound) throws CannotCompileException, NotFoundException {
+		
+		ConstPool constPool = this.classFile.getConstPool();
+		this.intern(null, bound);
+		
+		// 方法参数
+		CtClass[] parameters = new CtClass[1];
+				  parameters[0] = pool.get(ServerRequest.class.getName());
+		// 创建方法
+		CtClass returnType = pool.get(Mono.class.getName());
+		CtMethod ctMethod = new CtMethod(returnType, methodName, parameters, declaring);
+		
+		// 设置方法体：响应写出前方法已经返回，只支持限流
+		EndpointInvoker invoker = new ResourceInvoker(ResourceInvoker.Adapter.SERVER_RESPONSE,
+				this.registryInvoker(bound, handlerRegistry, false, this.boundInvoker(methodName, bound, boundDecoder, boundStore, EndpointInvoker.HANDLER)));
+		if (rateLimit != null) {
+			invoker = RateLimitInvoker.of(rateLimit, this.uid(bound), invoker);
+		}
+		EndpointApiUtils.methodBody(ctMethod, methodName, bound, this.makeInvoker(methodName, invoker));
+        // 设置方法异常捕获逻辑
+        EndpointApiUtils.methodCatch(pool, ctMethod);
+        // @WebBound 注解
+        EndpointApiUtils.methodBound(ctMethod, constPool, this.annotBound(bound, boundStore));
+        
+        //新增方法
+        declaring.addMethod(ctMethod);
+        
+        return this;
+	}
+	
 	/**
 	 * 
 	 * 根据参数构造一个新的方法
+	 * <p>启用批量调用时，返回类型不是 Mono | Flux | Object 的方法改为返回 {@link Mono}，等待批量调用时不阻塞事件循环</p>
 	 * @param rtClass 		：返回对象类型
 	 * @param methodName 	：方法名称
 	 * @param bound  		：方法绑定数据信息
@@ -163,9 +321,12 @@ public class ReactiveHandlerCtClassBuilder extends CtClassBuilder  {
 	public <T> ReactiveHandlerCtClassBuilder newMethod(final Class<T> rtClass, final String methodName, final MvcBound bound) throws CannotCompileException, NotFoundException {
 	       
 		ConstPool constPool = this.classFile.getConstPool();
+		this.intern(null, bound);
 		
 		// 创建抽象方法
-		CtClass returnType = rtClass != null ? pool.get(rtClass.getName()) : CtClass.voidType;
+		boolean batched = batch != null && !Object.class.equals(rtClass) && (rtClass == null
+				|| !Mono.class.isAssignableFrom(rtClass) && !Flux.class.isAssignableFrom(rtClass));
+		CtClass returnType = batched ? pool.get(Mono.class.getName()) : rtClass != null ? pool.get(rtClass.getName()) : CtClass.voidType;
 		// 方法参数
 		CtClass[] parameters = new CtClass[1];
 				  parameters[0] = pool.get(ServerRequest.class.getName());
@@ -173,11 +334,11 @@ public class ReactiveHandlerCtClassBuilder extends CtClassBuilder  {
 		CtMethod ctMethod = new CtMethod(returnType, methodName, parameters, declaring);
 		
         // 设置方法体
-        EndpointApiUtils.methodBody(ctMethod, methodName);
+        this.methodBody(ctMethod, methodName, bound);
         // 设置方法异常捕获逻辑
         EndpointApiUtils.methodCatch(pool, ctMethod);
         // @WebBound 注解
-        EndpointApiUtils.methodBound(ctMethod, constPool, bound);
+        EndpointApiUtils.methodBound(ctMethod, constPool, this.annotBound(bound, boundStore));
         
         //新增方法
         declaring.addMethod(ctMethod);
@@ -185,6 +346,49 @@ public class ReactiveHandlerCtClassBuilder extends CtClassBuilder  {
         return this;
 	}
 	
+	/**
+	 * 设置方法体：存在批量调用、自适应并发限制、限流、合并调用等调用链时，通过静态字段中的 {@link EndpointInvoker} 调用 InvocationHandler
+	 */
+	protected void methodBody(CtMethod ctMethod, String methodName, MvcBound bound) throws CannotCompileException {
+		EndpointInvoker invoker = this.invoker(ctMethod, methodName, bound);
+		if (invoker == EndpointInvoker.HANDLER) {
+			EndpointApiUtils.methodBody(ctMethod, methodName, bound);
+		} else {
+			EndpointApiUtils.methodBody(ctMethod, methodName, bound, this.makeInvoker(methodName, invoker));
+		}
+	}
+	
+	/**
+	 * 构造方法的调用链
+	 */
+	protected EndpointInvoker invoker(CtMethod ctMethod, String methodName, MvcBound bound) throws CannotCompileException {
+		EndpointInvoker invoker = this.boundInvoker(methodName, bound, boundDecoder, boundStore, EndpointInvoker.HANDLER);
+		invoker = this.registryInvoker(bound, handlerRegistry, false, invoker);
+		if (batch != null) {
+			invoker = new BatchInvoker(batch, this.adapter(ctMethod.getSignature()), invoker);
+		}
+		if (adaptiveLimit != null) {
+			invoker = new AdaptiveLimitInvoker(new AdaptiveLimiter(adaptiveLimit), adaptiveLimit.getStatus(), invoker);
+		}
+		if (coalesce) {
+			invoker = new CoalescingInvoker(invoker);
+		}
+		if (rateLimit != null) {
+			invoker = RateLimitInvoker.of(rateLimit, this.uid(bound), invoker);
+		}
+		return invoker;
+	}
+	
+	private BatchInvoker.Adapter adapter(String signature) {
+		if (signature.endsWith(")L" + Mono.class.getName().replace('.', '/') + ";")) {
+			return BatchInvoker.Adapter.MONO;
+		}
+		if (signature.endsWith(")L" + Flux.class.getName().replace('.', '/') + ";")) {
+			return BatchInvoker.Adapter.FLUX;
+		}
+		return BatchInvoker.Adapter.FUTURE;
+	}
+	
 	public <T> ReactiveHandlerCtClassBuilder removeMono() throws NotFoundException {
 		return this.removeMethod(METHOD_MONO_NAME);
 	}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 方法级自适应并发限制配置：根据观测到的响应时间（RTT）动态调整并发上限（Vegas 算法）
+ */
+public class MvcAdaptiveLimit {
+
+	/**
+	 * 初始并发上限
+	 */
+	private int initialLimit = 20;
+	/**
+	 * 最小并发上限
+	 */
+	private int minLimit = 1;
+	/**
+	 * 最大并发上限
+	 */
+	private int maxLimit = 1000;
+	/**
+	 * 每隔多少次采样重新探测无负载 RTT
+	 */
+	private int probeInterval = 1000;
+	/**
+	 * 拒绝请求时的响应状态码
+	 */
+	private HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+	
+	public MvcAdaptiveLimit() {
+	}
+	
+	/**
+	 * @param initialLimit	: 初始并发上限
+	 * @param minLimit		: 最小并发上限
+	 * @param maxLimit		: 最大并发上限
+	 */
+	public MvcAdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+		this.initialLimit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+	}
+
+	public int getInitialLimit() {
+		return initialLimit;
+	}
+
+	public void setInitialLimit(int initialLimit) {
+		this.initialLimit = initialLimit;
+	}
+
+	public int getMinLimit() {
+		return minLimit;
+	}
+
+	public void setMinLimit(int minLimit) {
+		this.minLimit = minLimit;
+	}
+
+	public int getMaxLimit() {
+		return maxLimit;
+	}
+
+	public void setMaxLimit(int maxLimit) {
+		this.maxLimit = maxLimit;
+	}
+
+	public int getProbeInterval() {
+		return probeInterval;
+	}
+
+	public void setProbeInterval(int probeInterval) {
+		this.probeInterval = probeInterval;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(HttpStatus status) {
+		this.status = status;
+	}
+	
+}
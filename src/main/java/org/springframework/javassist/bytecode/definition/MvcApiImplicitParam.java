@@ -313,5 +313,24 @@ public class MvcApiImplicitParam {
 	public void setCollectionFormat(String collectionFormat) {
 		this.collectionFormat = collectionFormat;
 	}
+	
+	/**
+	 * @param interner	: The {@link MvcInterner}
+	 * @return this
+	 */
+	public MvcApiImplicitParam intern(MvcInterner interner) {
+		this.name = interner.intern(name);
+		this.value = interner.intern(value);
+		this.defaultValue = interner.intern(defaultValue);
+		this.allowableValues = interner.intern(allowableValues);
+		this.access = interner.intern(access);
+		this.dataType = interner.intern(dataType);
+		this.paramType = interner.intern(paramType);
+		this.example = interner.intern(example);
+		this.type = interner.intern(type);
+		this.format = interner.intern(format);
+		this.collectionFormat = interner.intern(collectionFormat);
+		return this;
+	}
 
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+/**
+ * 异步动态方法的返回类型
+ */
+public enum MvcAsync {
+
+	/**
+	 * 返回 {@link CompletableFuture}
+	 */
+	COMPLETABLE_FUTURE(CompletableFuture.class),
+	/**
+	 * 返回 {@link DeferredResult}
+	 */
+	DEFERRED_RESULT(DeferredResult.class),
+	/**
+	 * 返回 {@link Callable}，由 Spring MVC 的 AsyncTaskExecutor 执行
+	 */
+	CALLABLE(Callable.class),
+	/**
+	 * 返回 {@link WebAsyncTask}，由 Spring MVC 的 AsyncTaskExecutor 执行
+	 */
+	WEB_ASYNC_TASK(WebAsyncTask.class);
+	
+	private final Class<?> returnType;
+	
+	private MvcAsync(Class<?> returnType) {
+		this.returnType = returnType;
+	}
+
+	public Class<?> getReturnType() {
+		return returnType;
+	}
+	
+	/**
+	 * 根据方法返回类型获取异步类型
+	 * @param returnType 方法返回类型
+	 * @return 异步类型，非异步返回类型时为 null
+	 */
+	public static MvcAsync of(Class<?> returnType) {
+		if (returnType == null) {
+			return null;
+		}
+		if (CompletionStage.class.equals(returnType)) {
+			return COMPLETABLE_FUTURE;
+		}
+		for (MvcAsync async : values()) {
+			if (async.getReturnType().isAssignableFrom(returnType)) {
+				return async;
+			}
+		}
+		return null;
+	}
+	
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+/**
+ * 方法级批量调用配置：时间窗口内的并发调用合并后批量调用 BatchInvocationHandler，达到最大批量时立即调用
+ */
+public class MvcBatch {
+
+	/**
+	 * 最大批量
+	 */
+	private final int maxSize;
+	/**
+	 * 时间窗口（毫秒）
+	 */
+	private final long window;
+	
+	/**
+	 * @param maxSize	: 最大批量
+	 * @param window	: 时间窗口（毫秒）
+	 */
+	public MvcBatch(int maxSize, long window) {
+		this.maxSize = maxSize;
+		this.window = window;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public long getWindow() {
+		return window;
+	}
+	
+}
@@ -52,6 +52,16 @@ public class MvcBound {
 	public void setNotes(String notes) {
 		this.notes = notes;
 	}
+	
+	/**
+	 * @param interner	: The {@link MvcInterner}
+	 * @return this
+	 */
+	public MvcBound intern(MvcInterner interner) {
+		this.uid = interner.intern(uid);
+		this.json = interner.intern(json);
+		this.notes = interner.intern(notes);
+		return this;
+	}
 
 }
-
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 方法级并发隔离（Bulkhead）配置
+ */
+public class MvcBulkhead {
+
+	/**
+	 * 最大并发调用数
+	 */
+	private final int maxConcurrent;
+	/**
+	 * 最大排队数：为 0 时不排队，超出并发数立即失败
+	 */
+	private int maxQueue = 0;
+	/**
+	 * 最大排队等待时间（毫秒）
+	 */
+	private long maxWait = 0;
+	/**
+	 * 拒绝请求时的响应状态码
+	 */
+	private HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+	
+	/**
+	 * @param maxConcurrent	: 最大并发调用数
+	 */
+	public MvcBulkhead(int maxConcurrent) {
+		this.maxConcurrent = maxConcurrent;
+	}
+	
+	/**
+	 * @param maxConcurrent	: 最大并发调用数
+	 * @param maxQueue		: 最大排队数
+	 * @param maxWait		: 最大排队等待时间（毫秒）
+	 */
+	public MvcBulkhead(int maxConcurrent, int maxQueue, long maxWait) {
+		this.maxConcurrent = maxConcurrent;
+		this.maxQueue = maxQueue;
+		this.maxWait = maxWait;
+	}
+	
+	/**
+	 * @param maxConcurrent	: 最大并发调用数
+	 * @param maxQueue		: 最大排队数
+	 * @param maxWait		: 最大排队等待时间（毫秒）
+	 * @param status		: 拒绝请求时的响应状态码
+	 */
+	public MvcBulkhead(int maxConcurrent, int maxQueue, long maxWait, HttpStatus status) {
+		this.maxConcurrent = maxConcurrent;
+		this.maxQueue = maxQueue;
+		this.maxWait = maxWait;
+		this.status = status;
+	}
+
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+
+	public int getMaxQueue() {
+		return maxQueue;
+	}
+
+	public void setMaxQueue(int maxQueue) {
+		this.maxQueue = maxQueue;
+	}
+
+	public long getMaxWait() {
+		return maxWait;
+	}
+
+	public void setMaxWait(long maxWait) {
+		this.maxWait = maxWait;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(HttpStatus status) {
+		this.status = status;
+	}
+	
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+/**
+ * 方法级响应缓存配置：适用于幂等的 GET 方法，以方法参数值作为缓存键
+ */
+public class MvcCache {
+
+	/**
+	 * 缓存有效期（毫秒）
+	 */
+	private final long ttl;
+	/**
+	 * 最大缓存条目数，超出时淘汰最近最少使用的条目
+	 */
+	private final int maximumSize;
+	
+	/**
+	 * @param ttl			: 缓存有效期（毫秒）
+	 * @param maximumSize	: 最大缓存条目数
+	 */
+	public MvcCache(long ttl, int maximumSize) {
+		this.ttl = ttl;
+		this.maximumSize = maximumSize;
+	}
+
+	public long getTtl() {
+		return ttl;
+	}
+
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+	
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 动态 Controller 定义：类名、类级别 @RequestMapping | @WebBound | @Api 及方法定义，用于从定义目录批量生成动态类
+ */
+public class MvcController {
+
+	/**
+	 * 动态类的完整类名
+	 */
+	private final String name;
+	/**
+	 * 类级别 @RequestMapping，可为空
+	 */
+	private MvcMapping mapping;
+	/**
+	 * 类级别 @WebBound，可为空
+	 */
+	private MvcBound bound;
+	/**
+	 * @Api 标签，为空时不生成 Swagger 注解
+	 */
+	private String[] tags;
+	/**
+	 * 方法定义
+	 */
+	private List<MvcEndpoint> endpoints = new ArrayList<>();
+	
+	public MvcController(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public MvcMapping getMapping() {
+		return mapping;
+	}
+
+	public void setMapping(MvcMapping mapping) {
+		this.mapping = mapping;
+	}
+
+	public MvcBound getBound() {
+		return bound;
+	}
+
+	public void setBound(MvcBound bound) {
+		this.bound = bound;
+	}
+
+	public String[] getTags() {
+		return tags;
+	}
+
+	public void setTags(String[] tags) {
+		this.tags = tags;
+	}
+
+	public List<MvcEndpoint> getEndpoints() {
+		return endpoints;
+	}
+
+	public void setEndpoints(List<MvcEndpoint> endpoints) {
+		this.endpoints = endpoints;
+	}
+	
+	public MvcController addEndpoint(MvcEndpoint endpoint) {
+		this.endpoints.add(endpoint);
+		return this;
+	}
+	
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+/**
+ * 动态 Controller 中的方法定义：返回类型、{@link MvcMethod}、方法级 {@link MvcBound} 及参数
+ */
+public class MvcEndpoint {
+
+	/**
+	 * 方法映射定义
+	 */
+	private final MvcMethod method;
+	/**
+	 * 返回类型，默认 Object
+	 */
+	private Class<?> returnType = Object.class;
+	/**
+	 * 方法级 @WebBound，可为空
+	 */
+	private MvcBound bound;
+	/**
+	 * 方法参数
+	 */
+	private MvcParam<?>[] params = new MvcParam<?>[0];
+	
+	public MvcEndpoint(MvcMethod method) {
+		this.method = method;
+	}
+	
+	public MvcEndpoint(Class<?> returnType, MvcMethod method, MvcBound bound, MvcParam<?>... params) {
+		this.returnType = returnType;
+		this.method = method;
+		this.bound = bound;
+		this.params = params;
+	}
+
+	public MvcMethod getMethod() {
+		return method;
+	}
+
+	public Class<?> getReturnType() {
+		return returnType;
+	}
+
+	public void setReturnType(Class<?> returnType) {
+		this.returnType = returnType;
+	}
+
+	public MvcBound getBound() {
+		return bound;
+	}
+
+	public void setBound(MvcBound bound) {
+		this.bound = bound;
+	}
+
+	public MvcParam<?>[] getParams() {
+		return params;
+	}
+
+	public void setParams(MvcParam<?>[] params) {
+		this.params = params;
+	}
+	
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+/**
+ * 定义对象去重统计
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MvcInternStats {
+
+	private final long hitCount;
+	private final long missCount;
+	private final long savedBytes;
+	private final long size;
+	
+	public MvcInternStats(long hitCount, long missCount, long savedBytes, long size) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.savedBytes = savedBytes;
+		this.size = size;
+	}
+
+	/**
+	 * @return 替换为已有实例的次数
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return 新增规范实例的次数
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return 估算节省的堆内存字节数
+	 */
+	public long getSavedBytes() {
+		return savedBytes;
+	}
+
+	public long getSize() {
+		return size;
+	}
+	
+	public double getHitRate() {
+		long requestCount = hitCount + missCount;
+		return requestCount == 0 ? 0.0 : (double) hitCount / requestCount;
+	}
+
+	@Override
+	public String toString() {
+		return "MvcInternStats [hitCount=" + hitCount + ", missCount=" + missCount + ", savedBytes=" + savedBytes
+				+ ", size=" + size + "]";
+	}
+	
+}
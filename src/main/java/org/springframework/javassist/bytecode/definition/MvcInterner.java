@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 定义对象的字符串及字符串数组去重：相同内容的值替换为同一个实例。
+ * 去重表只弱引用规范实例，定义对象不再被引用时对应条目自动清除；节省的内存按对象头及字符数组大小估算
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MvcInterner {
+
+	private static final MvcInterner INSTANCE = new MvcInterner();
+	private static final String[] EMPTY = new String[0];
+	
+	private final Map<Ref, Ref> table = new ConcurrentHashMap<>();
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder savedBytes = new LongAdder();
+	
+	/**
+	 * @return 全局共享的 {@link MvcInterner}
+	 */
+	public static MvcInterner getInstance() {
+		return INSTANCE;
+	}
+	
+	/**
+	 * @param value	: 字符串
+	 * @return 相同内容的规范实例
+	 */
+	public String intern(String value) {
+		if (value == null) {
+			return null;
+		}
+		return (String) this.canonical(value, value.hashCode());
+	}
+	
+	/**
+	 * 数组元素先去重，再对数组本身去重；去重的是数组副本，不修改传入的数组，调用方不应再修改返回的数组
+	 * @param values	: 字符串数组
+	 * @return 相同内容的规范数组
+	 */
+	public String[] intern(String[] values) {
+		if (values == null) {
+			return null;
+		}
+		if (values.length == 0) {
+			return EMPTY;
+		}
+		// 传入的数组仍可能被调用方修改，不能作为规范实例共享
+		String[] copy = new String[values.length];
+		for (int i = 0; i < values.length; i++) {
+			copy[i] = this.intern(values[i]);
+		}
+		return (String[]) this.canonical(copy, Arrays.hashCode(copy));
+	}
+	
+	private Object canonical(Object value, int hash) {
+		this.expunge();
+		Probe probe = new Probe(value, hash);
+		for (;;) {
+			Ref ref = table.get(probe);
+			Object canonical = ref != null ? ref.get() : null;
+			if (canonical != null) {
+				hitCount.increment();
+				if (canonical != value) {
+					savedBytes.add(sizeOf(value));
+				}
+				return canonical;
+			}
+			Ref created = new Ref(value, hash, queue);
+			if (table.putIfAbsent(created, created) == null) {
+				missCount.increment();
+				return value;
+			}
+		}
+	}
+	
+	private void expunge() {
+		for (Object ref; (ref = queue.poll()) != null;) {
+			table.remove(ref);
+		}
+	}
+	
+	/**
+	 * 估算对象大小（压缩指针）：String 为对象头及字段 24 字节加字符数组，String[] 为数组头 16 字节加引用
+	 */
+	static long sizeOf(Object value) {
+		if (value instanceof String) {
+			return 24 + align(16 + 2L * ((String) value).length());
+		}
+		return align(16 + 4L * ((Object[]) value).length);
+	}
+	
+	private static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+	
+	static boolean same(Object value, Object other) {
+		if (value instanceof String[]) {
+			return other instanceof String[] && Arrays.equals((String[]) value, (String[]) other);
+		}
+		return value.equals(other);
+	}
+	
+	/**
+	 * @return 当前去重表中存活的规范实例数
+	 */
+	public int size() {
+		this.expunge();
+		return table.size();
+	}
+	
+	/**
+	 * @return 去重统计
+	 */
+	public MvcInternStats stats() {
+		return new MvcInternStats(hitCount.sum(), missCount.sum(), savedBytes.sum(), this.size());
+	}
+	
+	/**
+	 * 去重表的键：弱引用规范实例，保存内容哈希值，被回收后只与自身相等
+	 */
+	private static final class Ref extends WeakReference<Object> {
+		
+		private final int hash;
+		
+		Ref(Object value, int hash, ReferenceQueue<Object> queue) {
+			super(value, queue);
+			this.hash = hash;
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof Ref) || ((Ref) obj).hash != hash) {
+				return false;
+			}
+			Object value = this.get();
+			Object other = ((Ref) obj).get();
+			return value != null && other != null && same(value, other);
+		}
+		
+	}
+	
+	/**
+	 * 查找用的键，避免每次查找创建弱引用
+	 */
+	private static final class Probe {
+		
+		private final Object value;
+		private final int hash;
+		
+		Probe(Object value, int hash) {
+			this.value = value;
+			this.hash = hash;
+		}
+		
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Ref) || obj.hashCode() != hash) {
+				return false;
+			}
+			Object other = ((Ref) obj).get();
+			return other != null && same(value, other);
+		}
+		
+	}
+	
+}
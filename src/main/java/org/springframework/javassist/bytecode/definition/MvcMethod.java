@@ -8,7 +8,7 @@ public class MvcMethod {
 	/**
 	 * Java 方法的名称
 	 */
-	private final String name;
+	private String name;
 
 	/**
 	 * In a Servlet environment only: the path mapping URIs (e.g. "/myPath.do").
@@ -24,7 +24,7 @@ public class MvcMethod {
 	 * @see org.springframework.web.bind.annotation.ValueConstants#DEFAULT_NONE
 	 * @since 4.2
 	 */
-	private final String[] path;
+	private String[] path;
 	/**
 	 * The HTTP request methods to map to, narrowing the primary mapping: GET, POST,
 	 * HEAD, OPTIONS, PUT, PATCH, DELETE, TRACE.
@@ -151,6 +151,36 @@ public class MvcMethod {
 	 * environments.
 	 */
 	private boolean responseBody = true;
+	
+	/**
+	 * 方法级并发隔离配置
+	 */
+	private MvcBulkhead bulkhead;
+	
+	/**
+	 * 方法级自适应并发限制配置
+	 */
+	private MvcAdaptiveLimit adaptiveLimit;
+	
+	/**
+	 * 方法级令牌桶限流配置
+	 */
+	private MvcRateLimit rateLimit;
+	
+	/**
+	 * 方法级响应缓存配置：仅支持只映射 GET | HEAD 请求的方法
+	 */
+	private MvcCache cache;
+	
+	/**
+	 * 是否合并参数值相同的并发调用：只用于只映射 GET | HEAD 请求的方法，为空时使用构建器的默认配置
+	 */
+	private Boolean coalesce;
+	
+	/**
+	 * 方法级批量调用配置
+	 */
+	private MvcBatch batch;
 
 	/**
 	 * @param name 			: 方法名称
@@ -321,6 +351,54 @@ public class MvcMethod {
 		this.responseBody = responseBody;
 	}
 
+	public MvcBulkhead getBulkhead() {
+		return bulkhead;
+	}
+
+	public void setBulkhead(MvcBulkhead bulkhead) {
+		this.bulkhead = bulkhead;
+	}
+
+	public MvcAdaptiveLimit getAdaptiveLimit() {
+		return adaptiveLimit;
+	}
+
+	public void setAdaptiveLimit(MvcAdaptiveLimit adaptiveLimit) {
+		this.adaptiveLimit = adaptiveLimit;
+	}
+
+	public MvcRateLimit getRateLimit() {
+		return rateLimit;
+	}
+
+	public void setRateLimit(MvcRateLimit rateLimit) {
+		this.rateLimit = rateLimit;
+	}
+
+	public MvcCache getCache() {
+		return cache;
+	}
+
+	public void setCache(MvcCache cache) {
+		this.cache = cache;
+	}
+
+	public Boolean getCoalesce() {
+		return coalesce;
+	}
+
+	public void setCoalesce(Boolean coalesce) {
+		this.coalesce = coalesce;
+	}
+
+	public MvcBatch getBatch() {
+		return batch;
+	}
+
+	public void setBatch(MvcBatch batch) {
+		this.batch = batch;
+	}
+
 	public String getName() {
 		return name;
 	}
@@ -328,5 +406,20 @@ public class MvcMethod {
 	public String[] getPath() {
 		return path;
 	}
+	
+	/**
+	 * 名称、地址、参数、请求头及媒体类型替换为去重后的实例
+	 * @param interner	: The {@link MvcInterner}
+	 * @return this
+	 */
+	public MvcMethod intern(MvcInterner interner) {
+		this.name = interner.intern(name);
+		this.path = interner.intern(path);
+		this.params = interner.intern(params);
+		this.headers = interner.intern(headers);
+		this.consumes = interner.intern(consumes);
+		this.produces = interner.intern(produces);
+		return this;
+	}
 
 }
@@ -108,5 +108,15 @@ public class MvcParam<T> {
 	public void setDef(String def) {
 		this.def = def;
 	}
+	
+	/**
+	 * @param interner	: The {@link MvcInterner}
+	 * @return this
+	 */
+	public MvcParam<T> intern(MvcInterner interner) {
+		this.name = interner.intern(name);
+		this.def = interner.intern(def);
+		return this;
+	}
 
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 令牌桶限流配置
+ */
+public class MvcRateLimit {
+
+	/**
+	 * 每秒生成的令牌数
+	 */
+	private final double permitsPerSecond;
+	/**
+	 * 令牌桶容量（允许的突发请求数）
+	 */
+	private final int burst;
+	/**
+	 * 限流范围
+	 */
+	private MvcRateLimitScope scope = MvcRateLimitScope.UID;
+	/**
+	 * 拒绝请求时的响应状态码
+	 */
+	private HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+	
+	/**
+	 * @param permitsPerSecond	: 每秒生成的令牌数
+	 * @param burst				: 令牌桶容量
+	 */
+	public MvcRateLimit(double permitsPerSecond, int burst) {
+		this(permitsPerSecond, burst, MvcRateLimitScope.UID);
+	}
+	
+	/**
+	 * @param permitsPerSecond	: 每秒生成的令牌数
+	 * @param burst				: 令牌桶容量
+	 * @param scope				: 限流范围
+	 */
+	public MvcRateLimit(double permitsPerSecond, int burst, MvcRateLimitScope scope) {
+		if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+			throw new IllegalArgumentException("permitsPerSecond must be a positive number : " + permitsPerSecond);
+		}
+		this.permitsPerSecond = permitsPerSecond;
+		this.burst = burst;
+		this.scope = scope;
+	}
+
+	public double getPermitsPerSecond() {
+		return permitsPerSecond;
+	}
+
+	public int getBurst() {
+		return burst;
+	}
+
+	public MvcRateLimitScope getScope() {
+		return scope;
+	}
+
+	public void setScope(MvcRateLimitScope scope) {
+		this.scope = scope;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(HttpStatus status) {
+		this.status = status;
+	}
+	
+}
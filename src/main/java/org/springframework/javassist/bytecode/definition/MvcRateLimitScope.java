@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.bytecode.definition;
+
+/**
+ * 限流范围枚举
+ */
+public enum MvcRateLimitScope {
+
+	/**
+	 * 按 @WebBound uid 限流：相同 uid 且限流配置相同的方法（包括不同动态类中的方法）共享令牌桶，无 uid 时按方法限流
+	 */
+	UID,
+	/**
+	 * 按方法限流：每个方法独立的令牌桶
+	 */
+	METHOD;
+	
+}
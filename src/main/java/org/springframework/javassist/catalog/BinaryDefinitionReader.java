@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.bytecode.definition.MvcAdaptiveLimit;
+import org.springframework.javassist.bytecode.definition.MvcBatch;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcBulkhead;
+import org.springframework.javassist.bytecode.definition.MvcCache;
+import org.springframework.javassist.bytecode.definition.MvcController;
+import org.springframework.javassist.bytecode.definition.MvcEndpoint;
+import org.springframework.javassist.bytecode.definition.MvcMapping;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcParamFrom;
+import org.springframework.javassist.bytecode.definition.MvcRateLimit;
+import org.springframework.javassist.bytecode.definition.MvcRateLimitScope;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * 内存映射读取 {@link BinaryDefinitionWriter} 写出的二进制目录：打开时只读取索引（类名及记录位置），
+ * Controller 记录及字符串在访问时解码，可按类名随机读取，或通过 {@link #filter(Predicate)} 只顺序读取本节点负责的分片
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BinaryDefinitionReader implements DefinitionReader {
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final ClassLoader classLoader;
+	// 字符串表：每个字符串的位置，解码结果按需缓存
+	private final int[] stringOffsets;
+	private final AtomicReferenceArray<String> stringCache;
+	// 类名 -> 记录位置，按写入顺序
+	private final Map<String, Integer> index;
+	private final List<String> names;
+	private Predicate<String> filter = name -> true;
+	private int cursor = 0;
+	
+	public BinaryDefinitionReader(Path file) throws IOException {
+		this(file, ClassUtils.getDefaultClassLoader());
+	}
+	
+	/**
+	 * @param file			: 二进制目录文件
+	 * @param classLoader	: 加载返回类型及参数类型的类加载器
+	 * @throws IOException if the file is not a binary catalog
+	 */
+	public BinaryDefinitionReader(Path file, ClassLoader classLoader) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.classLoader = classLoader;
+		try {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Binary catalog larger than 2GB: " + file);
+			}
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			if (size < 6 + BinaryDefinitionWriter.FOOTER_SIZE || buffer.getInt(0) != BinaryDefinitionWriter.MAGIC
+					|| buffer.getInt((int) size - 4) != BinaryDefinitionWriter.MAGIC) {
+				throw new IOException("Not a binary catalog: " + file);
+			}
+			if (buffer.getShort(4) != BinaryDefinitionWriter.VERSION) {
+				throw new IOException("Unsupported binary catalog version " + buffer.getShort(4) + ": " + file);
+			}
+			int footer = (int) size - BinaryDefinitionWriter.FOOTER_SIZE;
+			ByteBuffer strings = this.slice((int) buffer.getLong(footer));
+			this.stringOffsets = new int[(int) varint(strings)];
+			for (int i = 0; i < stringOffsets.length; i++) {
+				stringOffsets[i] = strings.position();
+				int length = (int) varint(strings);
+				strings.position(strings.position() + length);
+			}
+			this.stringCache = new AtomicReferenceArray<>(stringOffsets.length);
+			ByteBuffer entries = this.slice((int) buffer.getLong(footer + 8));
+			int count = (int) varint(entries);
+			this.index = new LinkedHashMap<>(count * 4 / 3 + 1);
+			for (int i = 0; i < count; i++) {
+				index.put(this.string((int) varint(entries)), (int) varint(entries));
+			}
+			this.names = Collections.unmodifiableList(new ArrayList<>(index.keySet()));
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e instanceof IOException ? (IOException) e : new IOException("Corrupted binary catalog: " + file, e);
+		}
+	}
+	
+	/**
+	 * @return 全部 Controller 类名，按写入顺序
+	 */
+	public List<String> names() {
+		return names;
+	}
+	
+	public int size() {
+		return names.size();
+	}
+	
+	/**
+	 * 设置 {@link #next()} 顺序读取时的类名过滤条件，如按类名哈希分片
+	 * @param filter	: 类名过滤条件
+	 * @return this
+	 */
+	public BinaryDefinitionReader filter(Predicate<String> filter) {
+		this.filter = filter;
+		return this;
+	}
+	
+	@Override
+	public MvcController next() throws IOException {
+		while (cursor < names.size()) {
+			String name = names.get(cursor++);
+			if (filter.test(name)) {
+				return this.read(name);
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * 按类名随机读取，可并发调用
+	 * @param name	: Controller 类名
+	 * @return The {@link MvcController} definition, or null
+	 * @throws DefinitionException if the definition is invalid
+	 */
+	public MvcController read(String name) throws DefinitionException {
+		Integer offset = index.get(name);
+		if (offset == null) {
+			return null;
+		}
+		try {
+			return this.controller(this.slice(offset));
+		} catch (RuntimeException | ClassNotFoundException e) {
+			throw new DefinitionException(name, "Invalid definition of controller '" + name + "': " + e.getMessage(), e);
+		}
+	}
+	
+	private MvcController controller(ByteBuffer in) throws ClassNotFoundException {
+		MvcController controller = new MvcController(this.string(in));
+		int flags = (int) varint(in);
+		if ((flags & BinaryDefinitionWriter.FLAG_MAPPING) != 0) {
+			String name = this.string(in);
+			MvcMapping mapping = new MvcMapping(this.strings(in), this.methods(in));
+			mapping.setName(name);
+			mapping.setParams(this.strings(in));
+			mapping.setHeaders(this.strings(in));
+			mapping.setConsumes(this.strings(in));
+			mapping.setProduces(this.strings(in));
+			controller.setMapping(mapping);
+		}
+		if ((flags & BinaryDefinitionWriter.FLAG_BOUND) != 0) {
+			controller.setBound(this.bound(in));
+		}
+		if ((flags & BinaryDefinitionWriter.FLAG_TAGS) != 0) {
+			controller.setTags(this.strings(in));
+		}
+		int endpoints = (int) varint(in);
+		for (int i = 0; i < endpoints; i++) {
+			String name = this.string(in);
+			MvcMethod method = new MvcMethod(name, this.strings(in), this.methods(in));
+			method.setParams(this.strings(in));
+			method.setHeaders(this.strings(in));
+			method.setConsumes(this.strings(in));
+			method.setProduces(this.strings(in));
+			method.setResponseBody(varint(in) != 0);
+			MvcEndpoint endpoint = new MvcEndpoint(method);
+			endpoint.setReturnType(ClassUtils.forName(this.string(in), classLoader));
+			if (varint(in) != 0) {
+				endpoint.setBound(this.bound(in));
+			}
+			MvcParam<?>[] params = new MvcParam<?>[(int) varint(in)];
+			for (int j = 0; j < params.length; j++) {
+				String paramName = this.string(in);
+				Class<?> type = ClassUtils.forName(this.string(in), classLoader);
+				MvcParam<?> param = new MvcParam<>(type, paramName, MvcParamFrom.valueOfIgnoreCase(this.string(in)));
+				param.setRequired(varint(in) != 0);
+				param.setDef(this.string(in));
+				params[j] = param;
+			}
+			endpoint.setParams(params);
+			this.policies(in, method);
+			controller.addEndpoint(endpoint);
+		}
+		return controller;
+	}
+	
+	private void policies(ByteBuffer in, MvcMethod method) {
+		int flags = (int) varint(in);
+		if ((flags & BinaryDefinitionWriter.POLICY_BULKHEAD) != 0) {
+			method.setBulkhead(new MvcBulkhead((int) varint(in), (int) varint(in), varint(in), this.status(in)));
+		}
+		if ((flags & BinaryDefinitionWriter.POLICY_ADAPTIVE_LIMIT) != 0) {
+			MvcAdaptiveLimit limit = new MvcAdaptiveLimit((int) varint(in), (int) varint(in), (int) varint(in));
+			limit.setProbeInterval((int) varint(in));
+			limit.setStatus(this.status(in));
+			method.setAdaptiveLimit(limit);
+		}
+		if ((flags & BinaryDefinitionWriter.POLICY_RATE_LIMIT) != 0) {
+			double permitsPerSecond = Double.longBitsToDouble(varint(in));
+			int burst = (int) varint(in);
+			String scope = this.string(in);
+			MvcRateLimit limit = new MvcRateLimit(permitsPerSecond, burst, scope != null ? MvcRateLimitScope.valueOf(scope) : null);
+			limit.setStatus(this.status(in));
+			method.setRateLimit(limit);
+		}
+		if ((flags & BinaryDefinitionWriter.POLICY_CACHE) != 0) {
+			method.setCache(new MvcCache(varint(in), (int) varint(in)));
+		}
+		if ((flags & BinaryDefinitionWriter.POLICY_COALESCE) != 0) {
+			method.setCoalesce(varint(in) != 0);
+		}
+		if ((flags & BinaryDefinitionWriter.POLICY_BATCH) != 0) {
+			method.setBatch(new MvcBatch((int) varint(in), varint(in)));
+		}
+	}
+	
+	private HttpStatus status(ByteBuffer in) {
+		int status = (int) varint(in);
+		return status == 0 ? null : HttpStatus.valueOf(status);
+	}
+	
+	private MvcBound bound(ByteBuffer in) {
+		MvcBound bound = new MvcBound(this.string(in), this.string(in));
+		bound.setNotes(this.string(in));
+		return bound;
+	}
+	
+	private RequestMethod[] methods(ByteBuffer in) {
+		int length = (int) varint(in) - 1;
+		if (length < 0) {
+			return null;
+		}
+		RequestMethod[] methods = new RequestMethod[length];
+		for (int i = 0; i < length; i++) {
+			methods[i] = RequestMethod.valueOf(this.string(in));
+		}
+		return methods;
+	}
+	
+	private String[] strings(ByteBuffer in) {
+		int length = (int) varint(in) - 1;
+		if (length < 0) {
+			return null;
+		}
+		String[] values = new String[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = this.string(in);
+		}
+		return values;
+	}
+	
+	private String string(ByteBuffer in) {
+		int id = (int) varint(in);
+		return id == 0 ? null : this.string(id - 1);
+	}
+	
+	/**
+	 * 相同字符串只解码一次，解码后的定义共享同一个实例
+	 */
+	private String string(int id) {
+		String value = stringCache.get(id);
+		if (value == null) {
+			ByteBuffer in = this.slice(stringOffsets[id]);
+			byte[] bytes = new byte[(int) varint(in)];
+			in.get(bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+			if (!stringCache.compareAndSet(id, null, value)) {
+				value = stringCache.get(id);
+			}
+		}
+		return value;
+	}
+	
+	private ByteBuffer slice(int offset) {
+		ByteBuffer in = buffer.duplicate();
+		in.position(offset);
+		return in;
+	}
+	
+	private static long varint(ByteBuffer in) {
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			byte b = in.get();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+	
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.bytecode.definition.MvcAdaptiveLimit;
+import org.springframework.javassist.bytecode.definition.MvcBatch;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcBulkhead;
+import org.springframework.javassist.bytecode.definition.MvcCache;
+import org.springframework.javassist.bytecode.definition.MvcController;
+import org.springframework.javassist.bytecode.definition.MvcEndpoint;
+import org.springframework.javassist.bytecode.definition.MvcMapping;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcRateLimit;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * 将 Controller 定义写为紧凑的二进制目录，由 {@link BinaryDefinitionReader} 内存映射后按需解码。文件结构：
+ * <pre>
+ * header  : magic(int) version(short)
+ * records : 逐个 Controller 记录，字符串均为字符串表序号（varint，0 表示 null），数组为长度 + 1（varint，0 表示 null）
+ * strings : count(varint)，每个字符串为 UTF-8 字节数(varint) + 字节，相同字符串只写一次
+ * index   : count(varint)，每个 Controller 为类名序号(varint) + 记录位置(varlong)
+ * footer  : strings 位置(long) index 位置(long) magic(int)
+ * </pre>
+ * 方法记录末尾为策略标记(varint)及标记对应的并发隔离、自适应并发限制、限流、缓存、合并调用、批量调用配置。
+ * 目录先写入同目录下的临时文件，关闭时原子替换目标文件，读取方不会看到未写完的目录；类名重复的定义被拒绝
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BinaryDefinitionWriter implements Closeable {
+
+	static final int MAGIC = 0x534A4446;
+	static final short VERSION = 2;
+	static final int FOOTER_SIZE = 20;
+	
+	static final int FLAG_MAPPING = 1;
+	static final int FLAG_BOUND = 2;
+	static final int FLAG_TAGS = 4;
+	
+	static final int POLICY_BULKHEAD = 1;
+	static final int POLICY_ADAPTIVE_LIMIT = 2;
+	static final int POLICY_RATE_LIMIT = 4;
+	static final int POLICY_CACHE = 8;
+	static final int POLICY_COALESCE = 16;
+	static final int POLICY_BATCH = 32;
+	
+	private final Path file;
+	private final Path temp;
+	private final DataOutputStream output;
+	private final Map<String, Integer> strings = new LinkedHashMap<>();
+	private final List<long[]> index = new ArrayList<>();
+	private final Set<String> names = new HashSet<>();
+	private long position = 0;
+	private boolean closed = false;
+	private boolean failed = false;
+	
+	public BinaryDefinitionWriter(Path file) throws IOException {
+		this.file = file;
+		this.temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+		try {
+			this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024));
+			output.writeInt(MAGIC);
+			output.writeShort(VERSION);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+		position = 6;
+	}
+	
+	/**
+	 * 逐个写入 reader 中的全部定义
+	 * @param reader	: The {@link DefinitionReader}
+	 * @return 写入的定义数
+	 * @throws IOException if read or write failed
+	 */
+	public long writeAll(DefinitionReader reader) throws IOException {
+		long count = 0;
+		for (MvcController controller; (controller = reader.next()) != null; count++) {
+			this.write(controller);
+		}
+		return count;
+	}
+	
+	/**
+	 * @param controller	: The {@link MvcController} definition
+	 * @throws DefinitionException if the controller name is already written
+	 * @throws IOException if write failed, 关闭时不再替换目标文件
+	 */
+	public void write(MvcController controller) throws IOException {
+		if (names.contains(controller.getName())) {
+			throw new DefinitionException(controller.getName(), "Duplicate controller '" + controller.getName() + "' in binary catalog", null);
+		}
+		try {
+			this.record(controller);
+		} catch (IOException | RuntimeException e) {
+			// 记录只写了一部分，目录不再完整
+			failed = true;
+			throw e;
+		}
+		names.add(controller.getName());
+	}
+	
+	private void record(MvcController controller) throws IOException {
+		index.add(new long[] { this.id(controller.getName()), position });
+		this.string(controller.getName());
+		int flags = (controller.getMapping() != null ? FLAG_MAPPING : 0) | (controller.getBound() != null ? FLAG_BOUND : 0)
+				| (controller.getTags() != null ? FLAG_TAGS : 0);
+		this.varint(flags);
+		if (controller.getMapping() != null) {
+			MvcMapping mapping = controller.getMapping();
+			this.string(mapping.getName());
+			this.strings(mapping.getPath());
+			this.methods(mapping.getMethod());
+			this.strings(mapping.getParams());
+			this.strings(mapping.getHeaders());
+			this.strings(mapping.getConsumes());
+			this.strings(mapping.getProduces());
+		}
+		if (controller.getBound() != null) {
+			this.bound(controller.getBound());
+		}
+		if (controller.getTags() != null) {
+			this.strings(controller.getTags());
+		}
+		this.varint(controller.getEndpoints().size());
+		for (MvcEndpoint endpoint : controller.getEndpoints()) {
+			MvcMethod method = endpoint.getMethod();
+			this.string(method.getName());
+			this.strings(method.getPath());
+			this.methods(method.getMethod());
+			this.strings(method.getParams());
+			this.strings(method.getHeaders());
+			this.strings(method.getConsumes());
+			this.strings(method.getProduces());
+			this.varint(method.isResponseBody() ? 1 : 0);
+			this.string(endpoint.getReturnType().getName());
+			this.varint(endpoint.getBound() != null ? 1 : 0);
+			if (endpoint.getBound() != null) {
+				this.bound(endpoint.getBound());
+			}
+			MvcParam<?>[] params = endpoint.getParams() != null ? endpoint.getParams() : new MvcParam<?>[0];
+			this.varint(params.length);
+			for (MvcParam<?> param : params) {
+				this.string(param.getName());
+				this.string(param.getType().getName());
+				this.string(param.getFrom().getKey());
+				this.varint(param.isRequired() ? 1 : 0);
+				this.string(param.getDef());
+			}
+			this.policies(method);
+		}
+	}
+	
+	private void policies(MvcMethod method) throws IOException {
+		int flags = (method.getBulkhead() != null ? POLICY_BULKHEAD : 0) | (method.getAdaptiveLimit() != null ? POLICY_ADAPTIVE_LIMIT : 0)
+				| (method.getRateLimit() != null ? POLICY_RATE_LIMIT : 0) | (method.getCache() != null ? POLICY_CACHE : 0)
+				| (method.getCoalesce() != null ? POLICY_COALESCE : 0) | (method.getBatch() != null ? POLICY_BATCH : 0);
+		this.varint(flags);
+		if (method.getBulkhead() != null) {
+			MvcBulkhead bulkhead = method.getBulkhead();
+			this.varint(bulkhead.getMaxConcurrent());
+			this.varint(bulkhead.getMaxQueue());
+			this.varint(bulkhead.getMaxWait());
+			this.status(bulkhead.getStatus());
+		}
+		if (method.getAdaptiveLimit() != null) {
+			MvcAdaptiveLimit limit = method.getAdaptiveLimit();
+			this.varint(limit.getInitialLimit());
+			this.varint(limit.getMinLimit());
+			this.varint(limit.getMaxLimit());
+			this.varint(limit.getProbeInterval());
+			this.status(limit.getStatus());
+		}
+		if (method.getRateLimit() != null) {
+			MvcRateLimit limit = method.getRateLimit();
+			this.varint(Double.doubleToLongBits(limit.getPermitsPerSecond()));
+			this.varint(limit.getBurst());
+			this.string(limit.getScope() != null ? limit.getScope().name() : null);
+			this.status(limit.getStatus());
+		}
+		if (method.getCache() != null) {
+			MvcCache cache = method.getCache();
+			this.varint(cache.getTtl());
+			this.varint(cache.getMaximumSize());
+		}
+		if (method.getCoalesce() != null) {
+			this.varint(method.getCoalesce() ? 1 : 0);
+		}
+		if (method.getBatch() != null) {
+			MvcBatch batch = method.getBatch();
+			this.varint(batch.getMaxSize());
+			this.varint(batch.getWindow());
+		}
+	}
+	
+	private void status(HttpStatus status) throws IOException {
+		this.varint(status == null ? 0 : status.value());
+	}
+	
+	private void bound(MvcBound bound) throws IOException {
+		this.string(bound.getUid());
+		this.string(bound.getJson());
+		this.string(bound.getNotes());
+	}
+	
+	private void methods(RequestMethod[] methods) throws IOException {
+		if (methods == null) {
+			this.varint(0);
+			return;
+		}
+		this.varint(methods.length + 1);
+		for (RequestMethod method : methods) {
+			this.string(method.name());
+		}
+	}
+	
+	private void strings(String[] values) throws IOException {
+		if (values == null) {
+			this.varint(0);
+			return;
+		}
+		this.varint(values.length + 1);
+		for (String value : values) {
+			this.string(value);
+		}
+	}
+	
+	private void string(String value) throws IOException {
+		this.varint(value == null ? 0 : this.id(value) + 1);
+	}
+	
+	private int id(String value) {
+		return strings.computeIfAbsent(value, key -> strings.size());
+	}
+	
+	private void varint(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			output.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+			position++;
+		}
+		output.writeByte((int) value);
+		position++;
+	}
+	
+	/**
+	 * 写入字符串表、索引及文件尾后原子替换目标文件；写入失败时丢弃临时文件，目标文件保持不变
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (failed) {
+			try {
+				output.close();
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+			return;
+		}
+		try {
+			this.finish();
+			this.move();
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+	}
+	
+	private void move() throws IOException {
+		try {
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	private void finish() throws IOException {
+		try {
+			long stringsOffset = position;
+			this.varint(strings.size());
+			for (String value : strings.keySet()) {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				this.varint(bytes.length);
+				output.write(bytes);
+				position += bytes.length;
+			}
+			long indexOffset = position;
+			this.varint(index.size());
+			for (long[] entry : index) {
+				this.varint(entry[0]);
+				this.varint(entry[1]);
+			}
+			output.writeLong(stringsOffset);
+			output.writeLong(indexOffset);
+			output.writeInt(MAGIC);
+		} finally {
+			output.close();
+		}
+	}
+	
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.catalog;
+
+import java.io.IOException;
+
+/**
+ * 单个 Controller 定义无效（如类型不存在），读取位置已移到下一个定义，可以跳过后继续读取
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@SuppressWarnings("serial")
+public class DefinitionException extends IOException {
+
+	private final String controller;
+	
+	public DefinitionException(String controller, String message, Throwable cause) {
+		super(message, cause);
+		this.controller = controller;
+	}
+
+	/**
+	 * @return 无效定义的 Controller 类名
+	 */
+	public String getController() {
+		return controller;
+	}
+	
+}
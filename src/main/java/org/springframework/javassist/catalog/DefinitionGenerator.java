@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.catalog;
+
+import org.springframework.javassist.bytecode.definition.MvcController;
+
+/**
+ * 根据 Controller 定义生成并注册动态类，由 {@link DefinitionPipeline} 的工作线程并发调用
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@FunctionalInterface
+public interface DefinitionGenerator {
+
+	/**
+	 * @param controller	: The {@link MvcController} definition
+	 * @throws Exception if generate failed
+	 */
+	void generate(MvcController controller) throws Exception;
+	
+	/**
+	 * 定义被删除后释放动态类占用的资源（如响应缓存、令牌桶），由 {@link DefinitionWatcher} 在注销回调之后调用
+	 * @param name	: Controller 类名
+	 */
+	default void remove(String name) {
+	}
+	
+}
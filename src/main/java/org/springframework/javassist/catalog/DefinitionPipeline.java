@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.catalog;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.javassist.bytecode.definition.MvcController;
+
+/**
+ * 有界的动态类生成流水线：调用线程通过 {@link DefinitionReader} 逐个读取 Controller 定义放入容量为 depth 的队列（无效的定义记为失败并跳过），
+ * workers 个工作线程从队列取出定义并调用 {@link DefinitionGenerator}；队列满时读取阻塞（背压），
+ * 内存中的定义及构建器数量不超过 depth + workers，与定义目录大小无关。单个定义生成失败不影响其他定义
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DefinitionPipeline {
+
+	private static final AtomicInteger SEQUENCE = new AtomicInteger();
+	
+	private final DefinitionGenerator generator;
+	private final int workers;
+	private final int depth;
+	
+	/**
+	 * @param generator	: The {@link DefinitionGenerator}
+	 * @param workers	: 工作线程数
+	 * @param depth		: 队列容量
+	 */
+	public DefinitionPipeline(DefinitionGenerator generator, int workers, int depth) {
+		if (workers < 1 || depth < 1) {
+			throw new IllegalArgumentException("workers and depth must be positive");
+		}
+		this.generator = generator;
+		this.workers = workers;
+		this.depth = depth;
+	}
+	
+	/**
+	 * 读取全部定义并等待生成完成，reader 由调用方关闭
+	 * @param reader	: The {@link DefinitionReader}
+	 * @return 运行结果
+	 * @throws IOException if read failed, 已读取的定义仍会生成完成
+	 * @throws InterruptedException if interrupted, 工作线程同时中断
+	 */
+	public DefinitionPipelineResult run(DefinitionReader reader) throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		BlockingQueue<MvcController> queue = new ArrayBlockingQueue<>(depth);
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicLong generated = new AtomicLong();
+		AtomicLong failed = new AtomicLong();
+		Map<String, Throwable> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+		Thread[] threads = new Thread[workers];
+		int sequence = SEQUENCE.incrementAndGet();
+		for (int i = 0; i < workers; i++) {
+			threads[i] = new Thread(() -> this.work(queue, done, generated, failed, failures), "endpoint-pipeline-" + sequence + "-" + (i + 1));
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+		long read = 0;
+		try {
+			for (;;) {
+				MvcController controller;
+				try {
+					controller = reader.next();
+				} catch (DefinitionException e) {
+					DefinitionPipelineResult.addFailure(failures, e.getController(), e);
+					failed.incrementAndGet();
+					read++;
+					continue;
+				}
+				if (controller == null) {
+					break;
+				}
+				queue.put(controller);
+				read++;
+			}
+		} catch (InterruptedException e) {
+			for (Thread thread : threads) {
+				thread.interrupt();
+			}
+			throw e;
+		} finally {
+			// 读取结束（包括读取失败）后工作线程处理完队列中的定义再退出
+			done.set(true);
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		}
+		return new DefinitionPipelineResult(read, generated.get(), failed.get(), failures, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+	
+	private void work(BlockingQueue<MvcController> queue, AtomicBoolean done, AtomicLong generated, AtomicLong failed, Map<String, Throwable> failures) {
+		try {
+			while (!done.get() || !queue.isEmpty()) {
+				MvcController controller = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (controller == null) {
+					continue;
+				}
+				try {
+					generator.generate(controller);
+					generated.incrementAndGet();
+				} catch (Throwable e) {
+					DefinitionPipelineResult.addFailure(failures, controller.getName(), e);
+					failed.incrementAndGet();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.catalog;
+
+import java.util.Map;
+
+/**
+ * {@link DefinitionPipeline} 运行结果
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DefinitionPipelineResult {
+
+	private final long readCount;
+	private final long generatedCount;
+	private final long failureCount;
+	private final Map<String, Throwable> failures;
+	private final long elapsed;
+	
+	public DefinitionPipelineResult(long readCount, long generatedCount, long failureCount, Map<String, Throwable> failures, long elapsed) {
+		this.readCount = readCount;
+		this.generatedCount = generatedCount;
+		this.failureCount = failureCount;
+		this.failures = failures;
+		this.elapsed = elapsed;
+	}
+
+	/**
+	 * @return 读取的 Controller 定义数
+	 */
+	public long getReadCount() {
+		return readCount;
+	}
+
+	/**
+	 * @return 生成成功的 Controller 数
+	 */
+	public long getGeneratedCount() {
+		return generatedCount;
+	}
+
+	/**
+	 * @return 读取或生成失败的定义数
+	 */
+	public long getFailureCount() {
+		return failureCount;
+	}
+
+	/**
+	 * @return 生成失败的 Controller 类名及异常，同名定义的后续失败附加为首个异常的 suppressed 异常
+	 */
+	public Map<String, Throwable> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return 耗时（毫秒）
+	 */
+	public long getElapsed() {
+		return elapsed;
+	}
+	
+	public boolean isSuccess() {
+		return failures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "DefinitionPipelineResult [readCount=" + readCount + ", generatedCount=" + generatedCount
+				+ ", failureCount=" + failureCount + ", elapsed=" + elapsed + "]";
+	}
+	
+	/**
+	 * 记录失败，同名定义的失败不互相覆盖
+	 */
+	static void addFailure(Map<String, Throwable> failures, String name, Throwable e) {
+		failures.merge(name, e, (previous, current) -> {
+			previous.addSuppressed(current);
+			return previous;
+		});
+	}
+	
+}
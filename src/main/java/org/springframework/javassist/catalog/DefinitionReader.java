@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.springframework.javassist.bytecode.definition.MvcController;
+
+/**
+ * 逐个读取 Controller 定义：实现类应增量解析定义目录，每次只在内存中保留一个定义。
+ * 内置 JSON 实现见 {@link JsonDefinitionReader}，YAML 等格式可基于对应解析器的事件 API 实现
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface DefinitionReader extends Closeable {
+
+	/**
+	 * @return 下一个 Controller 定义，读取完毕时返回 null
+	 * @throws DefinitionException if the definition is invalid, 可以继续读取下一个定义
+	 * @throws IOException if read failed or catalog is malformed
+	 */
+	MvcController next() throws IOException;
+	
+}
@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.javassist.bytecode.definition.MvcAdaptiveLimit;
+import org.springframework.javassist.bytecode.definition.MvcBatch;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcBulkhead;
+import org.springframework.javassist.bytecode.definition.MvcCache;
+import org.springframework.javassist.bytecode.definition.MvcController;
+import org.springframework.javassist.bytecode.definition.MvcEndpoint;
+import org.springframework.javassist.bytecode.definition.MvcMapping;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcRateLimit;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * 监听定义目录（不含子目录）：通过 NIO {@link WatchService} 收集文件变更，debounce 毫秒内没有新的变更时作为一批处理；
+ * 后台单线程重新读取变更的文件，按定义指纹比较出新增或修改的 Controller 统一重新生成，已删除的 Controller 通知注销，
+ * 请求线程不承担生成开销。启动时只记录现有定义的指纹，首次生成由 {@link DefinitionPipeline} 完成；
+ * 同名类重新生成需要 {@link EndpointApiGenerator#isolated(boolean)}
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DefinitionWatcher implements Closeable {
+
+	private final List<Path> directories;
+	private final DefinitionGenerator generator;
+	private final long debounce;
+	private final ExecutorService executor;
+	// 文件 -> (Controller 类名 -> 定义指纹)，启动后只在重新生成线程中访问
+	private final Map<Path, Map<String, Long>> fingerprints = new HashMap<>();
+	private Function<Path, DefinitionReader> readers = DefinitionWatcher::reader;
+	private Consumer<String> removal = name -> {};
+	private Consumer<DefinitionPipelineResult> listener = result -> {};
+	private WatchService watchService;
+	private Thread thread;
+	
+	/**
+	 * @param generator		: 重新生成并注册动态类的 {@link DefinitionGenerator}
+	 * @param debounce		: 防抖时间（毫秒）
+	 * @param directories	: 定义目录
+	 */
+	public DefinitionWatcher(DefinitionGenerator generator, long debounce, Path... directories) {
+		this.generator = generator;
+		this.debounce = debounce;
+		this.directories = Collections.unmodifiableList(Arrays.asList(directories));
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "endpoint-definition-regenerator");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	/**
+	 * @param readers	: 按文件创建 {@link DefinitionReader}，返回 null 时忽略该文件；默认 .json | .ndjson 为 JSON 目录，.bin 为二进制目录
+	 * @return this
+	 */
+	public DefinitionWatcher readers(Function<Path, DefinitionReader> readers) {
+		this.readers = readers;
+		return this;
+	}
+	
+	/**
+	 * @param removal	: 定义被删除的 Controller 类名回调，用于注销动态类；之后调用 {@link DefinitionGenerator#remove(String)} 释放资源
+	 * @return this
+	 */
+	public DefinitionWatcher onRemoved(Consumer<String> removal) {
+		this.removal = removal;
+		return this;
+	}
+	
+	/**
+	 * @param listener	: 每批重新生成完成后的回调
+	 * @return this
+	 */
+	public DefinitionWatcher onRegenerated(Consumer<DefinitionPipelineResult> listener) {
+		this.listener = listener;
+		return this;
+	}
+	
+	/**
+	 * 记录现有定义的指纹并开始监听
+	 * @throws IOException if register directories failed
+	 */
+	public synchronized void start() throws IOException {
+		if (watchService != null) {
+			throw new IllegalStateException("DefinitionWatcher already started");
+		}
+		Map<String, Throwable> failures = new LinkedHashMap<>();
+		AtomicLong failed = new AtomicLong();
+		for (Path directory : directories) {
+			for (Path file : this.files(directory)) {
+				this.read(file, failures, failed, null);
+			}
+		}
+		if (!failures.isEmpty()) {
+			listener.accept(new DefinitionPipelineResult(0, 0, failed.get(), failures, 0));
+		}
+		this.watchService = FileSystems.getDefault().newWatchService();
+		for (Path directory : directories) {
+			directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+					StandardWatchEventKinds.ENTRY_DELETE);
+		}
+		this.thread = new Thread(this::watch, "endpoint-definition-watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	private void watch() {
+		try {
+			for (;;) {
+				Set<Path> changed = new LinkedHashSet<>();
+				Set<Path> overflowed = new LinkedHashSet<>();
+				this.collect(watchService.take(), changed, overflowed);
+				// 防抖：窗口内持续有变更时继续等待，合并为一批
+				for (WatchKey key; (key = watchService.poll(debounce, TimeUnit.MILLISECONDS)) != null;) {
+					this.collect(key, changed, overflowed);
+				}
+				executor.execute(() -> this.regenerate(changed, overflowed));
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// 关闭
+		}
+	}
+	
+	private void collect(WatchKey key, Set<Path> changed, Set<Path> overflowed) {
+		Path directory = (Path) key.watchable();
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				// 丢失事件时由重新生成线程检查整个目录
+				overflowed.add(directory);
+			} else {
+				changed.add(directory.resolve((Path) event.context()));
+			}
+		}
+		key.reset();
+	}
+	
+	/**
+	 * 读取变更的文件，先通知注销已删除的 Controller，再重新生成新增或修改的 Controller
+	 * @param overflowed	: 丢失事件的目录，重新检查其中的全部文件及已删除的文件
+	 */
+	private void regenerate(Set<Path> files, Set<Path> overflowed) {
+		for (Path directory : overflowed) {
+			files.addAll(this.files(directory));
+			fingerprints.keySet().stream().filter(file -> directory.equals(file.getParent())).forEach(files::add);
+		}
+		long start = System.nanoTime();
+		Map<String, Throwable> failures = new LinkedHashMap<>();
+		AtomicLong failed = new AtomicLong();
+		Map<String, MvcController> modified = new LinkedHashMap<>();
+		Set<String> previous = new HashSet<>();
+		Set<String> current = new HashSet<>();
+		long read = 0;
+		for (Path file : files) {
+			Map<String, Long> before = fingerprints.getOrDefault(file, Collections.emptyMap());
+			previous.addAll(before.keySet());
+			Map<String, Long> after = this.read(file, failures, failed, modified);
+			if (after == null) {
+				// 读取失败时保留原有定义
+				current.addAll(before.keySet());
+				continue;
+			}
+			current.addAll(after.keySet());
+			read += after.size();
+		}
+		for (String name : previous) {
+			if (!current.contains(name)) {
+				this.safely(() -> {
+					removal.accept(name);
+					generator.remove(name);
+				}, name, failures, failed);
+			}
+		}
+		long generated = 0;
+		for (MvcController controller : modified.values()) {
+			try {
+				generator.generate(controller);
+				generated++;
+			} catch (Throwable e) {
+				this.fail(failures, failed, controller.getName(), e);
+				// 生成失败时不记录新指纹，下次变更重试
+				fingerprints.values().forEach(map -> map.remove(controller.getName()));
+			}
+		}
+		listener.accept(new DefinitionPipelineResult(read, generated, failed.get(), failures, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+	}
+	
+	/**
+	 * 读取文件中的全部定义并更新指纹
+	 * @param modified	: 收集指纹变化的定义，为 null 时只记录指纹
+	 * @return 文件中的 Controller 类名及指纹，文件无法读取时返回 null
+	 */
+	private Map<String, Long> read(Path file, Map<String, Throwable> failures, AtomicLong failed, Map<String, MvcController> modified) {
+		if (!Files.isRegularFile(file)) {
+			fingerprints.remove(file);
+			return Collections.emptyMap();
+		}
+		Map<String, Long> before = fingerprints.getOrDefault(file, Collections.emptyMap());
+		Map<String, Long> after = new HashMap<>();
+		// 创建 reader 失败（如文件被锁定）同样保留原有定义
+		try (DefinitionReader definitions = readers.apply(file)) {
+			if (definitions == null) {
+				fingerprints.remove(file);
+				return Collections.emptyMap();
+			}
+			for (;;) {
+				MvcController controller;
+				try {
+					controller = definitions.next();
+				} catch (DefinitionException e) {
+					this.fail(failures, failed, e.getController(), e);
+					continue;
+				}
+				if (controller == null) {
+					break;
+				}
+				long fingerprint = fingerprint(controller);
+				after.put(controller.getName(), fingerprint);
+				Long old = before.get(controller.getName());
+				if (modified != null && (old == null || old != fingerprint)) {
+					modified.put(controller.getName(), controller);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			this.fail(failures, failed, file.toString(), e);
+			return null;
+		}
+		fingerprints.put(file, after);
+		return after;
+	}
+	
+	private List<Path> files(Path directory) {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+			for (Path file : stream) {
+				if (Files.isRegularFile(file)) {
+					files.add(file);
+				}
+			}
+		} catch (IOException e) {
+			// 目录不可读时跳过
+		}
+		return files;
+	}
+	
+	private void safely(Runnable runnable, String name, Map<String, Throwable> failures, AtomicLong failed) {
+		try {
+			runnable.run();
+		} catch (RuntimeException e) {
+			this.fail(failures, failed, name, e);
+		}
+	}
+	
+	private void fail(Map<String, Throwable> failures, AtomicLong failed, String name, Throwable e) {
+		DefinitionPipelineResult.addFailure(failures, name, e);
+		failed.incrementAndGet();
+	}
+	
+	/**
+	 * 默认按扩展名创建 {@link DefinitionReader}
+	 */
+	private static DefinitionReader reader(Path file) {
+		String name = file.getFileName().toString();
+		try {
+			if (name.endsWith(".json") || name.endsWith(".ndjson")) {
+				return new JsonDefinitionReader(file);
+			}
+			if (name.endsWith(".bin")) {
+				return new BinaryDefinitionReader(file);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Can't open definition file " + file, e);
+		}
+		return null;
+	}
+	
+	/**
+	 * 定义指纹：按字段顺序计算 64 位 FNV-1a 哈希
+	 */
+	static long fingerprint(MvcController controller) {
+		Fingerprint hash = new Fingerprint().add(controller.getName()).add(controller.getTags());
+		MvcMapping mapping = controller.getMapping();
+		if (mapping != null) {
+			hash.add(mapping.getName()).add(mapping.getPath()).add(mapping.getMethod()).add(mapping.getParams())
+				.add(mapping.getHeaders()).add(mapping.getConsumes()).add(mapping.getProduces());
+		}
+		hash.add(controller.getBound());
+		for (MvcEndpoint endpoint : controller.getEndpoints()) {
+			MvcMethod method = endpoint.getMethod();
+			hash.add(method.getName()).add(method.getPath()).add(method.getMethod()).add(method.getParams())
+				.add(method.getHeaders()).add(method.getConsumes()).add(method.getProduces())
+				.add(String.valueOf(method.isResponseBody())).add(endpoint.getReturnType().getName()).add(endpoint.getBound());
+			for (MvcParam<?> param : endpoint.getParams()) {
+				hash.add(param.getName()).add(param.getType().getName()).add(param.getFrom().getKey())
+					.add(String.valueOf(param.isRequired())).add(param.getDef());
+			}
+			policies(hash, method);
+		}
+		return hash.value;
+	}
+	
+	private static void policies(Fingerprint hash, MvcMethod method) {
+		MvcBulkhead bulkhead = method.getBulkhead();
+		hash.add(bulkhead == null ? null : new Object[] { bulkhead.getMaxConcurrent(), bulkhead.getMaxQueue(), bulkhead.getMaxWait(), bulkhead.getStatus() });
+		MvcAdaptiveLimit adaptiveLimit = method.getAdaptiveLimit();
+		hash.add(adaptiveLimit == null ? null : new Object[] { adaptiveLimit.getInitialLimit(), adaptiveLimit.getMinLimit(),
+				adaptiveLimit.getMaxLimit(), adaptiveLimit.getProbeInterval(), adaptiveLimit.getStatus() });
+		MvcRateLimit rateLimit = method.getRateLimit();
+		hash.add(rateLimit == null ? null : new Object[] { rateLimit.getPermitsPerSecond(), rateLimit.getBurst(), rateLimit.getScope(), rateLimit.getStatus() });
+		MvcCache cache = method.getCache();
+		hash.add(cache == null ? null : new Object[] { cache.getTtl(), cache.getMaximumSize() });
+		hash.add(method.getCoalesce() == null ? null : new Object[] { method.getCoalesce() });
+		MvcBatch batch = method.getBatch();
+		hash.add(batch == null ? null : new Object[] { batch.getMaxSize(), batch.getWindow() });
+	}
+	
+	@Override
+	public synchronized void close() throws IOException {
+		if (thread != null) {
+			thread.interrupt();
+		}
+		if (watchService != null) {
+			watchService.close();
+		}
+		executor.shutdown();
+	}
+	
+	private static final class Fingerprint {
+		
+		private long value = 0xcbf29ce484222325L;
+		
+		Fingerprint add(String text) {
+			if (text == null) {
+				this.mix(0xFFFF);
+			} else {
+				for (int i = 0; i < text.length(); i++) {
+					this.mix(text.charAt(i));
+				}
+			}
+			// 字段分隔
+			this.mix(0xFFFE);
+			return this;
+		}
+		
+		Fingerprint add(String[] texts) {
+			if (texts == null) {
+				return this.add((String) null);
+			}
+			for (String text : texts) {
+				this.add(text);
+			}
+			this.mix(0xFFFD);
+			return this;
+		}
+		
+		Fingerprint add(Object[] values) {
+			if (values == null) {
+				return this.add((String) null);
+			}
+			for (Object value : values) {
+				this.add(String.valueOf(value));
+			}
+			this.mix(0xFFFD);
+			return this;
+		}
+		
+		Fingerprint add(RequestMethod[] methods) {
+			if (methods == null) {
+				return this.add((String) null);
+			}
+			for (RequestMethod method : methods) {
+				this.add(method.name());
+			}
+			this.mix(0xFFFD);
+			return this;
+		}
+		
+		Fingerprint add(MvcBound bound) {
+			if (bound == null) {
+				return this.add((String) null);
+			}
+			return this.add(bound.getUid()).add(bound.getJson()).add(bound.getNotes());
+		}
+		
+		private void mix(int c) {
+			value ^= c;
+			value *= 0x100000001b3L;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.catalog;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcController;
+import org.springframework.javassist.bytecode.definition.MvcEndpoint;
+import org.springframework.javassist.utils.EndpointApiUtils;
+import org.springframework.util.ClassUtils;
+
+import javassist.CannotCompileException;
+import javassist.NotFoundException;
+
+/**
+ * 通过 {@link EndpointApiCtClassBuilder} 将 Controller 定义生成为 @RestController 动态类，加载后交给注册回调（如注册到 Spring 容器）；
+ * 生成后 CtClass 从 ClassPool 中删除，不随定义数量累积。需要限流、缓存等构建选项时重写 {@link #newBuilder(MvcController)}
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class EndpointApiGenerator implements DefinitionGenerator {
+
+	private final Consumer<Class<?>> registrar;
+	// Controller 类名 -> 当前版本的动态类
+	private final Map<String, Class<?>> classes = new ConcurrentHashMap<>();
+	private boolean isolated = false;
+	
+	/**
+	 * @param registrar	: 动态类注册回调
+	 */
+	public EndpointApiGenerator(Consumer<Class<?>> registrar) {
+		this.registrar = registrar;
+	}
+	
+	/**
+	 * @param isolated	: 每个动态类使用独立的类加载器加载，可重复生成同名类（如 {@link DefinitionWatcher} 重新生成）；
+	 * 					    重新生成或 {@link #remove(String)} 时释放旧版本的调用链（响应缓存、令牌桶、绑定数据等），
+	 * 					    注册回调方（如 Spring 容器）也不再引用旧版本后随类加载器一起卸载。
+	 * 					    {@link org.springframework.javassist.bound.BoundHandlerRegistry} 中的业务 InvocationHandler 由应用注册和注销
+	 * @return this
+	 */
+	public EndpointApiGenerator isolated(boolean isolated) {
+		this.isolated = isolated;
+		return this;
+	}
+	
+	@Override
+	public void generate(MvcController controller) throws Exception {
+		EndpointApiCtClassBuilder builder = this.builder(controller);
+		Class<?> clazz;
+		// 构建可以并发，javassist 定义类时会修改类加载器的访问权限，加载串行执行
+		synchronized (this) {
+			clazz = isolated ? builder.toClass(new ClassLoader(ClassUtils.getDefaultClassLoader()) {}) : builder.toClass();
+		}
+		registrar.accept(clazz);
+		Class<?> previous = classes.put(controller.getName(), clazz);
+		if (previous != null && previous != clazz) {
+			EndpointApiUtils.releaseInvokers(previous);
+		}
+	}
+	
+	@Override
+	public void remove(String name) {
+		Class<?> clazz = classes.remove(name);
+		if (clazz != null) {
+			EndpointApiUtils.releaseInvokers(clazz);
+		}
+	}
+	
+	/**
+	 * @param controller	: The {@link MvcController} definition
+	 * @return 已添加类注解及全部方法的 {@link EndpointApiCtClassBuilder}
+	 * @throws CannotCompileException if can't compile
+	 * @throws NotFoundException if not found
+	 */
+	protected EndpointApiCtClassBuilder builder(MvcController controller) throws CannotCompileException, NotFoundException {
+		EndpointApiCtClassBuilder builder = this.newBuilder(controller);
+		builder.restController();
+		if (controller.getMapping() != null) {
+			builder.requestMapping(controller.getMapping());
+		}
+		if (controller.getBound() != null) {
+			builder.bind(controller.getBound());
+		}
+		if (controller.getTags() != null && controller.getTags().length > 0) {
+			builder.api(controller.getTags());
+		}
+		for (MvcEndpoint endpoint : controller.getEndpoints()) {
+			builder.newMethod(endpoint.getReturnType(), endpoint.getMethod(), this.bound(controller, endpoint), endpoint.getParams());
+		}
+		return builder;
+	}
+	
+	/**
+	 * @param controller	: The {@link MvcController} definition
+	 * @return 新的 {@link EndpointApiCtClassBuilder}，子类可在此设置构建选项
+	 * @throws CannotCompileException if can't compile
+	 * @throws NotFoundException if not found
+	 */
+	protected EndpointApiCtClassBuilder newBuilder(MvcController controller) throws CannotCompileException, NotFoundException {
+		return new EndpointApiCtClassBuilder(controller.getName());
+	}
+	
+	/**
+	 * 方法未定义 @WebBound 时使用类级别 uid
+	 */
+	private MvcBound bound(MvcController controller, MvcEndpoint endpoint) {
+		if (endpoint.getBound() != null) {
+			return endpoint.getBound();
+		}
+		return new MvcBound(controller.getBound() != null ? controller.getBound().getUid() : "");
+	}
+	
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.catalog;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.bound.SimpleJsonDecoder;
+import org.springframework.javassist.bytecode.definition.MvcAdaptiveLimit;
+import org.springframework.javassist.bytecode.definition.MvcBatch;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcBulkhead;
+import org.springframework.javassist.bytecode.definition.MvcCache;
+import org.springframework.javassist.bytecode.definition.MvcController;
+import org.springframework.javassist.bytecode.definition.MvcEndpoint;
+import org.springframework.javassist.bytecode.definition.MvcMapping;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcParamFrom;
+import org.springframework.javassist.bytecode.definition.MvcRateLimit;
+import org.springframework.javassist.bytecode.definition.MvcRateLimitScope;
+import org.springframework.javassist.stream.JsonArrayWriter;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * 增量读取 JSON 定义目录：目录为 Controller 定义组成的数组，或逐行（NDJSON）排列的 Controller 定义；
+ * 每次只截取一个 Controller 的文本并解析，内存占用与目录大小无关。定义格式（字段均可省略，name 除外）：
+ * <pre>
+ * {"name": "com.example.OrderApi", "tags": ["order"],
+ *  "mapping": {"path": ["/orders"], "method": ["GET"], "params": [], "headers": [], "consumes": [], "produces": []},
+ *  "bound": {"uid": "orders", "json": {"table": "t_order"}, "notes": ""},
+ *  "methods": [{"name": "query", "path": ["/query"], "method": ["GET"], "produces": ["application/json"],
+ *               "responseBody": true, "returnType": "java.lang.Object", "bound": {"uid": "orders.query"},
+ *               "parameters": [{"name": "id", "type": "long", "from": "PATH", "required": true, "def": null}],
+ *               "bulkhead": {"maxConcurrent": 10, "maxQueue": 0, "maxWait": 0, "status": 503},
+ *               "adaptiveLimit": {"initialLimit": 20, "minLimit": 1, "maxLimit": 1000, "probeInterval": 1000, "status": 503},
+ *               "rateLimit": {"permitsPerSecond": 100, "burst": 100, "scope": "UID", "status": 429},
+ *               "cache": {"ttl": 60000, "maximumSize": 1000}, "coalesce": true, "batch": {"maxSize": 50, "window": 10}}]}
+ * </pre>
+ * 单个定义无效（json 格式错误、缺少名称、类型不存在等）时抛出 {@link DefinitionException}，可以继续读取下一个定义；
+ * 目录结构错误（如括号不匹配）时抛出 IOException
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class JsonDefinitionReader implements DefinitionReader {
+
+	private final Reader reader;
+	private final ClassLoader classLoader;
+	private final char[] buffer = new char[8192];
+	private int position = 0;
+	private int limit = 0;
+	private int line = 1;
+	private long count = 0;
+	private boolean started = false;
+	private boolean array = false;
+	private boolean finished = false;
+	
+	public JsonDefinitionReader(Path file) throws IOException {
+		this(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+	}
+	
+	public JsonDefinitionReader(Reader reader) {
+		this(reader, ClassUtils.getDefaultClassLoader());
+	}
+	
+	/**
+	 * @param reader		: 定义目录
+	 * @param classLoader	: 加载返回类型及参数类型的类加载器
+	 */
+	public JsonDefinitionReader(Reader reader, ClassLoader classLoader) {
+		this.reader = reader;
+		this.classLoader = classLoader;
+	}
+	
+	@Override
+	public MvcController next() throws IOException {
+		String element = this.nextElement();
+		if (element == null) {
+			return null;
+		}
+		count++;
+		// 名称未知的无效定义以序号标识
+		String record = "#" + count;
+		Object value;
+		try {
+			value = SimpleJsonDecoder.INSTANCE.decode(element);
+		} catch (IllegalArgumentException e) {
+			throw new DefinitionException(record, "Malformed definition " + record + " before line " + line + ": " + e.getMessage(), e);
+		}
+		if (!(value instanceof Map)) {
+			throw new DefinitionException(record, "Expected object for definition " + record + " before line " + line, null);
+		}
+		Map<String, Object> map = this.map(value, "controller");
+		String name = this.string(map, "name", null);
+		if (name == null || name.isEmpty()) {
+			throw new DefinitionException(record, "Missing controller name of definition " + record + " before line " + line, null);
+		}
+		try {
+			return this.controller(name, map);
+		} catch (RuntimeException | ClassNotFoundException e) {
+			throw new DefinitionException(name, "Invalid definition of controller '" + name + "': " + e.getMessage(), e);
+		}
+	}
+	
+	protected MvcController controller(String name, Map<String, Object> map) throws IOException, ClassNotFoundException {
+		MvcController controller = new MvcController(name);
+		if (map.get("mapping") != null) {
+			controller.setMapping(this.mapping(this.map(map.get("mapping"), "mapping")));
+		}
+		if (map.get("bound") != null) {
+			controller.setBound(this.bound(this.map(map.get("bound"), "bound")));
+		}
+		controller.setTags(this.strings(map, "tags", null));
+		for (Object method : this.list(map, "methods")) {
+			controller.addEndpoint(this.endpoint(this.map(method, "method")));
+		}
+		return controller;
+	}
+	
+	protected MvcMapping mapping(Map<String, Object> map) throws IOException {
+		MvcMapping mapping = new MvcMapping(this.strings(map, "path", new String[0]), this.methods(map));
+		mapping.setName(this.string(map, "name", ""));
+		mapping.setParams(this.strings(map, "params", mapping.getParams()));
+		mapping.setHeaders(this.strings(map, "headers", mapping.getHeaders()));
+		mapping.setConsumes(this.strings(map, "consumes", mapping.getConsumes()));
+		mapping.setProduces(this.strings(map, "produces", mapping.getProduces()));
+		return mapping;
+	}
+	
+	protected MvcEndpoint endpoint(Map<String, Object> map) throws IOException, ClassNotFoundException {
+		String name = this.string(map, "name", null);
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("Missing method name");
+		}
+		MvcMethod method = new MvcMethod(name, this.strings(map, "path", new String[0]), this.methods(map));
+		method.setParams(this.strings(map, "params", method.getParams()));
+		method.setHeaders(this.strings(map, "headers", method.getHeaders()));
+		method.setConsumes(this.strings(map, "consumes", method.getConsumes()));
+		method.setProduces(this.strings(map, "produces", method.getProduces()));
+		if (map.get("responseBody") instanceof Boolean) {
+			method.setResponseBody((Boolean) map.get("responseBody"));
+		}
+		MvcEndpoint endpoint = new MvcEndpoint(method);
+		endpoint.setReturnType(ClassUtils.forName(this.string(map, "returnType", Object.class.getName()), classLoader));
+		if (map.get("bound") != null) {
+			endpoint.setBound(this.bound(this.map(map.get("bound"), "bound")));
+		}
+		List<Object> parameters = this.list(map, "parameters");
+		MvcParam<?>[] params = new MvcParam<?>[parameters.size()];
+		for (int i = 0; i < params.length; i++) {
+			params[i] = this.param(this.map(parameters.get(i), "parameter"));
+		}
+		endpoint.setParams(params);
+		this.policies(method, map);
+		return endpoint;
+	}
+	
+	/**
+	 * 方法级的并发隔离、自适应并发限制、限流、缓存、合并调用及批量调用配置
+	 */
+	protected void policies(MvcMethod method, Map<String, Object> map) throws IOException {
+		if (map.get("bulkhead") != null) {
+			Map<String, Object> bulkhead = this.map(map.get("bulkhead"), "bulkhead");
+			method.setBulkhead(new MvcBulkhead(this.number(bulkhead, "maxConcurrent", null).intValue(),
+					this.number(bulkhead, "maxQueue", 0).intValue(), this.number(bulkhead, "maxWait", 0).longValue(),
+					this.status(bulkhead, HttpStatus.SERVICE_UNAVAILABLE)));
+		}
+		if (map.get("adaptiveLimit") != null) {
+			Map<String, Object> adaptiveLimit = this.map(map.get("adaptiveLimit"), "adaptiveLimit");
+			MvcAdaptiveLimit limit = new MvcAdaptiveLimit();
+			limit.setInitialLimit(this.number(adaptiveLimit, "initialLimit", limit.getInitialLimit()).intValue());
+			limit.setMinLimit(this.number(adaptiveLimit, "minLimit", limit.getMinLimit()).intValue());
+			limit.setMaxLimit(this.number(adaptiveLimit, "maxLimit", limit.getMaxLimit()).intValue());
+			limit.setProbeInterval(this.number(adaptiveLimit, "probeInterval", limit.getProbeInterval()).intValue());
+			limit.setStatus(this.status(adaptiveLimit, limit.getStatus()));
+			method.setAdaptiveLimit(limit);
+		}
+		if (map.get("rateLimit") != null) {
+			Map<String, Object> rateLimit = this.map(map.get("rateLimit"), "rateLimit");
+			MvcRateLimit limit = new MvcRateLimit(this.number(rateLimit, "permitsPerSecond", null).doubleValue(),
+					this.number(rateLimit, "burst", null).intValue(),
+					MvcRateLimitScope.valueOf(this.string(rateLimit, "scope", MvcRateLimitScope.UID.name()).toUpperCase(Locale.ROOT)));
+			limit.setStatus(this.status(rateLimit, limit.getStatus()));
+			method.setRateLimit(limit);
+		}
+		if (map.get("cache") != null) {
+			Map<String, Object> cache = this.map(map.get("cache"), "cache");
+			method.setCache(new MvcCache(this.number(cache, "ttl", null).longValue(), this.number(cache, "maximumSize", null).intValue()));
+		}
+		if (map.get("coalesce") instanceof Boolean) {
+			method.setCoalesce((Boolean) map.get("coalesce"));
+		}
+		if (map.get("batch") != null) {
+			Map<String, Object> batch = this.map(map.get("batch"), "batch");
+			method.setBatch(new MvcBatch(this.number(batch, "maxSize", null).intValue(), this.number(batch, "window", null).longValue()));
+		}
+	}
+	
+	protected MvcParam<?> param(Map<String, Object> map) throws IOException, ClassNotFoundException {
+		String name = this.string(map, "name", null);
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("Missing parameter name");
+		}
+		Class<?> type = ClassUtils.forName(this.string(map, "type", String.class.getName()), classLoader);
+		MvcParamFrom from = MvcParamFrom.valueOfIgnoreCase(this.string(map, "from", MvcParamFrom.PARAM.getKey()).toUpperCase(Locale.ROOT));
+		MvcParam<?> param = new MvcParam<>(type, name, from, this.string(map, "def", null));
+		if (map.get("required") instanceof Boolean) {
+			param.setRequired((Boolean) map.get("required"));
+		}
+		return param;
+	}
+	
+	/**
+	 * json 可以是字符串或 json 对象，对象按原样序列化为字符串
+	 */
+	protected MvcBound bound(Map<String, Object> map) throws IOException {
+		Object json = map.get("json");
+		MvcBound bound = new MvcBound(this.string(map, "uid", ""),
+				json == null ? "" : json instanceof String ? (String) json : JsonArrayWriter.toJson(json));
+		bound.setNotes(this.string(map, "notes", ""));
+		return bound;
+	}
+	
+	private RequestMethod[] methods(Map<String, Object> map) throws IOException {
+		String[] names = this.strings(map, "method", null);
+		if (names == null) {
+			return RequestMethod.values();
+		}
+		RequestMethod[] methods = new RequestMethod[names.length];
+		for (int i = 0; i < names.length; i++) {
+			methods[i] = RequestMethod.valueOf(names[i].toUpperCase(Locale.ROOT));
+		}
+		return methods;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> map(Object value, String name) throws IOException {
+		if (!(value instanceof Map)) {
+			throw new IOException("Expected object for " + name + " before line " + line);
+		}
+		return (Map<String, Object>) value;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private List<Object> list(Map<String, Object> map, String key) {
+		Object value = map.get(key);
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		if (!(value instanceof List)) {
+			throw new IllegalArgumentException("Expected array for '" + key + "'");
+		}
+		return (List<Object>) value;
+	}
+	
+	/**
+	 * @param def	: 默认值，为 null 时表示必须指定
+	 */
+	private Number number(Map<String, Object> map, String key, Number def) {
+		Object value = map.get(key);
+		if (value == null) {
+			if (def == null) {
+				throw new IllegalArgumentException("Missing '" + key + "'");
+			}
+			return def;
+		}
+		if (value instanceof Number) {
+			return (Number) value;
+		}
+		try {
+			return Double.valueOf(value.toString());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Expected number for '" + key + "' : " + value);
+		}
+	}
+	
+	/**
+	 * 响应状态可以是状态码或枚举名称
+	 */
+	private HttpStatus status(Map<String, Object> map, HttpStatus def) {
+		Object value = map.get("status");
+		if (value == null) {
+			return def;
+		}
+		return value instanceof Number ? HttpStatus.valueOf(((Number) value).intValue()) : HttpStatus.valueOf(value.toString().toUpperCase(Locale.ROOT));
+	}
+	
+	private String string(Map<String, Object> map, String key, String def) {
+		Object value = map.get(key);
+		return value == null ? def : value.toString();
+	}
+	
+	private String[] strings(Map<String, Object> map, String key, String[] def) {
+		Object value = map.get(key);
+		if (value == null) {
+			return def;
+		}
+		if (value instanceof Collection) {
+			return ((Collection<?>) value).stream().map(String::valueOf).toArray(String[]::new);
+		}
+		return new String[] { value.toString() };
+	}
+	
+	/**
+	 * @return 下一个顶层 json 对象的文本，读取完毕时返回 null
+	 */
+	private String nextElement() throws IOException {
+		if (finished) {
+			return null;
+		}
+		int c = this.skipWhitespace();
+		if (!started) {
+			started = true;
+			if (c == '[') {
+				array = true;
+				c = this.skipWhitespace();
+				if (c == ']') {
+					finished = true;
+					return null;
+				}
+			}
+		} else if (array) {
+			if (c == ']') {
+				finished = true;
+				return null;
+			}
+			if (c != ',') {
+				throw this.error("Expected ',' or ']'");
+			}
+			c = this.skipWhitespace();
+		}
+		if (c == -1) {
+			if (array) {
+				throw this.error("Unexpected end of catalog");
+			}
+			finished = true;
+			return null;
+		}
+		if (c != '{') {
+			throw this.error("Expected '{'");
+		}
+		StringBuilder element = new StringBuilder(256).append('{');
+		int depth = 1;
+		boolean string = false;
+		while (depth > 0) {
+			c = this.read();
+			if (c == -1) {
+				throw this.error("Unexpected end of catalog");
+			}
+			element.append((char) c);
+			if (string) {
+				if (c == '\\') {
+					int escaped = this.read();
+					if (escaped == -1) {
+						throw this.error("Unexpected end of catalog");
+					}
+					element.append((char) escaped);
+				} else if (c == '"') {
+					string = false;
+				}
+			} else if (c == '"') {
+				string = true;
+			} else if (c == '{' || c == '[') {
+				depth++;
+			} else if (c == '}' || c == ']') {
+				depth--;
+			}
+		}
+		return element.toString();
+	}
+	
+	private int skipWhitespace() throws IOException {
+		for (;;) {
+			int c = this.read();
+			if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+				return c;
+			}
+		}
+	}
+	
+	private int read() throws IOException {
+		if (position == limit) {
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		char c = buffer[position++];
+		if (c == '\n') {
+			line++;
+		}
+		return c;
+	}
+	
+	private IOException error(String message) {
+		return new IOException(message + " at line " + line);
+	}
+	
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+	
+}
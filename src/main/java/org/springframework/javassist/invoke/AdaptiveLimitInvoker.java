@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.Method;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.bytecode.EndpointApi;
+
+/**
+ * 自适应并发限制：超出 {@link AdaptiveLimiter} 当前上限时抛出 {@link EndpointRejectedException}，
+ * 调用完成（异步结果完成）后以调用耗时作为 RTT 采样；Mono/Flux 在订阅时获取许可，RTT 从订阅开始计算
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class AdaptiveLimitInvoker implements EndpointInvoker {
+
+	private final AdaptiveLimiter limiter;
+	private final HttpStatus status;
+	private final EndpointInvoker next;
+	private final Completions.Permit permit = new Completions.Permit() {
+		
+		@Override
+		public void acquire(Method method) throws Throwable {
+			if (!limiter.tryAcquire()) {
+				throw new EndpointRejectedException(status, "Concurrency limit exceeded : " + method.getName());
+			}
+		}
+		
+		@Override
+		public void release(long elapsed) {
+			limiter.release(elapsed);
+		}
+		
+	};
+	
+	public AdaptiveLimitInvoker(AdaptiveLimiter limiter, HttpStatus status, EndpointInvoker next) {
+		this.limiter = limiter;
+		this.status = status;
+		this.next = next;
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		return Completions.guard(permit, next, target, method, args);
+	}
+
+	public AdaptiveLimiter getLimiter() {
+		return limiter;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.javassist.bytecode.definition.MvcAdaptiveLimit;
+
+/**
+ * 自适应并发限制（Vegas 算法）：以最小 RTT 作为无负载 RTT，估算排队长度 queue = limit * (1 - rttNoLoad / rtt)，
+ * 排队较少时提高并发上限，排队过多时降低并发上限；超出上限的调用立即拒绝。
+ * <p>获取、释放及调整上限均通过 CAS 完成，无锁</p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class AdaptiveLimiter {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final int probeInterval;
+	private final AtomicInteger limit;
+	private final AtomicInteger inflight = new AtomicInteger();
+	private final AtomicInteger samples = new AtomicInteger();
+	// 无负载 RTT（纳秒），0 表示尚未采样
+	private final AtomicLong rttNoLoad = new AtomicLong();
+	
+	public AdaptiveLimiter(MvcAdaptiveLimit limit) {
+		this(limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit(), limit.getProbeInterval());
+	}
+	
+	/**
+	 * @param initialLimit	: 初始并发上限
+	 * @param minLimit		: 最小并发上限
+	 * @param maxLimit		: 最大并发上限
+	 * @param probeInterval	: 每隔多少次采样重新探测无负载 RTT
+	 */
+	public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, int probeInterval) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.probeInterval = probeInterval;
+		this.limit = new AtomicInteger(Math.min(Math.max(initialLimit, minLimit), maxLimit));
+	}
+	
+	/**
+	 * 尝试获取许可
+	 * @return 当前并发数未超出上限时返回 true
+	 */
+	public boolean tryAcquire() {
+		for (;;) {
+			int current = inflight.get();
+			if (current >= limit.get()) {
+				return false;
+			}
+			if (inflight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * 释放许可并根据本次调用的 RTT 调整并发上限
+	 * @param rtt 本次调用的耗时（纳秒）
+	 */
+	public void release(long rtt) {
+		int current = inflight.getAndDecrement();
+		if (rtt > 0) {
+			this.sample(rtt, current);
+		}
+	}
+	
+	protected void sample(long rtt, int concurrent) {
+		
+		// 定期重置无负载 RTT，避免后端变化后仍使用过期的最小值
+		if (probeInterval > 0 && samples.incrementAndGet() % probeInterval == 0) {
+			rttNoLoad.set(rtt);
+			return;
+		}
+		long noLoad = rttNoLoad.get();
+		while (noLoad == 0 || rtt < noLoad) {
+			if (rttNoLoad.compareAndSet(noLoad, rtt)) {
+				noLoad = rtt;
+				break;
+			}
+			noLoad = rttNoLoad.get();
+		}
+		
+		int current = limit.get();
+		// 并发未达到上限的一半时，RTT 不能反映上限是否合适
+		if (concurrent * 2 < current) {
+			return;
+		}
+		int queue = (int) Math.ceil(current * (1 - (double) noLoad / rtt));
+		int log = Math.max(1, (int) Math.log10(current));
+		int alpha = 3 * log;
+		int beta = 6 * log;
+		int next;
+		if (queue <= log) {
+			next = current + beta;
+		} else if (queue < alpha) {
+			next = current + log;
+		} else if (queue > beta) {
+			next = current - log;
+		} else {
+			return;
+		}
+		next = Math.min(Math.max(next, minLimit), maxLimit);
+		// 并发调整时仅一个采样生效
+		limit.compareAndSet(current, next);
+	}
+	
+	public int getLimit() {
+		return limit.get();
+	}
+	
+	public int getInflight() {
+		return inflight.get();
+	}
+	
+	public long getRttNoLoad() {
+		return rttNoLoad.get();
+	}
+	
+}
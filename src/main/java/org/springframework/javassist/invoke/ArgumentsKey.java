@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.util.Arrays;
+
+/**
+ * 以方法参数值作为键：按 {@link Arrays#deepEquals(Object[], Object[])} 比较，哈希值预先计算
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+final class ArgumentsKey {
+
+	static final ArgumentsKey EMPTY = new ArgumentsKey(new Object[0]);
+	
+	private final Object[] args;
+	private final int hash;
+	
+	private ArgumentsKey(Object[] args) {
+		this.args = args;
+		this.hash = Arrays.deepHashCode(args);
+	}
+	
+	static ArgumentsKey of(Object[] args) {
+		return args == null || args.length == 0 ? EMPTY : new ArgumentsKey(args.clone());
+	}
+	
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ArgumentsKey)) {
+			return false;
+		}
+		ArgumentsKey other = (ArgumentsKey) obj;
+		return hash == other.hash && Arrays.deepEquals(args, other.args);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.deepToString(args);
+	}
+	
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 异步 InvocationHandler：异步动态方法直接使用其返回的 {@link CompletionStage}，不再占用线程池
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface AsyncInvocationHandler extends InvocationHandler {
+
+	/**
+	 * @param proxy		: The generated instance
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of method
+	 * @return The {@link CompletionStage} of result
+	 * @throws Throwable if handler throws
+	 */
+	CompletionStage<?> invokeAsync(Object proxy, Method method, Object[] args) throws Throwable;
+	
+	/**
+	 * 同步调用时阻塞等待异步结果
+	 */
+	@Override
+	default Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		return invokeAsync(proxy, method, args).toCompletableFuture().get();
+	}
+	
+}
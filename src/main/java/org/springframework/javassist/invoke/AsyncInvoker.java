@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.bytecode.EndpointApi;
+import org.springframework.javassist.bytecode.definition.MvcAsync;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+/**
+ * 将动态方法的调用转换为 {@link MvcAsync} 类型的返回值，容器线程随即释放：
+ * <ul>
+ * <li>{@link CompletableFuture} / {@link DeferredResult} ：{@link AsyncInvocationHandler} 直接使用其返回的 {@link CompletionStage}，
+ * 其他 InvocationHandler 提交到 {@link Executor} 中执行</li>
+ * <li>{@link Callable} / {@link WebAsyncTask} ：由 Spring MVC 的 AsyncTaskExecutor 执行</li>
+ * </ul>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class AsyncInvoker implements EndpointInvoker {
+
+	private final MvcAsync async;
+	private final Executor executor;
+	private final Long timeout;
+	private final EndpointInvoker next;
+	
+	public AsyncInvoker(MvcAsync async, Executor executor, Long timeout, EndpointInvoker next) {
+		this.async = async;
+		this.executor = executor;
+		this.timeout = timeout;
+		this.next = next;
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		switch (async) {
+			case CALLABLE:
+				return this.callable(target, method, args);
+			case WEB_ASYNC_TASK:
+				return timeout != null ? new WebAsyncTask<>(timeout, this.callable(target, method, args))
+						: new WebAsyncTask<>(this.callable(target, method, args));
+			case DEFERRED_RESULT:
+				return this.deferred(this.future(target, method, args));
+			default:
+				return this.future(target, method, args);
+		}
+	}
+	
+	protected Callable<Object> callable(EndpointApi target, Method method, Object[] args) {
+		return () -> {
+			try {
+				return await(next.invoke(target, method, args));
+			} catch (Exception | Error ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				throw new UndeclaredThrowableException(ex);
+			}
+		};
+	}
+	
+	protected CompletableFuture<Object> future(EndpointApi target, Method method, Object[] args) throws Throwable {
+		// 异步 InvocationHandler 或未指定线程池：在当前线程获取 CompletionStage
+		if (executor == null || next.handler(target) instanceof AsyncInvocationHandler) {
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			complete(future, next.invoke(target, method, args));
+			return future;
+		}
+		CompletableFuture<Object> future = new CompletableFuture<>();
+		try {
+			executor.execute(() -> {
+				try {
+					complete(future, next.invoke(target, method, args));
+				} catch (Throwable ex) {
+					future.completeExceptionally(ex);
+				}
+			});
+		} catch (RejectedExecutionException ex) {
+			// 线程池饱和：拒绝而不是继续排队
+			future.completeExceptionally(new EndpointRejectedException(HttpStatus.SERVICE_UNAVAILABLE, "Executor saturated : " + method.getName()));
+		}
+		return future;
+	}
+	
+	protected DeferredResult<Object> deferred(CompletableFuture<Object> future) {
+		DeferredResult<Object> result = timeout != null ? new DeferredResult<>(timeout) : new DeferredResult<>();
+		future.whenComplete((value, ex) -> {
+			if (ex != null) {
+				result.setErrorResult(unwrap(ex));
+			} else {
+				result.setResult(value);
+			}
+		});
+		return result;
+	}
+	
+	private static void complete(CompletableFuture<Object> future, Object value) {
+		if (value instanceof CompletionStage) {
+			((CompletionStage<?>) value).whenComplete((result, ex) -> {
+				if (ex != null) {
+					future.completeExceptionally(unwrap(ex));
+				} else {
+					future.complete(result);
+				}
+			});
+		} else {
+			future.complete(value);
+		}
+	}
+	
+	private static Object await(Object value) throws Throwable {
+		if (value instanceof CompletionStage) {
+			try {
+				return ((CompletionStage<?>) value).toCompletableFuture().join();
+			} catch (CompletionException ex) {
+				throw unwrap(ex);
+			}
+		}
+		return value;
+	}
+	
+	private static Throwable unwrap(Throwable ex) {
+		return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+	}
+
+	public MvcAsync getAsync() {
+		return async;
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	public Long getTimeout() {
+		return timeout;
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+}
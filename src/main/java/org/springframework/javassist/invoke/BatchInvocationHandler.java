@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量 InvocationHandler：启用批量调用的方法将一段时间窗口内的并发调用合并为一次 {@link #invokeBatch(Object, Method, List)}
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface BatchInvocationHandler extends InvocationHandler {
+
+	/**
+	 * @param proxy		: The generated instance
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of each call
+	 * @return The results of each call, in the same order as args
+	 * @throws Throwable if handler throws
+	 */
+	List<?> invokeBatch(Object proxy, Method method, List<Object[]> args) throws Throwable;
+	
+	/**
+	 * 单次调用作为只有一个元素的批量调用
+	 */
+	@Override
+	default Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		return invokeBatch(proxy, method, Collections.singletonList(args)).get(0);
+	}
+	
+}
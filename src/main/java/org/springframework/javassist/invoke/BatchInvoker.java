@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+import org.springframework.javassist.bytecode.EndpointApi;
+import org.springframework.javassist.bytecode.definition.MvcBatch;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 批量调用：调用参数进入无锁队列，达到最大批量或时间窗口结束时，按动态类实例分组后在 {@link Executor} 中批量调用
+ * {@link BatchInvocationHandler}，并按顺序完成每个调用的 {@link CompletableFuture}。
+ * <p>调用链最终调用的 InvocationHandler（按 uid 注册的优先，见 {@link EndpointInvoker#handler(EndpointApi)}）
+ * 不是 {@link BatchInvocationHandler} 时直接调用下一个调用，结果同样转换为批量调用的返回形式</p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BatchInvoker implements EndpointInvoker {
+
+	/**
+	 * 批量调用结果的返回形式
+	 */
+	public enum Adapter {
+		
+		/**
+		 * 返回 {@link CompletableFuture}
+		 */
+		FUTURE,
+		/**
+		 * 返回 {@link Mono}
+		 */
+		MONO,
+		/**
+		 * 返回 {@link Flux}
+		 */
+		FLUX;
+		
+	}
+	
+	private final int maxSize;
+	private final long window;
+	private final Adapter adapter;
+	private final Executor executor;
+	private final ScheduledExecutorService scheduler;
+	private final EndpointInvoker next;
+	private final Queue<Call> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pending = new AtomicInteger();
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	
+	public BatchInvoker(MvcBatch batch, Adapter adapter, EndpointInvoker next) {
+		this(batch, adapter, EndpointExecutors.blocking(), EndpointExecutors.scheduler(), next);
+	}
+	
+	public BatchInvoker(MvcBatch batch, Adapter adapter, Executor executor, ScheduledExecutorService scheduler, EndpointInvoker next) {
+		this.maxSize = Math.max(1, batch.getMaxSize());
+		this.window = batch.getWindow();
+		this.adapter = adapter;
+		this.executor = executor;
+		this.scheduler = scheduler;
+		this.next = next;
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		
+		// 按 uid 注册的 InvocationHandler 优先
+		InvocationHandler handler = next.handler(target);
+		if (!(handler instanceof BatchInvocationHandler)) {
+			return this.fallback(next.invoke(target, method, args));
+		}
+		
+		Call call = new Call(target, (BatchInvocationHandler) handler, method, args);
+		queue.offer(call);
+		if (pending.incrementAndGet() >= maxSize) {
+			executor.execute(this::drain);
+		} else if (scheduled.compareAndSet(false, true)) {
+			scheduler.schedule(() -> {
+				scheduled.set(false);
+				executor.execute(this::drain);
+			}, window, TimeUnit.MILLISECONDS);
+		}
+		return this.adapt(call.future);
+	}
+	
+	protected Object adapt(CompletableFuture<Object> future) throws Throwable {
+		switch (adapter) {
+			case MONO:
+				return Mono.fromFuture(future);
+			case FLUX:
+				return Mono.fromFuture(future).flatMapMany(value -> value instanceof Publisher 
+						? Flux.from((Publisher<?>) value) : Flux.just(value));
+			default:
+				return future;
+		}
+	}
+	
+	/**
+	 * 非批量调用的结果：方法返回类型已改为 CompletableFuture | Mono，普通值及 {@link CompletionStage} 同样需要转换
+	 */
+	protected Object fallback(Object result) throws Throwable {
+		if (result instanceof Publisher && adapter != Adapter.FUTURE) {
+			return adapter == Adapter.MONO ? Mono.from((Publisher<?>) result) : Flux.from((Publisher<?>) result);
+		}
+		if (result instanceof CompletableFuture && adapter == Adapter.FUTURE) {
+			return result;
+		}
+		CompletableFuture<Object> future = result instanceof CompletionStage 
+				? ((CompletionStage<?>) result).<Object>thenApply(value -> value).toCompletableFuture()
+				: CompletableFuture.completedFuture(result);
+		return this.adapt(future);
+	}
+	
+	/**
+	 * 取出队列中的全部调用，每 maxSize 个为一批
+	 */
+	protected void drain() {
+		List<Call> calls = new ArrayList<>(maxSize);
+		Call call;
+		while ((call = queue.poll()) != null) {
+			pending.decrementAndGet();
+			calls.add(call);
+			if (calls.size() >= maxSize) {
+				this.dispatch(calls);
+				calls = new ArrayList<>(maxSize);
+			}
+		}
+		if (!calls.isEmpty()) {
+			this.dispatch(calls);
+		}
+	}
+	
+	protected void dispatch(List<Call> calls) {
+		// 不同的动态类实例可能使用不同的 InvocationHandler，同一实例的 InvocationHandler 也可能在窗口内重新注册
+		Map<Map.Entry<EndpointApi, BatchInvocationHandler>, List<Call>> groups = new LinkedHashMap<>();
+		for (Call call : calls) {
+			groups.computeIfAbsent(new SimpleImmutableEntry<>(call.target, call.handler), key -> new ArrayList<>()).add(call);
+		}
+		for (Map.Entry<Map.Entry<EndpointApi, BatchInvocationHandler>, List<Call>> group : groups.entrySet()) {
+			List<Call> batch = group.getValue();
+			List<Object[]> args = new ArrayList<>(batch.size());
+			for (Call call : batch) {
+				args.add(call.args);
+			}
+			try {
+				List<?> results = group.getKey().getKey().invokeHandlerBatch(group.getKey().getValue(), batch.get(0).method, args);
+				if (results == null || results.size() != batch.size()) {
+					throw new IllegalStateException("BatchInvocationHandler must return " + batch.size() + " results, but "
+							+ (results == null ? "null" : results.size()));
+				}
+				for (int i = 0; i < batch.size(); i++) {
+					batch.get(i).future.complete(results.get(i));
+				}
+			} catch (Throwable ex) {
+				for (Call call : batch) {
+					call.future.completeExceptionally(ex);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return 等待批量调用的调用数
+	 */
+	public int getPending() {
+		return pending.get();
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+	private static final class Call {
+		
+		private final EndpointApi target;
+		private final BatchInvocationHandler handler;
+		private final Method method;
+		private final Object[] args;
+		private final CompletableFuture<Object> future = new CompletableFuture<>();
+		
+		private Call(EndpointApi target, BatchInvocationHandler handler, Method method, Object[] args) {
+			this.target = target;
+			this.handler = handler;
+			this.method = method;
+			this.args = args;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+/**
+ * 接收预先解析的 @WebBound 绑定数据的 InvocationHandler：
+ * 设置 {@link org.springframework.javassist.bound.BoundDecoder} 时，json 在生成动态类时解析一次并由方法的调用链持有，每次调用直接传入
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface BoundInvocationHandler extends InvocationHandler {
+
+	/**
+	 * @param proxy		: The generated instance
+	 * @param method	: The invoked {@link Method}
+	 * @param payload	: The decoded json of @WebBound
+	 * @param args		: The arguments of method
+	 * @return The result of method
+	 * @throws Throwable if handler throws
+	 */
+	Object invokeBound(Object proxy, Method method, Object payload, Object[] args) throws Throwable;
+	
+	/**
+	 * 没有绑定数据的方法
+	 */
+	@Override
+	default Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		return invokeBound(proxy, method, null, args);
+	}
+	
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.javassist.bound.BoundPayloadStore;
+import org.springframework.javassist.bytecode.EndpointApi;
+
+/**
+ * 将预先解析的 @WebBound 绑定数据传给 {@link BoundInvocationHandler}，其他 InvocationHandler 按原方式调用；
+ * 绑定数据保存在 {@link BoundPayloadStore} 时，调用时按句柄读取
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BoundInvoker implements EndpointInvoker {
+
+	private final Object payload;
+	private final BoundPayloadStore store;
+	private final long handle;
+	private final EndpointInvoker next;
+	private final AtomicBoolean released = new AtomicBoolean();
+	
+	public BoundInvoker(Object payload, EndpointInvoker next) {
+		this.payload = payload;
+		this.store = null;
+		this.handle = -1;
+		this.next = next;
+	}
+	
+	public BoundInvoker(BoundPayloadStore store, long handle, EndpointInvoker next) {
+		this.payload = null;
+		this.store = store;
+		this.handle = handle;
+		this.next = next;
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		if (target.getHandler() instanceof BoundInvocationHandler) {
+			return target.invokeHandlerBound(method, this.getPayload(), args);
+		}
+		return next.invoke(target, method, args);
+	}
+
+	public Object getPayload() {
+		return store != null ? store.payload(handle) : payload;
+	}
+	
+	/**
+	 * 释放 {@link BoundPayloadStore} 中的句柄，重复调用无影响
+	 */
+	@Override
+	public void release() {
+		if (store != null && released.compareAndSet(false, true)) {
+			store.release(handle);
+		}
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+}
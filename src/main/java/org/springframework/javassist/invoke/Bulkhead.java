@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.javassist.bytecode.definition.MvcBulkhead;
+
+/**
+ * 无锁信号量：通过 CAS 获取许可，许可不足时可在有限的队列中等待
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class Bulkhead {
+
+	private final int maxConcurrent;
+	private final int maxQueue;
+	private final long maxWaitNanos;
+	private final AtomicInteger permits;
+	private final AtomicInteger queued = new AtomicInteger();
+	private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+	
+	public Bulkhead(MvcBulkhead bulkhead) {
+		this(bulkhead.getMaxConcurrent(), bulkhead.getMaxQueue(), bulkhead.getMaxWait());
+	}
+	
+	/**
+	 * @param maxConcurrent	: 最大并发调用数
+	 * @param maxQueue		: 最大排队数
+	 * @param maxWait		: 最大排队等待时间（毫秒）
+	 */
+	public Bulkhead(int maxConcurrent, int maxQueue, long maxWait) {
+		this.maxConcurrent = maxConcurrent;
+		this.maxQueue = maxQueue;
+		this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWait);
+		this.permits = new AtomicInteger(maxConcurrent);
+	}
+	
+	/**
+	 * 尝试获取许可，不等待
+	 * @return 是否获取成功
+	 */
+	public boolean tryAcquire() {
+		for (;;) {
+			int available = permits.get();
+			if (available <= 0) {
+				return false;
+			}
+			if (permits.compareAndSet(available, available - 1)) {
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * 获取许可，许可不足且队列未满时等待，直至超时
+	 * @return 是否获取成功
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public boolean acquire() throws InterruptedException {
+		if (tryAcquire()) {
+			return true;
+		}
+		if (maxQueue <= 0 || maxWaitNanos <= 0) {
+			return false;
+		}
+		if (queued.incrementAndGet() > maxQueue) {
+			queued.decrementAndGet();
+			return false;
+		}
+		Waiter waiter = new Waiter();
+		long deadline = System.nanoTime() + maxWaitNanos;
+		boolean acquired = false;
+		waiters.offer(waiter);
+		try {
+			for (;;) {
+				if (tryAcquire()) {
+					acquired = true;
+					return true;
+				}
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				LockSupport.parkNanos(this, remaining);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				// 被唤醒时已出队，未获取到许可（被其他线程抢先）则重新排队
+				if (waiter.state.compareAndSet(Waiter.SIGNALLED, Waiter.WAITING)) {
+					waiters.offer(waiter);
+				}
+			}
+		} finally {
+			if (!waiter.state.compareAndSet(Waiter.WAITING, Waiter.CANCELLED)) {
+				// 已被选中唤醒但未使用该次唤醒（超时、中断或已获取其他许可）：转交下一个等待线程
+				this.signal();
+			} else if (!acquired) {
+				// 超时或中断时移出队列；获取成功的节点由 signal() 跳过
+				waiters.remove(waiter);
+			}
+			queued.decrementAndGet();
+		}
+	}
+	
+	/**
+	 * 释放许可，并唤醒一个等待线程
+	 */
+	public void release() {
+		permits.incrementAndGet();
+		this.signal();
+	}
+	
+	/**
+	 * 唤醒队列中第一个仍在等待的线程，跳过已获取许可或已放弃的节点
+	 */
+	private void signal() {
+		for (Waiter waiter; (waiter = waiters.poll()) != null;) {
+			if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.SIGNALLED)) {
+				LockSupport.unpark(waiter.thread);
+				return;
+			}
+		}
+	}
+	
+	public int getMaxConcurrent() {
+		return maxConcurrent;
+	}
+	
+	public int getAvailablePermits() {
+		return permits.get();
+	}
+	
+	public int getQueued() {
+		return queued.get();
+	}
+	
+	private static final class Waiter {
+		
+		static final int WAITING = 0;
+		static final int SIGNALLED = 1;
+		static final int CANCELLED = 2;
+		
+		final Thread thread = Thread.currentThread();
+		final AtomicInteger state = new AtomicInteger(WAITING);
+		
+	}
+	
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.Method;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.bytecode.EndpointApi;
+
+/**
+ * 方法级并发隔离：获取 {@link Bulkhead} 许可后调用 InvocationHandler，
+ * 同步结果在返回后释放许可，异步结果在完成后释放许可，Mono/Flux 在订阅时获取许可；获取失败时抛出 {@link EndpointRejectedException}
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BulkheadInvoker implements EndpointInvoker {
+
+	private final Bulkhead bulkhead;
+	private final HttpStatus status;
+	private final EndpointInvoker next;
+	private final Completions.Permit permit = new Completions.Permit() {
+		
+		@Override
+		public void acquire(Method method) throws Throwable {
+			if (!bulkhead.acquire()) {
+				throw new EndpointRejectedException(status, "Bulkhead full : " + method.getName());
+			}
+		}
+		
+		@Override
+		public void release(long elapsed) {
+			bulkhead.release();
+		}
+		
+	};
+	
+	public BulkheadInvoker(Bulkhead bulkhead, HttpStatus status, EndpointInvoker next) {
+		this.bulkhead = bulkhead;
+		this.status = status;
+		this.next = next;
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		return Completions.guard(permit, next, target, method, args);
+	}
+
+	public Bulkhead getBulkhead() {
+		return bulkhead;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.reactivestreams.Publisher;
+import org.springframework.javassist.bytecode.EndpointApi;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 响应缓存：以参数值为键，命中时不再调用 InvocationHandler；
+ * 同步结果直接缓存，{@link CompletionStage} 在成功完成后缓存其结果，null 及 {@link Publisher} 不缓存；
+ * 命中时按方法返回类型重新包装（如批量调用将返回类型改为 {@link CompletableFuture}）
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CacheInvoker implements EndpointInvoker {
+
+	private final ResponseCache cache;
+	// 注册到 ResponseCaches 的 uid，未注册时为 null
+	private final String uid;
+	private final EndpointInvoker next;
+	
+	public CacheInvoker(ResponseCache cache, EndpointInvoker next) {
+		this(cache, null, next);
+	}
+	
+	/**
+	 * @param cache	: The {@link ResponseCache}
+	 * @param uid	: 已通过 {@link ResponseCaches#register(String, ResponseCache)} 注册的 uid，释放时注销
+	 * @param next	: The next {@link EndpointInvoker invoker}
+	 */
+	public CacheInvoker(ResponseCache cache, String uid, EndpointInvoker next) {
+		this.cache = cache;
+		this.uid = uid;
+		this.next = next;
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		ArgumentsKey key = ArgumentsKey.of(args);
+		Object value = cache.get(key);
+		if (value != null) {
+			return this.wrap(method.getReturnType(), value);
+		}
+		Object result = next.invoke(target, method, args);
+		if (result instanceof CompletionStage) {
+			((CompletionStage<?>) result).thenAccept(completed -> {
+				if (completed != null) {
+					cache.put(key, completed);
+				}
+			});
+		} else if (result != null && !(result instanceof Publisher)) {
+			cache.put(key, result);
+		}
+		return result;
+	}
+	
+	/**
+	 * 缓存的是 {@link CompletionStage} 完成后的结果，方法返回 CompletableFuture | CompletionStage | Mono 时重新包装
+	 */
+	protected Object wrap(Class<?> returnType, Object value) {
+		if (returnType != Object.class && returnType.isAssignableFrom(CompletableFuture.class)) {
+			return CompletableFuture.completedFuture(value);
+		}
+		if (returnType == Mono.class) {
+			return Mono.just(value);
+		}
+		return value;
+	}
+	
+	/**
+	 * 清空缓存并从 {@link ResponseCaches} 注销
+	 */
+	@Override
+	public void release() {
+		if (uid != null) {
+			ResponseCaches.unregister(uid, cache);
+		}
+		cache.invalidateAll();
+	}
+
+	public ResponseCache getCache() {
+		return cache;
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.javassist.bytecode.EndpointApi;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 合并并发的相同调用（single-flight）：参数值及调用者身份（{@link #IDENTITY_HEADERS}）相同的并发调用共享同一次 InvocationHandler 调用及其结果。
+ * <ul>
+ * <li>同步结果：后到的调用阻塞等待首个调用完成后返回相同结果（或异常）</li>
+ * <li>{@link CompletionStage} ：共享同一个 CompletionStage，完成前的调用均被合并，后到的调用不阻塞</li>
+ * <li>{@link Mono} ：共享同一个缓存的 Mono，终止前的调用均被合并，后到的调用不阻塞</li>
+ * <li>{@link Flux} ：不合并，避免无界的重放缓存</li>
+ * </ul>
+ * {@link ServerRequest} 参数只合并 GET | HEAD 请求，MVC 方法由构建器保证只映射 GET | HEAD 请求。
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CoalescingInvoker implements EndpointInvoker {
+
+	/**
+	 * 标识调用者身份的请求头，值不同的请求不会被合并
+	 */
+	public static final String[] IDENTITY_HEADERS = { HttpHeaders.AUTHORIZATION, HttpHeaders.COOKIE };
+	
+	private final ConcurrentMap<ArgumentsKey, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+	private final EndpointInvoker next;
+	
+	public CoalescingInvoker(EndpointInvoker next) {
+		this.next = next;
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		
+		Object[] values = Flux.class.isAssignableFrom(method.getReturnType()) ? null : key(args);
+		if (values == null) {
+			return next.invoke(target, method, args);
+		}
+		ArgumentsKey key = ArgumentsKey.of(values);
+		CompletableFuture<Object> call = new CompletableFuture<>();
+		CompletableFuture<Object> existing = calls.putIfAbsent(key, call);
+		if (existing != null) {
+			return follow(existing, method.getReturnType());
+		}
+		
+		Object result;
+		try {
+			result = next.invoke(target, method, args);
+		} catch (Throwable ex) {
+			calls.remove(key, call);
+			call.completeExceptionally(ex);
+			throw ex;
+		}
+		if (result instanceof Flux) {
+			calls.remove(key, call);
+			call.complete(result);
+			return result;
+		}
+		Object shared = share(Completions.whenComplete(result, () -> calls.remove(key, call)));
+		call.complete(shared);
+		return shared;
+	}
+	
+	/**
+	 * 后到的调用：{@link Mono} 及 {@link CompletionStage} 方法直接返回衔接首个调用的结果，不阻塞调用线程（如 Netty 事件循环）
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object follow(CompletableFuture<Object> existing, Class<?> returnType) throws Throwable {
+		if (Mono.class.isAssignableFrom(returnType)) {
+			return Mono.fromFuture(existing).flatMap(shared -> shared instanceof Mono ? (Mono<Object>) shared : Mono.just(shared));
+		}
+		if (CompletionStage.class.isAssignableFrom(returnType)) {
+			return existing.thenCompose(shared -> shared instanceof CompletionStage ? (CompletionStage<Object>) shared
+					: CompletableFuture.completedFuture(shared));
+		}
+		try {
+			return existing.join();
+		} catch (CompletionException ex) {
+			throw ex.getCause() != null ? ex.getCause() : ex;
+		}
+	}
+	
+	/**
+	 * 合并键：参数值加上调用者身份请求头；{@link ServerRequest} 以请求方法、URI 及身份请求头作为键（请求体不参与比较），
+	 * 非 GET | HEAD 请求返回 null 表示不合并
+	 */
+	private static Object[] key(Object[] args) {
+		if (args != null && args.length == 1 && args[0] instanceof ServerRequest) {
+			ServerRequest request = (ServerRequest) args[0];
+			HttpMethod method = request.method();
+			if (method != HttpMethod.GET && method != HttpMethod.HEAD) {
+				return null;
+			}
+			HttpHeaders headers = request.headers().asHttpHeaders();
+			Object[] key = new Object[IDENTITY_HEADERS.length + 2];
+			key[0] = method;
+			key[1] = request.uri();
+			for (int i = 0; i < IDENTITY_HEADERS.length; i++) {
+				key[i + 2] = headers.get(IDENTITY_HEADERS[i]);
+			}
+			return key;
+		}
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		Object[] identity = attributes != null ? ServletIdentity.of(attributes) : null;
+		if (identity == null) {
+			return args;
+		}
+		int length = args != null ? args.length : 0;
+		Object[] key = new Object[length + identity.length];
+		if (length > 0) {
+			System.arraycopy(args, 0, key, 0, length);
+		}
+		System.arraycopy(identity, 0, key, length, identity.length);
+		return key;
+	}
+	
+	private static Object share(Object result) {
+		if (result instanceof Mono) {
+			return ((Mono<?>) result).cache();
+		}
+		return result;
+	}
+	
+	/**
+	 * @return 正在执行的调用数
+	 */
+	public int getInflight() {
+		return calls.size();
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+	/**
+	 * 读取 Servlet 请求的身份请求头；单独的类避免 WebFlux 环境加载 Servlet API
+	 */
+	private static final class ServletIdentity {
+		
+		static Object[] of(RequestAttributes attributes) {
+			if (!(attributes instanceof ServletRequestAttributes)) {
+				return null;
+			}
+			HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+			Object[] identity = new Object[IDENTITY_HEADERS.length];
+			for (int i = 0; i < IDENTITY_HEADERS.length; i++) {
+				identity[i] = request.getHeaders(IDENTITY_HEADERS[i]) != null ? Collections.list(request.getHeaders(IDENTITY_HEADERS[i])) : null;
+			}
+			return identity;
+		}
+		
+	}
+	
+}
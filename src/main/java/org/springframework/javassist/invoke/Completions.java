@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.reactivestreams.Publisher;
+import org.springframework.javassist.bytecode.EndpointApi;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 调用结果完成时的回调：{@link CompletionStage} 、{@link Mono} 、{@link Flux} 在完成（或取消）后回调，其他结果立即回调
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+final class Completions {
+
+	private Completions() {
+	}
+	
+	/**
+	 * 调用期间占用的许可（并发隔离、自适应并发限制）
+	 */
+	interface Permit {
+		
+		/**
+		 * @param method	: The invoked {@link Method}
+		 * @throws Throwable 许可不足时抛出 {@link EndpointRejectedException}
+		 */
+		void acquire(Method method) throws Throwable;
+		
+		/**
+		 * @param elapsed	: 获取许可至释放许可的耗时（纳秒）
+		 */
+		void release(long elapsed);
+		
+	}
+	
+	/**
+	 * @param result	: The result of invocation
+	 * @param callback	: The callback
+	 * @return 调用结果，{@link Mono} 、{@link Flux} 返回包装后的对象
+	 */
+	static Object whenComplete(Object result, Runnable callback) {
+		if (result instanceof CompletionStage) {
+			((CompletionStage<?>) result).whenComplete((value, ex) -> callback.run());
+			return result;
+		}
+		if (result instanceof Mono) {
+			return ((Mono<?>) result).doFinally(signal -> callback.run());
+		}
+		if (result instanceof Flux) {
+			return ((Flux<?>) result).doFinally(signal -> callback.run());
+		}
+		callback.run();
+		return result;
+	}
+	
+	/**
+	 * 在许可内调用下一个 {@link EndpointInvoker}：
+	 * 返回 {@link Mono} / {@link Flux} 的方法在每次订阅时获取许可并调用，终止或取消时释放，未订阅则不占用许可；
+	 * 其他方法立即获取许可，同步结果返回后、{@link CompletionStage} 完成后释放。每次获取的许可只释放一次
+	 * @param permit	: The {@link Permit}
+	 * @param next		: The next {@link EndpointInvoker invoker}
+	 * @param target	: The generated instance
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of method
+	 * @return The result of method
+	 * @throws Throwable if rejected or handler throws
+	 */
+	static Object guard(Permit permit, EndpointInvoker next, EndpointApi target, Method method, Object[] args) throws Throwable {
+		Class<?> returnType = method.getReturnType();
+		if (Mono.class.isAssignableFrom(returnType)) {
+			return Mono.defer(() -> Mono.from(subscribe(permit, next, target, method, args)));
+		}
+		if (Flux.class.isAssignableFrom(returnType)) {
+			return Flux.defer(() -> subscribe(permit, next, target, method, args));
+		}
+		permit.acquire(method);
+		Runnable release = once(permit);
+		Object result;
+		try {
+			result = next.invoke(target, method, args);
+		} catch (Throwable ex) {
+			release.run();
+			throw ex;
+		}
+		return whenComplete(result, release);
+	}
+	
+	private static Publisher<Object> subscribe(Permit permit, EndpointInvoker next, EndpointApi target, Method method, Object[] args) {
+		try {
+			permit.acquire(method);
+		} catch (Throwable ex) {
+			return Mono.error(ex);
+		}
+		Runnable release = once(permit);
+		Object result;
+		try {
+			result = next.invoke(target, method, args);
+		} catch (Throwable ex) {
+			release.run();
+			return Mono.error(ex);
+		}
+		if (result instanceof Mono) {
+			return ((Mono<?>) result).cast(Object.class).doFinally(signal -> release.run());
+		}
+		if (result instanceof Publisher) {
+			return Flux.from((Publisher<?>) result).cast(Object.class).doFinally(signal -> release.run());
+		}
+		release.run();
+		return Mono.justOrEmpty(result);
+	}
+	
+	/**
+	 * @return 只执行一次的许可释放回调，耗时从创建时开始计算
+	 */
+	private static Runnable once(Permit permit) {
+		long start = System.nanoTime();
+		AtomicBoolean released = new AtomicBoolean();
+		return () -> {
+			if (released.compareAndSet(false, true)) {
+				permit.release(System.nanoTime() - start);
+			}
+		};
+	}
+	
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 执行阻塞型 InvocationHandler 的线程池：
+ * JDK 21+ 使用虚拟线程（每个任务一个虚拟线程），JDK 8 使用可配置的平台线程池（有界队列，队列已满时拒绝任务）
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public final class EndpointExecutors {
+
+	/**
+	 * 平台线程池大小的系统属性，默认 200
+	 */
+	public static final String PLATFORM_THREADS_PROPERTY = "spring.javassist.executor.threads";
+	/**
+	 * 平台线程池等待队列长度的系统属性，默认 1000
+	 */
+	public static final String PLATFORM_QUEUE_PROPERTY = "spring.javassist.executor.queue";
+	
+	private static volatile ExecutorService platformExecutor;
+	private static volatile ExecutorService blockingExecutor;
+	private static volatile ScheduledExecutorService scheduler;
+	
+	private EndpointExecutors() {
+	}
+	
+	/**
+	 * @return 当前 JDK 是否支持虚拟线程
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return VirtualThreads.isSupported();
+	}
+	
+	/**
+	 * 设置 JDK 21 以下使用的平台线程池
+	 * @param executor 平台线程池
+	 */
+	public static synchronized void setPlatformExecutor(ExecutorService executor) {
+		platformExecutor = executor;
+		blockingExecutor = null;
+	}
+	
+	/**
+	 * @return 执行阻塞型 InvocationHandler 的线程池：虚拟线程或平台线程池
+	 */
+	public static ExecutorService blocking() {
+		ExecutorService executor = blockingExecutor;
+		if (executor == null) {
+			synchronized (EndpointExecutors.class) {
+				executor = blockingExecutor;
+				if (executor == null) {
+					executor = VirtualThreads.newExecutor();
+					if (executor == null) {
+						executor = platform();
+					}
+					blockingExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+	
+	/**
+	 * @return 平台线程池：线程与队列均已占满时抛出 {@link java.util.concurrent.RejectedExecutionException}
+	 */
+	public static ExecutorService platform() {
+		ExecutorService executor = platformExecutor;
+		if (executor == null) {
+			synchronized (EndpointExecutors.class) {
+				executor = platformExecutor;
+				if (executor == null) {
+					int threads = Integer.getInteger(PLATFORM_THREADS_PROPERTY, 200);
+					int queue = Integer.getInteger(PLATFORM_QUEUE_PROPERTY, 1000);
+					executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, queue)),
+							new EndpointThreadFactory("endpoint-executor-"));
+					platformExecutor = executor;
+				}
+			}
+		}
+		return executor;
+	}
+	
+	/**
+	 * @return 定时任务线程池（单线程），仅用于触发定时任务，任务本身应提交到 {@link #blocking()} 执行
+	 */
+	public static ScheduledExecutorService scheduler() {
+		ScheduledExecutorService executor = scheduler;
+		if (executor == null) {
+			synchronized (EndpointExecutors.class) {
+				executor = scheduler;
+				if (executor == null) {
+					executor = Executors.newSingleThreadScheduledExecutor(new EndpointThreadFactory("endpoint-scheduler-"));
+					scheduler = executor;
+				}
+			}
+		}
+		return executor;
+	}
+	
+	private static class EndpointThreadFactory implements ThreadFactory {
+		
+		private final String prefix;
+		private final AtomicInteger sequence = new AtomicInteger();
+		
+		EndpointThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+		
+	}
+	
+}
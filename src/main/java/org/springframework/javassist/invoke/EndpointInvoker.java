@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+import org.springframework.javassist.bytecode.EndpointApi;
+
+/**
+ * 动态方法的调用链：动态类为每个方法生成一个静态字段保存调用链，方法体通过该字段完成 InvocationHandler 的调用，
+ * 调用链中的各个节点可在调用 InvocationHandler 之前完成异步、限流、缓存等逻辑
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface EndpointInvoker {
+
+	/**
+	 * 直接调用 {@link EndpointApi#invokeHandler(Method, Object[])}
+	 */
+	EndpointInvoker HANDLER = (target, method, args) -> target.invokeHandler(method, args);
+	
+	/**
+	 * 调用 {@link EndpointApi#invokeHandlerAsync(Method, Object[])}，异步动态方法的最内层调用
+	 */
+	EndpointInvoker ASYNC_HANDLER = (target, method, args) -> target.invokeHandlerAsync(method, args);
+	
+	/**
+	 * @param target	: The generated instance
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of method
+	 * @return The result of method
+	 * @throws Throwable if handler throws
+	 */
+	Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable;
+	
+	/**
+	 * @return The next {@link EndpointInvoker invoker}, null for the innermost one
+	 */
+	default EndpointInvoker getNext() {
+		return null;
+	}
+	
+	/**
+	 * 调用链最终调用的 InvocationHandler：按 uid 注册的 InvocationHandler（{@link RegistryInvoker}）优先于动态类实例的 InvocationHandler，
+	 * 批量、流式及异步调用据此选择调用方式
+	 * @param target	: The generated instance
+	 * @return The effective {@link InvocationHandler}
+	 */
+	default InvocationHandler handler(EndpointApi target) {
+		EndpointInvoker next = this.getNext();
+		return next != null ? next.handler(target) : target.getHandler();
+	}
+	
+	/**
+	 * 释放该节点占用的资源（如令牌桶），动态类不再使用（重新生成或注销）时调用，默认无资源需要释放
+	 */
+	default void release() {
+	}
+	
+	/**
+	 * 释放调用链中各节点占用的资源
+	 * @param invoker	: The outermost {@link EndpointInvoker invoker}
+	 */
+	static void releaseAll(EndpointInvoker invoker) {
+		for (EndpointInvoker current = invoker; current != null; current = current.getNext()) {
+			current.release();
+		}
+	}
+	
+}
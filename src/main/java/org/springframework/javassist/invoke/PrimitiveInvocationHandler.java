@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+/**
+ * 基本类型参数及返回值的 InvocationHandler：
+ * <p>参数不超过 2 个且均为基本数值类型的动态方法，直接以 long（int、long、short、byte、char）或 double（float、double）
+ * 调用对应的方法，返回值为基本数值类型时调用 invokeLong | invokeDouble，避免每次调用的参数装箱及 Object[] 分配。</p>
+ * <p>默认实现装箱后调用 {@link #invoke(Object, Method, Object[])}，只需覆盖用到的方法</p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface PrimitiveInvocationHandler extends InvocationHandler {
+
+	default Object invoke(Object proxy, Method method) throws Throwable {
+		return invoke(proxy, method, new Object[0]);
+	}
+
+	default Object invoke(Object proxy, Method method, long arg0) throws Throwable {
+		return invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0) });
+	}
+
+	default Object invoke(Object proxy, Method method, double arg0) throws Throwable {
+		return invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0) });
+	}
+
+	default Object invoke(Object proxy, Method method, long arg0, long arg1) throws Throwable {
+		return invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) });
+	}
+
+	default Object invoke(Object proxy, Method method, long arg0, double arg1) throws Throwable {
+		return invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) });
+	}
+
+	default Object invoke(Object proxy, Method method, double arg0, long arg1) throws Throwable {
+		return invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) });
+	}
+
+	default Object invoke(Object proxy, Method method, double arg0, double arg1) throws Throwable {
+		return invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) });
+	}
+
+	default long invokeLong(Object proxy, Method method) throws Throwable {
+		return Primitives.toLong(invoke(proxy, method, new Object[0]));
+	}
+
+	default long invokeLong(Object proxy, Method method, long arg0) throws Throwable {
+		return Primitives.toLong(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0) }));
+	}
+
+	default long invokeLong(Object proxy, Method method, double arg0) throws Throwable {
+		return Primitives.toLong(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0) }));
+	}
+
+	default long invokeLong(Object proxy, Method method, long arg0, long arg1) throws Throwable {
+		return Primitives.toLong(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) }));
+	}
+
+	default long invokeLong(Object proxy, Method method, long arg0, double arg1) throws Throwable {
+		return Primitives.toLong(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) }));
+	}
+
+	default long invokeLong(Object proxy, Method method, double arg0, long arg1) throws Throwable {
+		return Primitives.toLong(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) }));
+	}
+
+	default long invokeLong(Object proxy, Method method, double arg0, double arg1) throws Throwable {
+		return Primitives.toLong(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) }));
+	}
+
+	default double invokeDouble(Object proxy, Method method) throws Throwable {
+		return Primitives.toDouble(invoke(proxy, method, new Object[0]));
+	}
+
+	default double invokeDouble(Object proxy, Method method, long arg0) throws Throwable {
+		return Primitives.toDouble(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0) }));
+	}
+
+	default double invokeDouble(Object proxy, Method method, double arg0) throws Throwable {
+		return Primitives.toDouble(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0) }));
+	}
+
+	default double invokeDouble(Object proxy, Method method, long arg0, long arg1) throws Throwable {
+		return Primitives.toDouble(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) }));
+	}
+
+	default double invokeDouble(Object proxy, Method method, long arg0, double arg1) throws Throwable {
+		return Primitives.toDouble(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) }));
+	}
+
+	default double invokeDouble(Object proxy, Method method, double arg0, long arg1) throws Throwable {
+		return Primitives.toDouble(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) }));
+	}
+
+	default double invokeDouble(Object proxy, Method method, double arg0, double arg1) throws Throwable {
+		return Primitives.toDouble(invoke(proxy, method, new Object[] { Primitives.box(method, 0, arg0), Primitives.box(method, 1, arg1) }));
+	}
+
+}
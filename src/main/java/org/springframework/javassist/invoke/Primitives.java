@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.Method;
+
+/**
+ * {@link PrimitiveInvocationHandler} 默认实现使用的装箱及拆箱逻辑
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+final class Primitives {
+
+	private Primitives() {
+	}
+	
+	/**
+	 * 按方法参数的声明类型装箱
+	 */
+	static Object box(Method method, int index, long value) {
+		Class<?> type = method.getParameterTypes()[index];
+		if (int.class.equals(type)) {
+			return (int) value;
+		}
+		if (short.class.equals(type)) {
+			return (short) value;
+		}
+		if (byte.class.equals(type)) {
+			return (byte) value;
+		}
+		if (char.class.equals(type)) {
+			return (char) value;
+		}
+		return value;
+	}
+	
+	/**
+	 * 按方法参数的声明类型装箱
+	 */
+	static Object box(Method method, int index, double value) {
+		if (float.class.equals(method.getParameterTypes()[index])) {
+			return (float) value;
+		}
+		return value;
+	}
+	
+	static long toLong(Object value) {
+		if (value instanceof Character) {
+			return (Character) value;
+		}
+		return value == null ? 0L : ((Number) value).longValue();
+	}
+	
+	static double toDouble(Object value) {
+		return value == null ? 0D : ((Number) value).doubleValue();
+	}
+	
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.bytecode.EndpointApi;
+import org.springframework.javassist.bytecode.definition.MvcRateLimit;
+import org.springframework.javassist.bytecode.definition.MvcRateLimitScope;
+
+/**
+ * 令牌桶限流：从 {@link TokenBuckets} 中的令牌桶获取令牌后调用 InvocationHandler，令牌不足时抛出 {@link EndpointRejectedException}
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RateLimitInvoker implements EndpointInvoker {
+
+	private final int slot;
+	// 按 uid 共享令牌桶时的键（uid 及限流配置），独立令牌桶为 null
+	private final String key;
+	private final AtomicBoolean released = new AtomicBoolean();
+	private final long interval;
+	private final long capacity;
+	private final HttpStatus status;
+	private final EndpointInvoker next;
+	
+	/**
+	 * @param slot		: 令牌桶位置，参见 {@link TokenBuckets#register(String)}、{@link TokenBuckets#allocate()}
+	 * @param limit		: 限流配置
+	 * @param next		: 下一个调用
+	 */
+	public RateLimitInvoker(int slot, MvcRateLimit limit, EndpointInvoker next) {
+		this(slot, null, limit, next);
+	}
+	
+	private RateLimitInvoker(int slot, String key, MvcRateLimit limit, EndpointInvoker next) {
+		this.slot = slot;
+		this.key = key;
+		this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limit.getPermitsPerSecond()));
+		this.capacity = interval * Math.max(1, limit.getBurst());
+		this.status = limit.getStatus();
+		this.next = next;
+	}
+	
+	/**
+	 * 根据限流范围分配令牌桶：{@link MvcRateLimitScope#UID} 且 uid 不为空时相同 uid 共享令牌桶，否则独立分配；
+	 * 同一个 uid 的限流配置不同时按配置分别共享，避免在同一个令牌桶上使用不同的速率和容量
+	 * @param limit		: 限流配置
+	 * @param uid		: The uid of @WebBound
+	 * @param next		: 下一个调用
+	 * @return {@link RateLimitInvoker} instance
+	 */
+	public static RateLimitInvoker of(MvcRateLimit limit, String uid, EndpointInvoker next) {
+		if (MvcRateLimitScope.UID.equals(limit.getScope()) && uid != null) {
+			String key = uid + "@" + limit.getPermitsPerSecond() + "/" + limit.getBurst();
+			return new RateLimitInvoker(TokenBuckets.register(key), key, limit, next);
+		}
+		return new RateLimitInvoker(TokenBuckets.allocate(), null, limit, next);
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		if (!TokenBuckets.tryAcquire(slot, interval, capacity)) {
+			throw new EndpointRejectedException(status, "Rate limit exceeded : " + method.getName());
+		}
+		return next.invoke(target, method, args);
+	}
+	
+	/**
+	 * 归还令牌桶：独立令牌桶立即回收，uid 共享的令牌桶在最后一个引用释放后回收
+	 */
+	@Override
+	public void release() {
+		if (released.compareAndSet(false, true)) {
+			if (key != null) {
+				TokenBuckets.unregister(key);
+			} else {
+				TokenBuckets.release(slot);
+			}
+		}
+	}
+
+	public int getSlot() {
+		return slot;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+import org.springframework.javassist.bound.BoundHandlerRegistry;
+import org.springframework.javassist.bytecode.EndpointApi;
+import org.springframework.javassist.jfr.EndpointEvent;
+import org.springframework.javassist.jfr.EndpointEvents;
+
+/**
+ * 按生成时分配的 uid id 从 {@link BoundHandlerRegistry} 取得业务 InvocationHandler 并调用；
+ * 没有注册时调用下一个 {@link EndpointInvoker}（动态类实例的 InvocationHandler）
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RegistryInvoker implements EndpointInvoker {
+
+	private final BoundHandlerRegistry registry;
+	private final int id;
+	private final BoundInvoker bound;
+	private final boolean async;
+	private final EndpointInvoker next;
+	
+	/**
+	 * @param registry	: The {@link BoundHandlerRegistry}
+	 * @param id		: The id of uid
+	 * @param async		: 是否为异步方法，异步方法调用 {@link AsyncInvocationHandler#invokeAsync(Object, Method, Object[])}
+	 * @param next		: The next {@link EndpointInvoker invoker}，为 {@link BoundInvoker} 时其绑定数据传给 {@link BoundInvocationHandler}
+	 */
+	public RegistryInvoker(BoundHandlerRegistry registry, int id, boolean async, EndpointInvoker next) {
+		this.registry = registry;
+		this.id = id;
+		this.bound = next instanceof BoundInvoker ? (BoundInvoker) next : null;
+		this.async = async;
+		this.next = next;
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		InvocationHandler handler = registry.handler(id);
+		if (handler == null) {
+			return next.invoke(target, method, args);
+		}
+		EndpointEvent event = EndpointEvents.handlerDispatch(target, method);
+		try {
+			if (handler instanceof BoundInvocationHandler) {
+				return ((BoundInvocationHandler) handler).invokeBound(target, method, bound != null ? bound.getPayload() : null, args);
+			}
+			if (async && handler instanceof AsyncInvocationHandler) {
+				return ((AsyncInvocationHandler) handler).invokeAsync(target, method, args);
+			}
+			return handler.invoke(target, method, args);
+		} finally {
+			event.commit();
+		}
+	}
+
+	@Override
+	public InvocationHandler handler(EndpointApi target) {
+		InvocationHandler handler = registry.handler(id);
+		return handler != null ? handler : next.handler(target);
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.bytecode.EndpointApi;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 文件下载：将 InvocationHandler 返回的 Resource | Path | File | byte[] | InputStream 转换为 {@link Resource}，
+ * 由 Spring 负责 Range 请求及响应写出，不再将文件读入堆内存。
+ * <ul>
+ * <li>{@link Adapter#RESOURCE} : Spring MVC 方法返回 Resource，Range 请求由 ResourceRegionHttpMessageConverter 按区间流式复制</li>
+ * <li>{@link Adapter#SERVER_RESPONSE} : WebFlux 方法返回 Mono&lt;ServerResponse&gt;，文件资源由 ResourceHttpMessageWriter 通过
+ * ZeroCopyHttpOutputMessage（FileChannel.transferTo）写出，同样支持 Range 请求</li>
+ * </ul>
+ * 结果为 null 或文件不存在时响应 404
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ResourceInvoker implements EndpointInvoker {
+
+	/**
+	 * 方法返回类型
+	 */
+	public enum Adapter {
+		/**
+		 * 返回 {@link Resource}
+		 */
+		RESOURCE,
+		/**
+		 * 返回 Mono&lt;ServerResponse&gt;，InvocationHandler 可以返回 Publisher
+		 */
+		SERVER_RESPONSE
+	}
+	
+	private final Adapter adapter;
+	private final EndpointInvoker next;
+	
+	public ResourceInvoker(Adapter adapter, EndpointInvoker next) {
+		this.adapter = adapter;
+		this.next = next;
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		Object result = next.invoke(target, method, args);
+		if (Adapter.RESOURCE.equals(adapter)) {
+			return resource(result);
+		}
+		Mono<?> mono = result instanceof Publisher ? Mono.from((Publisher<?>) result) : Mono.justOrEmpty(result);
+		return mono.map(ResourceInvoker::resource)
+				.flatMap(resource -> ServerResponse.ok().body(BodyInserters.fromResource(resource)))
+				.switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+	}
+	
+	/**
+	 * @param value	: The result of handler
+	 * @return The {@link Resource} of value
+	 */
+	public static Resource resource(Object value) {
+		Resource resource;
+		if (value instanceof Resource) {
+			resource = (Resource) value;
+		} else if (value instanceof Path) {
+			resource = new FileSystemResource((Path) value);
+		} else if (value instanceof File) {
+			resource = new FileSystemResource((File) value);
+		} else if (value instanceof byte[]) {
+			resource = new ByteArrayResource((byte[]) value);
+		} else if (value instanceof InputStream) {
+			resource = new InputStreamResource((InputStream) value);
+		} else if (value == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		} else {
+			throw new IllegalStateException("Unsupported resource type : " + value.getClass().getName());
+		}
+		if (!(resource instanceof InputStreamResource) && !resource.exists()) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+		}
+		return resource;
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.javassist.bytecode.definition.MvcCache;
+
+/**
+ * 方法级响应缓存：按键的哈希值分段，每段为按访问顺序排列的 {@link LinkedHashMap}（LRU），条目过期后视为未命中
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ResponseCache {
+
+	private final long ttlNanos;
+	private final Segment[] segments;
+	private final int mask;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	
+	public ResponseCache(MvcCache cache) {
+		this(cache.getTtl(), cache.getMaximumSize());
+	}
+	
+	/**
+	 * @param ttl			: 缓存有效期（毫秒）
+	 * @param maximumSize	: 最大缓存条目数
+	 */
+	public ResponseCache(long ttl, int maximumSize) {
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttl);
+		// 分段数不超过 16，且每段至少 16 个条目
+		int count = 1;
+		while (count < 16 && count * 32 <= maximumSize) {
+			count <<= 1;
+		}
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			this.segments[i] = new Segment(Math.max(1, maximumSize / count));
+		}
+		this.mask = count - 1;
+	}
+	
+	/**
+	 * @param key	: The key of cache
+	 * @return 未过期的缓存值，不存在时为 null
+	 */
+	public Object get(Object key) {
+		Segment segment = segment(key);
+		CacheEntry entry;
+		synchronized (segment) {
+			entry = segment.get(key);
+			if (entry != null && entry.expireAt - System.nanoTime() <= 0) {
+				segment.remove(key);
+				entry = null;
+			}
+		}
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.value;
+	}
+	
+	public void put(Object key, Object value) {
+		Segment segment = segment(key);
+		CacheEntry entry = new CacheEntry(value, System.nanoTime() + ttlNanos);
+		synchronized (segment) {
+			segment.put(key, entry);
+		}
+	}
+	
+	public void invalidate(Object key) {
+		Segment segment = segment(key);
+		synchronized (segment) {
+			segment.remove(key);
+		}
+	}
+	
+	public void invalidateAll() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+	
+	public long size() {
+		long size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+	
+	public CacheStats stats() {
+		return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size());
+	}
+	
+	private Segment segment(Object key) {
+		int hash = key.hashCode();
+		return segments[(hash ^ (hash >>> 16)) & mask];
+	}
+	
+	private static final class CacheEntry {
+		
+		private final Object value;
+		private final long expireAt;
+		
+		private CacheEntry(Object value, long expireAt) {
+			this.value = value;
+			this.expireAt = expireAt;
+		}
+		
+	}
+	
+	@SuppressWarnings("serial")
+	private final class Segment extends LinkedHashMap<Object, CacheEntry> {
+		
+		private final int capacity;
+		
+		private Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+			if (size() > capacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+		
+	}
+	
+}
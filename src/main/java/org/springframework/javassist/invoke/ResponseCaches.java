@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * 按 @WebBound uid 管理响应缓存：生成动态类时注册，动态类重新生成或注销时通过 {@link CacheInvoker#release()} 移除，
+ * 未释放的缓存在动态类卸载后自动移除
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public final class ResponseCaches {
+
+	private static final Map<String, Set<ResponseCache>> CACHES = new HashMap<>();
+	
+	private ResponseCaches() {
+	}
+	
+	/**
+	 * 注册 uid 对应的响应缓存
+	 * @param uid 		: The uid of @WebBound
+	 * @param cache 	: The {@link ResponseCache} instance
+	 */
+	public static synchronized void register(String uid, ResponseCache cache) {
+		CACHES.computeIfAbsent(uid, key -> Collections.newSetFromMap(new WeakHashMap<>())).add(cache);
+	}
+	
+	/**
+	 * 注销 uid 对应的响应缓存，uid 不再有响应缓存时移除
+	 * @param uid 		: The uid of @WebBound
+	 * @param cache 	: The {@link ResponseCache} instance
+	 */
+	public static synchronized void unregister(String uid, ResponseCache cache) {
+		Set<ResponseCache> caches = CACHES.get(uid);
+		if (caches != null && caches.remove(cache) && caches.isEmpty()) {
+			CACHES.remove(uid);
+		}
+	}
+	
+	/**
+	 * 清空 uid 对应的全部响应缓存
+	 * @param uid 		: The uid of @WebBound
+	 */
+	public static void invalidate(String uid) {
+		for (ResponseCache cache : caches(uid)) {
+			cache.invalidateAll();
+		}
+	}
+	
+	/**
+	 * @param uid 		: The uid of @WebBound
+	 * @return uid 对应的全部响应缓存的统计之和
+	 */
+	public static CacheStats stats(String uid) {
+		CacheStats stats = new CacheStats(0, 0, 0, 0);
+		for (ResponseCache cache : caches(uid)) {
+			stats = stats.plus(cache.stats());
+		}
+		return stats;
+	}
+	
+	/**
+	 * @return 按 uid 分组的响应缓存统计
+	 */
+	public static Map<String, CacheStats> stats() {
+		List<String> uids;
+		synchronized (ResponseCaches.class) {
+			uids = new ArrayList<>(CACHES.keySet());
+		}
+		Map<String, CacheStats> stats = new HashMap<>();
+		for (String uid : uids) {
+			stats.put(uid, stats(uid));
+		}
+		return stats;
+	}
+	
+	private static synchronized List<ResponseCache> caches(String uid) {
+		Set<ResponseCache> caches = CACHES.get(uid);
+		return caches == null ? Collections.emptyList() : new ArrayList<>(caches);
+	}
+	
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+/**
+ * 流式 InvocationHandler：返回 StreamingResponseBody 的动态方法直接将响应写入输出流，不在内存中构造完整结果；
+ * 可配合 {@link org.springframework.javassist.stream.JsonArrayWriter} | {@link org.springframework.javassist.stream.CsvWriter} 分块写出
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface StreamingInvocationHandler extends InvocationHandler {
+
+	/**
+	 * @param proxy		: The generated instance
+	 * @param method	: The invoked {@link Method}
+	 * @param args		: The arguments of method
+	 * @param output	: The response body, closed by Spring MVC after return
+	 * @throws Throwable if handler throws
+	 */
+	void invokeStreaming(Object proxy, Method method, Object[] args, OutputStream output) throws Throwable;
+	
+}
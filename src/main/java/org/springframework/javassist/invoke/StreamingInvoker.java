@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.BaseStream;
+
+import org.springframework.javassist.bytecode.EndpointApi;
+import org.springframework.javassist.stream.JsonArrayWriter;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 流式调用：返回 {@link StreamingResponseBody}，在 Spring MVC 的异步线程中写出响应。
+ * <p>{@link StreamingInvocationHandler} 直接写入输出流；其他 InvocationHandler 的结果按类型写出：
+ * byte[]、CharSequence（UTF-8）、InputStream 原样复制，Iterable | Iterator | Stream | 数组按 JSON 数组分块写出，
+ * 其他结果作为单个 JSON 值写出；写出过程出错时异常中止响应，不写出数组结尾</p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StreamingInvoker implements EndpointInvoker {
+
+	private final EndpointInvoker next;
+	
+	public StreamingInvoker(EndpointInvoker next) {
+		this.next = next;
+	}
+	
+	@Override
+	public Object invoke(EndpointApi target, Method method, Object[] args) throws Throwable {
+		// 按 uid 注册的 InvocationHandler 优先
+		InvocationHandler handler = next.handler(target);
+		if (handler instanceof StreamingInvocationHandler) {
+			return (StreamingResponseBody) output -> {
+				try {
+					target.invokeHandlerStreaming((StreamingInvocationHandler) handler, method, args, output);
+				} catch (IOException | RuntimeException | Error ex) {
+					throw ex;
+				} catch (Throwable ex) {
+					throw new UndeclaredThrowableException(ex);
+				}
+			};
+		}
+		Object result = next.invoke(target, method, args);
+		if (result == null || result instanceof StreamingResponseBody) {
+			return result;
+		}
+		return (StreamingResponseBody) output -> write(result, output);
+	}
+	
+	/**
+	 * 按结果类型写出非流式 InvocationHandler 的结果
+	 * @param result	: The result of handler
+	 * @param output	: The response body
+	 * @throws IOException if an I/O error occurs
+	 */
+	@SuppressWarnings("rawtypes")
+	protected void write(Object result, OutputStream output) throws IOException {
+		if (result instanceof byte[]) {
+			output.write((byte[]) result);
+		} else if (result instanceof CharSequence) {
+			output.write(result.toString().getBytes(StandardCharsets.UTF_8));
+		} else if (result instanceof InputStream) {
+			try (InputStream input = (InputStream) result) {
+				StreamUtils.copy(input, output);
+			}
+		} else if (result instanceof Iterable || result instanceof Iterator || result instanceof BaseStream || ObjectUtils.isArray(result)) {
+			// 迭代出错时不写出数组结尾：异常中止响应，截断的输出不是合法的 JSON
+			JsonArrayWriter writer = new JsonArrayWriter(output);
+			if (result instanceof Iterable) {
+				writer.writeAll(((Iterable) result).iterator());
+			} else if (result instanceof Iterator) {
+				writer.writeAll((Iterator) result);
+			} else if (result instanceof BaseStream) {
+				try (BaseStream stream = (BaseStream) result) {
+					writer.writeAll(stream.iterator());
+				}
+			} else {
+				for (Object element : ObjectUtils.toObjectArray(result)) {
+					writer.write(element);
+				}
+			}
+			writer.close();
+		} else {
+			output.write(JsonArrayWriter.toJson(result).getBytes(StandardCharsets.UTF_8));
+		}
+		output.flush();
+	}
+
+	public EndpointInvoker getNext() {
+		return next;
+	}
+	
+}
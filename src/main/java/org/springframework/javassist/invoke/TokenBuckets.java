@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 令牌桶存储：每个令牌桶仅用一个 long 保存其理论到达时间（GCRA 算法，与令牌桶等价），
+ * 按 {@link #STRIPE_SIZE} 分段存放在 {@link AtomicLongArray} 中。
+ * <p>令牌桶的位置在生成动态类时分配并保存在调用链中，运行时仅需一次 CAS，无锁、无查找、无对象分配；
+ * 动态类不再使用时通过 {@link #release(int)}、{@link #unregister(String)} 归还，归还的位置被后续分配复用</p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public final class TokenBuckets {
+
+	static final int STRIPE_SHIFT = 10;
+	/**
+	 * 每段的令牌桶数量
+	 */
+	public static final int STRIPE_SIZE = 1 << STRIPE_SHIFT;
+	static final int STRIPE_MASK = STRIPE_SIZE - 1;
+	
+	// 时间基准：保证理论到达时间非负，初始值 0 表示令牌桶已满
+	private static final long EPOCH = System.nanoTime();
+	
+	// uid -> {令牌桶位置, 引用数}，分配与归还均在类锁内完成
+	private static final Map<String, int[]> SLOTS = new HashMap<>();
+	private static final Deque<Integer> FREE = new ArrayDeque<>();
+	private static volatile AtomicLongArray[] stripes = new AtomicLongArray[0];
+	private static int size = 0;
+	
+	private TokenBuckets() {
+	}
+	
+	/**
+	 * 获取 uid 对应的令牌桶位置并增加引用数，不存在时分配
+	 * @param uid  	: The uid of @WebBound
+	 * @return 令牌桶位置
+	 */
+	public static synchronized int register(String uid) {
+		int[] entry = SLOTS.computeIfAbsent(uid, key -> new int[] { allocate(), 0 });
+		entry[1]++;
+		return entry[0];
+	}
+	
+	/**
+	 * 减少 uid 对应令牌桶的引用数，最后一个引用释放后归还令牌桶
+	 * @param uid  	: The uid of @WebBound
+	 */
+	public static synchronized void unregister(String uid) {
+		int[] entry = SLOTS.get(uid);
+		if (entry != null && --entry[1] <= 0) {
+			SLOTS.remove(uid);
+			release(entry[0]);
+		}
+	}
+	
+	/**
+	 * 分配一个独立的令牌桶，优先复用已归还的位置
+	 * @return 令牌桶位置
+	 */
+	public static synchronized int allocate() {
+		Integer reused = FREE.poll();
+		if (reused != null) {
+			return reused;
+		}
+		int slot = size++;
+		if ((slot >>> STRIPE_SHIFT) >= stripes.length) {
+			AtomicLongArray[] grown = Arrays.copyOf(stripes, stripes.length + 1);
+			grown[stripes.length] = new AtomicLongArray(STRIPE_SIZE);
+			stripes = grown;
+		}
+		return slot;
+	}
+	
+	/**
+	 * 归还令牌桶：重置为满，位置加入空闲列表
+	 * @param slot		: 令牌桶位置
+	 */
+	public static synchronized void release(int slot) {
+		stripes[slot >>> STRIPE_SHIFT].set(slot & STRIPE_MASK, 0L);
+		FREE.push(slot);
+	}
+	
+	/**
+	 * 尝试从令牌桶获取一个令牌
+	 * @param slot		: 令牌桶位置
+	 * @param interval	: 生成一个令牌的间隔（纳秒）
+	 * @param capacity	: 令牌桶容量对应的时长（纳秒），即 interval * burst
+	 * @return 是否获取成功
+	 */
+	public static boolean tryAcquire(int slot, long interval, long capacity) {
+		AtomicLongArray stripe = stripes[slot >>> STRIPE_SHIFT];
+		int index = slot & STRIPE_MASK;
+		long now = System.nanoTime() - EPOCH;
+		for (;;) {
+			long tat = stripe.get(index);
+			long next = Math.max(tat, now) + interval;
+			if (next - now > capacity) {
+				return false;
+			}
+			if (stripe.compareAndSet(index, tat, next)) {
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * @return 使用中的令牌桶数量
+	 */
+	public static synchronized int size() {
+		return size - FREE.size();
+	}
+	
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.invoke;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 虚拟线程支持：JDK 8 下的空实现；JDK 21+ 环境下由 Multi-Release Jar 中
+ * <code>META-INF/versions/21</code> 下的同名类替换
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+final class VirtualThreads {
+
+	private VirtualThreads() {
+	}
+	
+	static boolean isSupported() {
+		return false;
+	}
+	
+	static ExecutorService newExecutor() {
+		return null;
+	}
+	
+}
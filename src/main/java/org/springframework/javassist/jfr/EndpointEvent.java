@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.jfr;
+
+/**
+ * 动态接口生成与调用过程中的事件，由 {@link EndpointEvents} 创建
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface EndpointEvent {
+
+	/**
+	 * 空事件：JDK 8 或者事件未启用时使用
+	 */
+	EndpointEvent NOOP = () -> {};
+	
+	/**
+	 * 结束并提交事件
+	 */
+	void commit();
+	
+}
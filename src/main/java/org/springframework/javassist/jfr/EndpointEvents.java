@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.jfr;
+
+import java.lang.reflect.Method;
+
+/**
+ * JDK Flight Recorder 事件入口。
+ * <p>
+ * 该实现为 JDK 8 下的空实现；在 JDK 11+ 环境下，Multi-Release Jar 中
+ * <code>META-INF/versions/11</code> 下的同名类会替换该实现，输出自定义的 JFR 事件。
+ * </p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public final class EndpointEvents {
+
+	private EndpointEvents() {
+	}
+	
+	/**
+	 * 动态类生成事件：从构建器创建开始，到 build/toClass/toInstance 结束
+	 * @param className		: The name of generated class
+	 * @return {@link EndpointEvent} instance
+	 */
+	public static EndpointEvent classGeneration(String className) {
+		return EndpointEvent.NOOP;
+	}
+	
+	/**
+	 * 动态类生成事件完成，记录  @WebBound 的 uid
+	 * @param event			: The {@link EndpointEvent} instance from {@link #classGeneration(String)}
+	 * @param uid			: The uid of class level @WebBound
+	 */
+	public static void classGenerated(EndpointEvent event, String uid) {
+		event.commit();
+	}
+	
+	/**
+	 * 方法体编译事件
+	 * @param className		: The name of generated class
+	 * @param methodName	: The name of generated method
+	 * @param uid			: The uid of method level @WebBound
+	 * @return {@link EndpointEvent} instance
+	 */
+	public static EndpointEvent methodCompilation(String className, String methodName, String uid) {
+		return EndpointEvent.NOOP;
+	}
+	
+	/**
+	 * 动态方法调用 InvocationHandler 事件
+	 * @param target		: The generated instance
+	 * @param method		: The invoked {@link Method}
+	 * @return {@link EndpointEvent} instance
+	 */
+	public static EndpointEvent handlerDispatch(Object target, Method method) {
+		return EndpointEvent.NOOP;
+	}
+	
+	/**
+	 * 动态方法异常事件，由  methodCatch 织入的异常处理逻辑调用
+	 * @param target		: The generated instance
+	 * @param methodName	: The name of generated method
+	 * @param ex			: The thrown exception
+	 */
+	public static void handlerException(Object target, String methodName, Throwable ex) {
+	}
+	
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.multipart;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 流式读取 multipart 请求体：每次调用 {@link #next()} 时才从输入流中读取下一个 Part，
+ * Part 内容超过内存阈值后通过 {@link FileChannel} 直接写入临时文件，内存占用与上传大小无关。
+ * <p>只保留临时文件的引用，内存中的 Part 返回后不再持有；Part 数量超过上限时响应 413</p>
+ * <pre>
+ * Path root = storage.toAbsolutePath().normalize();
+ * for (StreamingPart part : parts) {
+ *     if (part.getFilename() != null) {
+ *         // filename 由客户端提供：只保留文件名，并校验目标仍在存储目录下，避免 ../ 路径穿越
+ *         Path name = Paths.get(part.getFilename()).getFileName();
+ *         Path dest = name != null ? root.resolve(name).normalize() : root;
+ *         if (!dest.startsWith(root) || dest.equals(root)) {
+ *             throw new IllegalArgumentException("Invalid filename : " + part.getFilename());
+ *         }
+ *         part.transferTo(dest);
+ *     }
+ * }
+ * </pre>
+ * 只能遍历一次；{@link #close()} 删除尚未转移的临时文件
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MultipartStream implements Iterable<StreamingPart>, Iterator<StreamingPart>, Closeable {
+
+	public static final int DEFAULT_MAX_IN_MEMORY_SIZE = 256 * 1024;
+	public static final int DEFAULT_MAX_PARTS = 1000;
+	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_HEADER_SIZE = 16 * 1024;
+	
+	private final InputStream input;
+	private final byte[] delimiter;
+	private final int maxInMemorySize;
+	private final long maxPartSize;
+	private final int maxParts;
+	private final Path tempDirectory;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	// 保存在临时文件中的 Part，关闭时删除尚未转移的临时文件
+	private final List<StreamingPart> files = new ArrayList<>();
+	private int count = 0;
+	private int head = 0;
+	private int tail = 0;
+	private boolean eof = false;
+	private boolean finished = false;
+	private boolean started = false;
+	private StreamingPart next;
+	
+	/**
+	 * @param input				: The request body
+	 * @param boundary			: The boundary of Content-Type
+	 */
+	public MultipartStream(InputStream input, String boundary) {
+		this(input, boundary, DEFAULT_MAX_IN_MEMORY_SIZE, -1, null);
+	}
+	
+	/**
+	 * @param input				: The request body
+	 * @param boundary			: The boundary of Content-Type
+	 * @param maxInMemorySize	: Part 内容保存在内存中的最大字节数，超过后写入临时文件
+	 * @param maxPartSize		: 单个 Part 的最大字节数，-1 表示不限制，超过时响应 413
+	 * @param tempDirectory		: 临时文件目录，为 null 时使用 java.io.tmpdir
+	 */
+	public MultipartStream(InputStream input, String boundary, int maxInMemorySize, long maxPartSize, Path tempDirectory) {
+		this(input, boundary, maxInMemorySize, maxPartSize, DEFAULT_MAX_PARTS, tempDirectory);
+	}
+	
+	/**
+	 * @param input				: The request body
+	 * @param boundary			: The boundary of Content-Type
+	 * @param maxInMemorySize	: Part 内容保存在内存中的最大字节数，超过后写入临时文件
+	 * @param maxPartSize		: 单个 Part 的最大字节数，-1 表示不限制，超过时响应 413
+	 * @param maxParts			: Part 的最大数量，-1 表示不限制，超过时响应 413
+	 * @param tempDirectory		: 临时文件目录，为 null 时使用 java.io.tmpdir
+	 */
+	public MultipartStream(InputStream input, String boundary, int maxInMemorySize, long maxPartSize, int maxParts, Path tempDirectory) {
+		if (boundary == null || boundary.isEmpty() || boundary.length() > 70) {
+			throw new MultipartException("Invalid multipart boundary : " + boundary);
+		}
+		this.input = input;
+		this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+		this.maxInMemorySize = maxInMemorySize;
+		this.maxPartSize = maxPartSize;
+		this.maxParts = maxParts;
+		this.tempDirectory = tempDirectory;
+		// 第一个分隔符前没有 CRLF，补齐后统一按 CRLF--boundary 查找
+		this.buffer[tail++] = '\r';
+		this.buffer[tail++] = '\n';
+	}
+	
+	@Override
+	public Iterator<StreamingPart> iterator() {
+		return this;
+	}
+	
+	@Override
+	public boolean hasNext() {
+		if (next == null && !finished) {
+			try {
+				next = this.readPart();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public StreamingPart next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		StreamingPart part = next;
+		next = null;
+		return part;
+	}
+	
+	/**
+	 * @return 已经读取的 Part 数量
+	 */
+	public int getCount() {
+		return count;
+	}
+	
+	/**
+	 * 删除尚未转移的临时文件
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		finished = true;
+		IOException failure = null;
+		for (StreamingPart part : files) {
+			try {
+				part.delete();
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+		files.clear();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+	
+	protected StreamingPart readPart() throws IOException {
+		// 跳过第一个分隔符之前的内容
+		if (!started) {
+			started = true;
+			this.readContent(null);
+		}
+		if (this.afterDelimiter()) {
+			finished = true;
+			return null;
+		}
+		if (maxParts >= 0 && count >= maxParts) {
+			throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Multipart request exceeds " + maxParts + " parts");
+		}
+		HttpHeaders headers = this.readHeaders();
+		ContentDisposition disposition = ContentDisposition.parse(headers.getFirst(HttpHeaders.CONTENT_DISPOSITION) != null
+				? headers.getFirst(HttpHeaders.CONTENT_DISPOSITION) : "form-data");
+		PartSink sink = new PartSink();
+		try {
+			this.readContent(sink);
+		} catch (IOException | RuntimeException e) {
+			sink.discard();
+			throw e;
+		}
+		StreamingPart part = sink.toPart(disposition.getName(), disposition.getFilename(), headers);
+		count++;
+		if (part.getFile() != null) {
+			this.track(part);
+		}
+		return part;
+	}
+	
+	private synchronized void track(StreamingPart part) throws IOException {
+		// 已经关闭（如请求已结束）时不再保留临时文件
+		if (finished) {
+			part.delete();
+			throw new MultipartException("Multipart stream closed");
+		}
+		// 已经转移或删除的 Part 不再保留
+		files.removeIf(file -> file.getFile() == null);
+		files.add(part);
+	}
+	
+	/**
+	 * 读取分隔符之后的内容：-- 表示结束，否则跳过到行尾
+	 * @return 是否为结束分隔符
+	 */
+	private boolean afterDelimiter() throws IOException {
+		this.ensure(2);
+		if (tail - head >= 2 && buffer[head] == '-' && buffer[head + 1] == '-') {
+			return true;
+		}
+		this.readLine();
+		return false;
+	}
+	
+	private HttpHeaders readHeaders() throws IOException {
+		HttpHeaders headers = new HttpHeaders();
+		int total = 0;
+		for (String line = this.readLine(); !line.isEmpty(); line = this.readLine()) {
+			total += line.length();
+			if (total > MAX_HEADER_SIZE) {
+				throw new MultipartException("Multipart headers exceed " + MAX_HEADER_SIZE + " bytes");
+			}
+			int index = line.indexOf(':');
+			if (index > 0) {
+				headers.add(line.substring(0, index).trim(), line.substring(index + 1).trim());
+			}
+		}
+		return headers;
+	}
+	
+	private String readLine() throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+		while (true) {
+			for (int i = head; i < tail - 1; i++) {
+				if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+					line.write(buffer, head, i - head);
+					head = i + 2;
+					return new String(line.toByteArray(), StandardCharsets.UTF_8);
+				}
+			}
+			int safe = Math.max(head, tail - 1);
+			line.write(buffer, head, safe - head);
+			head = safe;
+			if (line.size() > MAX_HEADER_SIZE) {
+				throw new MultipartException("Multipart header line exceeds " + MAX_HEADER_SIZE + " bytes");
+			}
+			if (eof) {
+				throw new MultipartException("Unexpected end of multipart stream");
+			}
+			this.fill();
+		}
+	}
+	
+	/**
+	 * 读取内容直到下一个分隔符
+	 * @param sink	: The target, null to skip
+	 */
+	private void readContent(PartSink sink) throws IOException {
+		while (true) {
+			int index = this.indexOfDelimiter();
+			if (index >= 0) {
+				if (sink != null) {
+					sink.write(buffer, head, index - head);
+				}
+				head = index + delimiter.length;
+				return;
+			}
+			// 保留可能是分隔符前缀的内容
+			int safe = Math.max(head, tail - delimiter.length + 1);
+			if (sink != null) {
+				sink.write(buffer, head, safe - head);
+			}
+			head = safe;
+			if (eof) {
+				throw new MultipartException("Unexpected end of multipart stream");
+			}
+			this.fill();
+		}
+	}
+	
+	private int indexOfDelimiter() {
+		int last = tail - delimiter.length;
+		for (int i = head; i <= last; i++) {
+			if (buffer[i] != delimiter[0]) {
+				continue;
+			}
+			int j = 1;
+			while (j < delimiter.length && buffer[i + j] == delimiter[j]) {
+				j++;
+			}
+			if (j == delimiter.length) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	private void ensure(int length) throws IOException {
+		while (tail - head < length && !eof) {
+			this.fill();
+		}
+	}
+	
+	private void fill() throws IOException {
+		if (head > 0) {
+			System.arraycopy(buffer, head, buffer, 0, tail - head);
+			tail -= head;
+			head = 0;
+		}
+		int read = input.read(buffer, tail, buffer.length - tail);
+		if (read < 0) {
+			eof = true;
+		} else {
+			tail += read;
+		}
+	}
+	
+	/**
+	 * Part 内容：不超过内存阈值时写入内存，超过后将已有内容及后续内容写入临时文件
+	 */
+	private class PartSink {
+		
+		private ByteArrayOutputStream memory = new ByteArrayOutputStream(Math.min(maxInMemorySize, 8192));
+		private FileChannel channel;
+		private Path file;
+		private long size = 0;
+		
+		void write(byte[] bytes, int offset, int length) throws IOException {
+			if (length <= 0) {
+				return;
+			}
+			size += length;
+			if (maxPartSize >= 0 && size > maxPartSize) {
+				throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Multipart part exceeds " + maxPartSize + " bytes");
+			}
+			if (channel == null && memory.size() + length <= maxInMemorySize) {
+				memory.write(bytes, offset, length);
+				return;
+			}
+			if (channel == null) {
+				file = tempDirectory != null ? Files.createTempFile(tempDirectory, "multipart-", ".tmp")
+						: Files.createTempFile("multipart-", ".tmp");
+				channel = FileChannel.open(file, StandardOpenOption.WRITE);
+				this.writeFully(ByteBuffer.wrap(memory.toByteArray()));
+				memory = null;
+			}
+			this.writeFully(ByteBuffer.wrap(bytes, offset, length));
+		}
+		
+		private void writeFully(ByteBuffer source) throws IOException {
+			while (source.hasRemaining()) {
+				channel.write(source);
+			}
+		}
+		
+		StreamingPart toPart(String name, String filename, HttpHeaders headers) throws IOException {
+			if (channel != null) {
+				channel.close();
+				return new StreamingPart(name, filename, headers, size, null, file);
+			}
+			return new StreamingPart(name, filename, headers, size, memory.toByteArray(), null);
+		}
+		
+		void discard() throws IOException {
+			if (channel != null) {
+				channel.close();
+				Files.deleteIfExists(file);
+			}
+		}
+		
+	}
+	
+}
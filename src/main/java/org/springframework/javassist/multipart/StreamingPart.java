@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.multipart;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * {@link MultipartStream} 读取的单个 Part：内容不超过内存阈值时保存在内存中，否则保存在临时文件中。
+ * <p>临时文件在请求结束（{@link MultipartStream#close()}）时删除，需要保留时调用 {@link #transferTo(Path)}</p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StreamingPart {
+
+	private final String name;
+	private final String filename;
+	private final HttpHeaders headers;
+	private final long size;
+	private final byte[] content;
+	private Path file;
+	
+	StreamingPart(String name, String filename, HttpHeaders headers, long size, byte[] content, Path file) {
+		this.name = name;
+		this.filename = filename;
+		this.headers = headers;
+		this.size = size;
+		this.content = content;
+		this.file = file;
+	}
+
+	/**
+	 * @return Content-Disposition 中的 name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return Content-Disposition 中的 filename，非文件 Part 为 null
+	 */
+	public String getFilename() {
+		return filename;
+	}
+	
+	/**
+	 * @return Content-Type，未指定时为 null
+	 */
+	public String getContentType() {
+		return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+	}
+
+	public HttpHeaders getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @return 内容字节数
+	 */
+	public long getSize() {
+		return size;
+	}
+	
+	/**
+	 * @return 内容是否保存在内存中
+	 */
+	public boolean isInMemory() {
+		return content != null;
+	}
+	
+	/**
+	 * @return 保存内容的临时文件，内容在内存中或已经转移时为 null
+	 */
+	public Path getFile() {
+		return file;
+	}
+	
+	/**
+	 * @return 内容的输入流
+	 * @throws IOException if an I/O error occurs
+	 */
+	public InputStream getInputStream() throws IOException {
+		if (content != null) {
+			return new ByteArrayInputStream(content);
+		}
+		if (file == null) {
+			throw new IllegalStateException("Part '" + name + "' has already been moved");
+		}
+		return Files.newInputStream(file);
+	}
+	
+	/**
+	 * 将内容保存到指定文件：临时文件直接移动，不再复制内容
+	 * @param dest	: The target file
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void transferTo(Path dest) throws IOException {
+		if (content != null) {
+			Files.write(dest, content);
+			return;
+		}
+		if (file == null) {
+			throw new IllegalStateException("Part '" + name + "' has already been moved");
+		}
+		Files.move(file, dest, StandardCopyOption.REPLACE_EXISTING);
+		file = null;
+	}
+	
+	/**
+	 * 删除临时文件
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void delete() throws IOException {
+		if (file != null) {
+			Files.deleteIfExists(file);
+			file = null;
+		}
+	}
+	
+}
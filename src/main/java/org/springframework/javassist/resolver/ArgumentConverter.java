@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.resolver;
+
+/**
+ * 将请求中的字符串值直接转换为参数类型
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@FunctionalInterface
+public interface ArgumentConverter {
+
+	/**
+	 * @param value 请求中的字符串值
+	 * @return 参数值
+	 * @throws Exception if value can't be converted
+	 */
+	Object convert(String value) throws Exception;
+	
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.resolver;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.UUID;
+
+/**
+ * 常用参数类型的 {@link ArgumentConverter}
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public final class ArgumentConverters {
+
+	private ArgumentConverters() {
+	}
+	
+	/**
+	 * @param type 参数类型
+	 * @return 参数类型对应的 {@link ArgumentConverter}，不支持的类型返回 null
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static ArgumentConverter of(Class<?> type) {
+		if (String.class.equals(type) || Object.class.equals(type)) {
+			return value -> value;
+		}
+		if (Integer.class.equals(type) || int.class.equals(type)) {
+			return value -> Integer.valueOf(value.trim());
+		}
+		if (Long.class.equals(type) || long.class.equals(type)) {
+			return value -> Long.valueOf(value.trim());
+		}
+		if (Double.class.equals(type) || double.class.equals(type)) {
+			return value -> Double.valueOf(value.trim());
+		}
+		if (Float.class.equals(type) || float.class.equals(type)) {
+			return value -> Float.valueOf(value.trim());
+		}
+		if (Short.class.equals(type) || short.class.equals(type)) {
+			return value -> Short.valueOf(value.trim());
+		}
+		if (Byte.class.equals(type) || byte.class.equals(type)) {
+			return value -> Byte.valueOf(value.trim());
+		}
+		if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+			return ArgumentConverters::toBoolean;
+		}
+		if (Character.class.equals(type) || char.class.equals(type)) {
+			return value -> {
+				if (value.length() != 1) {
+					throw new IllegalArgumentException("Can only convert a [String] with length of 1 to a [Character]");
+				}
+				return value.charAt(0);
+			};
+		}
+		if (BigDecimal.class.equals(type)) {
+			return value -> new BigDecimal(value.trim());
+		}
+		if (BigInteger.class.equals(type)) {
+			return value -> new BigInteger(value.trim());
+		}
+		if (UUID.class.equals(type)) {
+			return value -> UUID.fromString(value.trim());
+		}
+		if (type.isEnum()) {
+			Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+			return value -> Enum.valueOf(enumType, value.trim());
+		}
+		return null;
+	}
+	
+	/**
+	 * 与 Spring StringToBooleanConverter 一致：true/on/yes/1 、false/off/no/0
+	 */
+	private static Boolean toBoolean(String value) {
+		String text = value.trim().toLowerCase();
+		switch (text) {
+			case "true":
+			case "on":
+			case "yes":
+			case "1":
+				return Boolean.TRUE;
+			case "false":
+			case "off":
+			case "no":
+			case "0":
+				return Boolean.FALSE;
+			default:
+				throw new IllegalArgumentException("Invalid boolean value '" + value + "'");
+		}
+	}
+	
+}
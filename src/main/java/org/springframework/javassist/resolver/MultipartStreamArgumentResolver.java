@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.resolver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.javassist.annotation.PartStream;
+import org.springframework.javassist.multipart.MultipartStream;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.multipart.MultipartException;
+
+/**
+ * 解析 {@link PartStream} 注解的 {@link MultipartStream} 参数：直接读取请求体，Part 在 InvocationHandler 遍历时才被读取，
+ * 超过内存阈值的内容写入临时文件，临时文件在请求结束时删除；异步请求（CompletableFuture | StreamingResponseBody 等）在异步处理完成时删除。
+ * <p>需要通过 WebMvcConfigurer#addArgumentResolvers 注册；请求体只能读取一次，
+ * MultipartResolver 需要设置 resolveLazily 或者不对这些请求启用</p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MultipartStreamArgumentResolver implements HandlerMethodArgumentResolver {
+
+	private int maxInMemorySize = MultipartStream.DEFAULT_MAX_IN_MEMORY_SIZE;
+	private long maxPartSize = -1;
+	private int maxParts = MultipartStream.DEFAULT_MAX_PARTS;
+	private Path tempDirectory;
+	
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return parameter.hasParameterAnnotation(PartStream.class);
+	}
+
+	@Override
+	public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+		
+		HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+		if (request == null || !StringUtils.startsWithIgnoreCase(request.getContentType(), "multipart/")) {
+			throw new MultipartException("Current request is not a multipart request");
+		}
+		String boundary = MediaType.parseMediaType(request.getContentType()).getParameter("boundary");
+		if (boundary != null && boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+			boundary = boundary.substring(1, boundary.length() - 1);
+		}
+		MultipartStream parts = new MultipartStream(request.getInputStream(), boundary, maxInMemorySize, maxPartSize, maxParts, tempDirectory);
+		// 请求结束时删除临时文件：首次分派结束时异步处理可能仍在读取，此时改为在异步处理完成时删除
+		webRequest.registerDestructionCallback(MultipartStream.class.getName() + "." + parameter.getParameterIndex(), () -> {
+			if (request.isAsyncStarted()) {
+				request.getAsyncContext().addListener(new CloseListener(parts));
+			} else {
+				close(parts);
+			}
+		}, RequestAttributes.SCOPE_REQUEST);
+		return parts;
+	}
+	
+	private static void close(MultipartStream parts) {
+		try {
+			parts.close();
+		} catch (IOException e) {
+			// 临时文件无法删除时由操作系统清理
+		}
+	}
+
+	/**
+	 * @param maxInMemorySize Part 内容保存在内存中的最大字节数，超过后写入临时文件
+	 */
+	public void setMaxInMemorySize(int maxInMemorySize) {
+		this.maxInMemorySize = maxInMemorySize;
+	}
+
+	/**
+	 * @param maxPartSize 单个 Part 的最大字节数，-1 表示不限制，超过时响应 413
+	 */
+	public void setMaxPartSize(long maxPartSize) {
+		this.maxPartSize = maxPartSize;
+	}
+
+	/**
+	 * @param maxParts Part 的最大数量，-1 表示不限制，超过时响应 413
+	 */
+	public void setMaxParts(int maxParts) {
+		this.maxParts = maxParts;
+	}
+
+	/**
+	 * @param tempDirectory 临时文件目录，为 null 时使用 java.io.tmpdir
+	 */
+	public void setTempDirectory(Path tempDirectory) {
+		this.tempDirectory = tempDirectory;
+	}
+	
+	/**
+	 * 异步处理完成（包括超时及出错）时删除临时文件
+	 */
+	private static final class CloseListener implements AsyncListener {
+		
+		private final MultipartStream parts;
+		
+		private CloseListener(MultipartStream parts) {
+			this.parts = parts;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) throws IOException {
+			close(parts);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) throws IOException {
+			// 超时后仍会触发 onComplete
+		}
+
+		@Override
+		public void onError(AsyncEvent event) throws IOException {
+			// 出错后仍会触发 onComplete
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) throws IOException {
+			// 再次开始异步处理时监听器被清除，需要重新注册
+			event.getAsyncContext().addListener(this);
+		}
+		
+	}
+	
+}
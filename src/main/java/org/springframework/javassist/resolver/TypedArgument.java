@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.resolver;
+
+import java.util.Map;
+
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcParamFrom;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 单个参数的解析规则：参数来源、类型转换及预先转换的默认值
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TypedArgument {
+
+	private final String name;
+	private final MvcParamFrom from;
+	private final Class<?> type;
+	private final boolean required;
+	private final ArgumentConverter converter;
+	private final Object defaultValue;
+	
+	private TypedArgument(MvcParam<?> param, ArgumentConverter converter) throws Exception {
+		this.name = param.getName();
+		this.from = param.getFrom();
+		this.type = param.getType();
+		this.required = param.isRequired();
+		this.converter = converter;
+		this.defaultValue = StringUtils.hasText(param.getDef()) ? converter.convert(StringUtils.trimWhitespace(param.getDef())) : null;
+	}
+	
+	/**
+	 * @param param 参数定义
+	 * @return 参数的解析规则，不支持的参数来源或类型返回 null
+	 */
+	public static TypedArgument of(MvcParam<?> param) {
+		if (!isSupported(param.getFrom())) {
+			return null;
+		}
+		ArgumentConverter converter = ArgumentConverters.of(param.getType());
+		if (converter == null) {
+			return null;
+		}
+		try {
+			return new TypedArgument(param, converter);
+		} catch (Exception e) {
+			// 默认值无法转换时使用 Spring 的参数解析
+			return null;
+		}
+	}
+	
+	public static boolean isSupported(MvcParamFrom from) {
+		return MvcParamFrom.PARAM.equals(from) || MvcParamFrom.HEADER.equals(from) || MvcParamFrom.PATH.equals(from);
+	}
+	
+	/**
+	 * @param request 当前请求
+	 * @return 参数在请求中的字符串值
+	 */
+	@SuppressWarnings("unchecked")
+	public String value(NativeWebRequest request) {
+		switch (from) {
+			case HEADER:
+				return request.getHeader(name);
+			case PATH:
+				Map<String, String> variables = (Map<String, String>) request.getAttribute(
+						HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+				return variables != null ? variables.get(name) : null;
+			default:
+				return request.getParameter(name);
+		}
+	}
+	
+	public Object convert(String value) throws Exception {
+		return converter.convert(value);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public MvcParamFrom getFrom() {
+		return from;
+	}
+
+	public Class<?> getType() {
+		return type;
+	}
+
+	public boolean isRequired() {
+		return required;
+	}
+
+	public Object getDefaultValue() {
+		return defaultValue;
+	}
+	
+}
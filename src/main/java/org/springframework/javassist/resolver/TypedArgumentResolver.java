@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.resolver;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.javassist.annotation.TypedParam;
+import org.springframework.web.bind.MissingPathVariableException;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.ServletRequestBindingException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * 解析 {@link TypedParam} 注解的参数：直接按动态类静态字段中的 {@link TypedArguments} 读取并转换参数值，
+ * 不经过 WebDataBinder 及 ConversionService。
+ * <p>需要通过 WebMvcConfigurer#addArgumentResolvers 注册；读取的 {@link TypedArguments} 按动态类缓存在 {@link ClassValue} 中，
+ * 不阻止重新生成后的旧动态类及其 ClassLoader 被回收</p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TypedArgumentResolver implements HandlerMethodArgumentResolver {
+
+	// 动态类 -> 静态字段名称 -> TypedArguments
+	private final ClassValue<Map<String, TypedArguments>> cache = new ClassValue<Map<String, TypedArguments>>() {
+		
+		@Override
+		protected Map<String, TypedArguments> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+		
+	};
+	
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return parameter.hasParameterAnnotation(TypedParam.class);
+	}
+
+	@Override
+	public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+		
+		TypedArgument argument = this.arguments(parameter).get(parameter.getParameterIndex());
+		String value = argument.value(webRequest);
+		if (value == null || value.isEmpty()) {
+			if (argument.getDefaultValue() != null) {
+				return argument.getDefaultValue();
+			}
+			if (argument.isRequired() || argument.getType().isPrimitive()) {
+				throw this.missing(argument, parameter);
+			}
+			return null;
+		}
+		try {
+			return argument.convert(value);
+		} catch (Exception ex) {
+			throw new MethodArgumentTypeMismatchException(value, argument.getType(), argument.getName(), parameter, ex);
+		}
+	}
+	
+	/**
+	 * 缺少参数值时抛出与 Spring 参数解析相同的异常
+	 */
+	protected ServletRequestBindingException missing(TypedArgument argument, MethodParameter parameter) {
+		switch (argument.getFrom()) {
+			case PATH:
+				return new MissingPathVariableException(argument.getName(), parameter);
+			case HEADER:
+				return new MissingRequestHeaderException(argument.getName(), parameter);
+			default:
+				return new MissingServletRequestParameterException(argument.getName(), argument.getType().getSimpleName());
+		}
+	}
+	
+	protected TypedArguments arguments(MethodParameter parameter) {
+		TypedParam typed = parameter.getParameterAnnotation(TypedParam.class);
+		Class<?> type = parameter.getContainingClass();
+		return cache.get(type).computeIfAbsent(typed.field(), field -> {
+			try {
+				return (TypedArguments) type.getField(field).get(null);
+			} catch (ReflectiveOperationException ex) {
+				throw new IllegalStateException("TypedArguments field '" + field + "' not found", ex);
+			}
+		});
+	}
+
+}
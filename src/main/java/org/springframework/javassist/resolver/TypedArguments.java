@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.resolver;
+
+import org.springframework.javassist.bytecode.definition.MvcParam;
+
+/**
+ * 方法参数的解析规则，按参数顺序排列；不支持直接解析的参数为 null，仍由 Spring 解析
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TypedArguments {
+
+	private final TypedArgument[] arguments;
+	
+	private TypedArguments(TypedArgument[] arguments) {
+		this.arguments = arguments;
+	}
+	
+	/**
+	 * @param params 方法参数定义
+	 * @return 方法参数的解析规则，全部参数均不支持时返回 null
+	 */
+	public static TypedArguments of(MvcParam<?>... params) {
+		if (params == null || params.length == 0) {
+			return null;
+		}
+		TypedArgument[] arguments = new TypedArgument[params.length];
+		boolean supported = false;
+		for (int i = 0; i < params.length; i++) {
+			arguments[i] = TypedArgument.of(params[i]);
+			supported |= arguments[i] != null;
+		}
+		return supported ? new TypedArguments(arguments) : null;
+	}
+	
+	/**
+	 * @param index 参数位置
+	 * @return 参数的解析规则，不支持直接解析时为 null
+	 */
+	public TypedArgument get(int index) {
+		return index < arguments.length ? arguments[index] : null;
+	}
+	
+	public int size() {
+		return arguments.length;
+	}
+	
+}
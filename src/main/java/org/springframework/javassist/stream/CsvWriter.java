@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.stream;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * 分块写出 CSV（RFC 4180）：包含分隔符、引号或换行的值使用双引号包裹，每写出 flushSize 行刷新一次输出流。
+ * <p>{@link #close()} 只刷新，不关闭底层输出流</p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+	public static final int DEFAULT_FLUSH_SIZE = 100;
+	
+	private final Writer writer;
+	private final char delimiter;
+	private final int flushSize;
+	private long count = 0;
+	
+	/**
+	 * @param output	: The target stream
+	 * @param header	: 表头，为空时不写出
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CsvWriter(OutputStream output, String... header) throws IOException {
+		this(output, ',', DEFAULT_FLUSH_SIZE, header);
+	}
+	
+	/**
+	 * @param output	: The target stream
+	 * @param delimiter	: 分隔符
+	 * @param flushSize	: 每写出多少行刷新一次，小于 1 时只在关闭时刷新
+	 * @param header	: 表头，为空时不写出
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CsvWriter(OutputStream output, char delimiter, int flushSize, String... header) throws IOException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		this.delimiter = delimiter;
+		this.flushSize = flushSize;
+		if (header != null && header.length > 0) {
+			this.row(header);
+		}
+	}
+	
+	/**
+	 * 写出一行
+	 * @param values	: The values of row, null 写出为空值
+	 * @return this writer
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CsvWriter writeRow(Object... values) throws IOException {
+		this.row(values);
+		return this.written();
+	}
+	
+	/**
+	 * 写出一行
+	 * @param values	: The values of row, null 写出为空值
+	 * @return this writer
+	 * @throws IOException if an I/O error occurs
+	 */
+	public CsvWriter writeRow(Iterable<?> values) throws IOException {
+		Iterator<?> iterator = values.iterator();
+		for (boolean first = true; iterator.hasNext(); first = false) {
+			if (!first) {
+				writer.write(delimiter);
+			}
+			this.value(iterator.next());
+		}
+		writer.write("\r\n");
+		return this.written();
+	}
+	
+	/**
+	 * @return 已写出的行数，不包含表头
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		writer.flush();
+	}
+	
+	private void row(Object[] values) throws IOException {
+		for (int i = 0; values != null && i < values.length; i++) {
+			if (i > 0) {
+				writer.write(delimiter);
+			}
+			this.value(values[i]);
+		}
+		writer.write("\r\n");
+	}
+	
+	private void value(Object value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		String text = value.toString();
+		boolean quote = false;
+		for (int i = 0; i < text.length() && !quote; i++) {
+			char c = text.charAt(i);
+			quote = c == delimiter || c == '"' || c == '\r' || c == '\n';
+		}
+		if (!quote) {
+			writer.write(text);
+			return;
+		}
+		writer.write('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '"') {
+				writer.write('"');
+			}
+			writer.write(c);
+		}
+		writer.write('"');
+	}
+	
+	private CsvWriter written() throws IOException {
+		count++;
+		if (flushSize > 0 && count % flushSize == 0) {
+			writer.flush();
+		}
+		return this;
+	}
+	
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.stream;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * 分块写出 JSON 数组：每写出 flushSize 个元素刷新一次输出流，内存占用与元素总数无关。
+ * <p>{@link #close()} 写出数组结尾并刷新，不关闭底层输出流；出错时不要调用 close()，以免截断的数组成为合法的 JSON</p>
+ * <pre>
+ * JsonArrayWriter writer = new JsonArrayWriter(output);
+ * while (rows.next()) {
+ *     writer.write(row(rows));
+ * }
+ * writer.close();
+ * </pre>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class JsonArrayWriter implements Closeable, Flushable {
+
+	public static final int DEFAULT_FLUSH_SIZE = 100;
+	
+	private final Writer writer;
+	private final JsonEncoder encoder;
+	private final int flushSize;
+	private long count = 0;
+	private boolean closed = false;
+	
+	public JsonArrayWriter(OutputStream output) {
+		this(output, SimpleJsonEncoder.INSTANCE, DEFAULT_FLUSH_SIZE);
+	}
+	
+	public JsonArrayWriter(OutputStream output, JsonEncoder encoder) {
+		this(output, encoder, DEFAULT_FLUSH_SIZE);
+	}
+	
+	/**
+	 * @param output	: The target stream
+	 * @param encoder	: The element encoder
+	 * @param flushSize	: 每写出多少个元素刷新一次，小于 1 时只在关闭时刷新
+	 */
+	public JsonArrayWriter(OutputStream output, JsonEncoder encoder, int flushSize) {
+		this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		this.encoder = encoder;
+		this.flushSize = flushSize;
+	}
+	
+	/**
+	 * 写出一个元素
+	 * @param element	: The element
+	 * @return this writer
+	 * @throws IOException if an I/O error occurs
+	 */
+	public JsonArrayWriter write(Object element) throws IOException {
+		this.separator();
+		encoder.encode(element, writer);
+		return this.written();
+	}
+	
+	/**
+	 * 写出一个已经编码的 JSON 元素
+	 * @param json	: The encoded element
+	 * @return this writer
+	 * @throws IOException if an I/O error occurs
+	 */
+	public JsonArrayWriter writeRaw(CharSequence json) throws IOException {
+		this.separator();
+		writer.append(json);
+		return this.written();
+	}
+	
+	/**
+	 * 依次写出迭代器的所有元素
+	 * @param elements	: The elements
+	 * @return this writer
+	 * @throws IOException if an I/O error occurs
+	 */
+	public JsonArrayWriter writeAll(Iterator<?> elements) throws IOException {
+		while (elements.hasNext()) {
+			this.write(elements.next());
+		}
+		return this;
+	}
+	
+	/**
+	 * @return 已写出的元素个数
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		writer.write(count == 0 ? "[]" : "]");
+		writer.flush();
+	}
+	
+	/**
+	 * 使用 {@link SimpleJsonEncoder} 编码单个值
+	 * @param value	: The value to encode
+	 * @return JSON
+	 */
+	public static String toJson(Object value) {
+		StringBuilder builder = new StringBuilder();
+		try {
+			SimpleJsonEncoder.INSTANCE.encode(value, builder);
+		} catch (IOException e) {
+			// StringBuilder 不会抛出 IOException
+			throw new IllegalStateException(e);
+		}
+		return builder.toString();
+	}
+	
+	private void separator() throws IOException {
+		if (closed) {
+			throw new IOException("JsonArrayWriter closed");
+		}
+		writer.write(count == 0 ? '[' : ',');
+	}
+	
+	private JsonArrayWriter written() throws IOException {
+		count++;
+		if (flushSize > 0 && count % flushSize == 0) {
+			writer.flush();
+		}
+		return this;
+	}
+	
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.stream;
+
+import java.io.IOException;
+
+/**
+ * 将单个元素编码为 JSON，可使用 Jackson 等实现替换 {@link SimpleJsonEncoder}
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@FunctionalInterface
+public interface JsonEncoder {
+
+	/**
+	 * @param value	: The value to encode
+	 * @param out	: The target
+	 * @throws IOException if an I/O error occurs
+	 */
+	void encode(Object value, Appendable out) throws IOException;
+	
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.stream;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * 不依赖 JSON 类库的编码：支持 null、Boolean、Number、CharSequence、Character、Enum、Map、Iterable、Iterator 及数组；
+ * UUID、URI、URL、Locale、Class、java.time 类型编码为字符串，Date 编码为毫秒时间戳；
+ * 其他对象按可读的 JavaBean 属性编码为 JSON 对象，没有可读属性时抛出 {@link IllegalArgumentException}；
+ * 存在循环引用或嵌套超过 {@link #MAX_DEPTH} 层时同样抛出 {@link IllegalArgumentException}，而不是栈溢出
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SimpleJsonEncoder implements JsonEncoder {
+
+	public static final SimpleJsonEncoder INSTANCE = new SimpleJsonEncoder();
+	
+	/**
+	 * Map、集合、数组及 JavaBean 的最大嵌套层数
+	 */
+	public static final int MAX_DEPTH = 256;
+	
+	@Override
+	public void encode(Object value, Appendable out) throws IOException {
+		encode(value, out, Collections.newSetFromMap(new IdentityHashMap<>()));
+	}
+	
+	/**
+	 * 编码单个值
+	 * @param value		: The value to encode
+	 * @param out		: The output
+	 * @param path		: 当前正在编码的 Map、集合、数组及 JavaBean，用于检测循环引用
+	 * @throws IOException if output failed
+	 */
+	@SuppressWarnings("rawtypes")
+	protected void encode(Object value, Appendable out, Set<Object> path) throws IOException {
+		if (value == null) {
+			out.append("null");
+		} else if (value instanceof Boolean) {
+			out.append(value.toString());
+		} else if (value instanceof Number) {
+			// NaN | Infinity 不是合法的 JSON 数值
+			if ((value instanceof Double && !Double.isFinite((Double) value)) || (value instanceof Float && !Float.isFinite((Float) value))) {
+				out.append("null");
+			} else {
+				out.append(value.toString());
+			}
+		} else if (value instanceof Map) {
+			enter(value, path);
+			out.append('{');
+			boolean first = true;
+			for (Object entry : ((Map) value).entrySet()) {
+				if (!first) {
+					out.append(',');
+				}
+				first = false;
+				string(String.valueOf(((Map.Entry) entry).getKey()), out);
+				out.append(':');
+				encode(((Map.Entry) entry).getValue(), out, path);
+			}
+			out.append('}');
+			path.remove(value);
+		} else if (value instanceof Iterable || value instanceof Iterator || ObjectUtils.isArray(value)) {
+			Iterator<?> iterator = value instanceof Iterable ? ((Iterable<?>) value).iterator()
+					: value instanceof Iterator ? (Iterator<?>) value : Arrays.asList(ObjectUtils.toObjectArray(value)).iterator();
+			enter(value, path);
+			out.append('[');
+			for (boolean first = true; iterator.hasNext(); first = false) {
+				if (!first) {
+					out.append(',');
+				}
+				encode(iterator.next(), out, path);
+			}
+			out.append(']');
+			path.remove(value);
+		} else if (value instanceof Enum) {
+			string(((Enum) value).name(), out);
+		} else if (value instanceof Date) {
+			out.append(String.valueOf(((Date) value).getTime()));
+		} else if (value instanceof Class) {
+			string(((Class<?>) value).getName(), out);
+		} else if (value instanceof CharSequence || value instanceof Character || value instanceof UUID || value instanceof URI
+				|| value instanceof URL || value instanceof Locale || value instanceof TemporalAccessor || value instanceof ZoneId) {
+			string(value.toString(), out);
+		} else {
+			enter(value, path);
+			bean(value, out, path);
+			path.remove(value);
+		}
+	}
+	
+	/**
+	 * 进入 Map、集合、数组及 JavaBean 前检查循环引用及嵌套层数
+	 */
+	protected void enter(Object value, Set<Object> path) {
+		if (path.size() >= MAX_DEPTH) {
+			throw new IllegalArgumentException("Cannot encode " + value.getClass().getName() + " as JSON : nesting deeper than " + MAX_DEPTH);
+		}
+		if (!path.add(value)) {
+			throw new IllegalArgumentException("Cannot encode " + value.getClass().getName() + " as JSON : circular reference");
+		}
+	}
+	
+	/**
+	 * 按可读的 JavaBean 属性写出 JSON 对象
+	 */
+	protected void bean(Object value, Appendable out, Set<Object> path) throws IOException {
+		boolean first = true;
+		for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(value.getClass())) {
+			Method getter = descriptor.getReadMethod();
+			if (getter == null || getter.getDeclaringClass() == Object.class) {
+				continue;
+			}
+			Object property;
+			try {
+				property = getter.invoke(value);
+			} catch (InvocationTargetException ex) {
+				throw new IllegalArgumentException("Cannot read property '" + descriptor.getName() + "' of " + value.getClass().getName(), ex.getCause());
+			} catch (IllegalAccessException ex) {
+				throw new IllegalArgumentException("Cannot read property '" + descriptor.getName() + "' of " + value.getClass().getName(), ex);
+			}
+			out.append(first ? '{' : ',');
+			first = false;
+			string(descriptor.getName(), out);
+			out.append(':');
+			encode(property, out, path);
+		}
+		if (first) {
+			throw new IllegalArgumentException("Cannot encode " + value.getClass().getName() + " as JSON : no readable properties");
+		}
+		out.append('}');
+	}
+	
+	/**
+	 * 写出转义后的 JSON 字符串
+	 */
+	protected void string(String value, Appendable out) throws IOException {
+		out.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					out.append("\\\"");
+					break;
+				case '\\':
+					out.append("\\\\");
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				case '\r':
+					out.append("\\r");
+					break;
+				case '\t':
+					out.append("\\t");
+					break;
+				case '\b':
+					out.append("\\b");
+					break;
+				case '\f':
+					out.append("\\f");
+					break;
+				default:
+					if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+						out.append(String.format("\\u%04x", (int) c));
+					} else {
+						out.append(c);
+					}
+			}
+		}
+		out.append('"');
+	}
+	
+}
@@ -15,7 +15,11 @@
  */
 package org.springframework.javassist.utils;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowire;
@@ -25,12 +29,21 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Scope;
 import org.springframework.context.annotation.ScopedProxyMode;
 import org.springframework.javassist.annotation.ParamName;
+import org.springframework.javassist.annotation.PartStream;
+import org.springframework.javassist.annotation.TypedParam;
 import org.springframework.javassist.annotation.WebBound;
 import org.springframework.javassist.bytecode.definition.MvcBound;
 import org.springframework.javassist.bytecode.definition.MvcMapping;
 import org.springframework.javassist.bytecode.definition.MvcMethod;
 import org.springframework.javassist.bytecode.definition.MvcParam;
 import org.springframework.javassist.bytecode.definition.MvcParamFrom;
+import org.springframework.javassist.jfr.EndpointEvent;
+import org.springframework.javassist.invoke.EndpointInvoker;
+import org.springframework.javassist.invoke.PrimitiveInvocationHandler;
+import org.springframework.javassist.jfr.EndpointEvents;
+import org.springframework.javassist.multipart.MultipartStream;
+import org.springframework.javassist.resolver.TypedArgument;
+import org.springframework.javassist.resolver.TypedArguments;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.CookieValue;
@@ -548,6 +561,17 @@ public class EndpointApiUtils {
         methodBody(ctMethod, method.getName());
 	}
 	
+	/**
+	 * 设置方法体
+	 * @param ctMethod		: The {@link CtMethod ctMethod} instance
+	 * @param method		: The {@link RequestMethod method} instance
+	 * @param bound			: The {@link MvcBound bound} instance
+	 * @throws CannotCompileException if can’t conplile
+	 */
+	public static void methodBody(CtMethod ctMethod, MvcMethod method, MvcBound bound) throws CannotCompileException {
+        methodBody(ctMethod, method.getName(), bound);
+	}
+	
 	/**
 	 * 设置方法体
 	 * @param ctMethod		: The {@link CtMethod ctMethod} instance
@@ -555,6 +579,32 @@ public class EndpointApiUtils {
 	 * @throws CannotCompileException if can’t conplile 
 	 */
 	public static void methodBody(CtMethod ctMethod, String methodName) throws CannotCompileException {
+		methodBody(ctMethod, methodName, null);
+	}
+	
+	/**
+	 * 设置方法体
+	 * @param ctMethod		: The {@link CtMethod ctMethod} instance
+	 * @param methodName	: The name of method
+	 * @param bound			: The {@link MvcBound bound} instance
+	 * @throws CannotCompileException if can’t conplile 
+	 */
+	public static void methodBody(CtMethod ctMethod, String methodName, MvcBound bound) throws CannotCompileException {
+		methodBody(ctMethod, methodName, bound, null);
+	}
+	
+	/**
+	 * 设置方法体
+	 * @param ctMethod		: The {@link CtMethod ctMethod} instance
+	 * @param methodName	: The name of method
+	 * @param bound			: The {@link MvcBound bound} instance
+	 * @param invoker		: The name of static {@link org.springframework.javassist.invoke.EndpointInvoker} field, null to invoke handler directly
+	 * @throws CannotCompileException if can’t conplile 
+	 */
+	public static void methodBody(CtMethod ctMethod, String methodName, MvcBound bound, String invoker) throws CannotCompileException {
+		
+		EndpointEvent event = EndpointEvents.methodCompilation(ctMethod.getDeclaringClass().getName(), methodName,
+				bound != null ? bound.getUid() : null);
 		
 		// 构造方法体
 		StringBuilder body = new StringBuilder(); 
@@ -563,13 +613,154 @@ public class EndpointApiUtils {
             //body.append("System.out.println(getHandler());");
         	body.append("if(getHandler() != null){\n");
         		body.append("Method method = this.getClass().getDeclaredMethod(\"" + methodName + "\", $sig);");
-        		body.append("return ($r)getHandler().invoke($0, method, $args);");
+        		if(invoker != null) {
+        			body.append("return ($r)" + invoker + ".invoke($0, method, $args);");
+        		} else {
+        			body.append("return ($r)invokeHandler(method, $args);");
+        		}
         	body.append("}\n"); 
 	        body.append("return null;\n");
         body.append("}"); 
         // 将方法的内容设置为要写入的代码，当方法被 abstract修饰时，该修饰符被移除。
         ctMethod.setBody(body.toString());
         
+        event.commit();
+        
+	}
+	
+	/**
+	 * 计算 {@link PrimitiveInvocationHandler} 调用的参数签名：J 表示 int | long | short | byte | char 参数，D 表示 float | double 参数
+	 * @param ctMethod		: The {@link CtMethod ctMethod} instance
+	 * @return 参数签名，无参数、参数超过 2 个或存在非基本数值类型参数时返回 null
+	 */
+	public static String primitiveShape(CtMethod ctMethod) {
+		try {
+			CtClass[] parameters = ctMethod.getParameterTypes();
+			if (parameters.length == 0 || parameters.length > 2) {
+				return null;
+			}
+			StringBuilder shape = new StringBuilder();
+			for (CtClass parameter : parameters) {
+				char kind = primitiveKind(parameter);
+				if (kind != 'J' && kind != 'D') {
+					return null;
+				}
+				shape.append(kind);
+			}
+			return shape.toString();
+		} catch (NotFoundException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * @return J : int | long | short | byte | char，D : float | double，L : 其他类型
+	 */
+	private static char primitiveKind(CtClass type) {
+		if (CtClass.intType.equals(type) || CtClass.longType.equals(type) || CtClass.shortType.equals(type)
+				|| CtClass.byteType.equals(type) || CtClass.charType.equals(type)) {
+			return 'J';
+		}
+		if (CtClass.floatType.equals(type) || CtClass.doubleType.equals(type)) {
+			return 'D';
+		}
+		return 'L';
+	}
+	
+	/**
+	 * 设置方法体：InvocationHandler 为 {@link PrimitiveInvocationHandler} 时直接传递基本类型参数，否则与 {@link #methodBody(CtMethod, String, MvcBound)} 一致；
+	 * Method 对象在首次调用时查找并缓存到静态字段
+	 * @param ctMethod		: The {@link CtMethod ctMethod} instance
+	 * @param methodName	: The name of method
+	 * @param bound			: The {@link MvcBound bound} instance
+	 * @param methodField	: The name of static {@link Method} field
+	 * @param shape			: The shape of parameters, see {@link #primitiveShape(CtMethod)}
+	 * @throws CannotCompileException if can’t conplile 
+	 */
+	public static void primitiveMethodBody(CtMethod ctMethod, String methodName, MvcBound bound, String methodField, String shape) throws CannotCompileException {
+		
+		EndpointEvent event = EndpointEvents.methodCompilation(ctMethod.getDeclaringClass().getName(), methodName,
+				bound != null ? bound.getUid() : null);
+		
+		char rtKind;
+		String rtType;
+		try {
+			rtKind = primitiveKind(ctMethod.getReturnType());
+			rtType = ctMethod.getReturnType().getName();
+		} catch (NotFoundException e) {
+			throw new CannotCompileException(e);
+		}
+		
+		// 参数列表
+		StringBuilder args = new StringBuilder("$0, " + methodField);
+		for (int i = 0; i < shape.length(); i++) {
+			args.append(shape.charAt(i) == 'J' ? ", (long)$" : ", (double)$").append(i + 1);
+		}
+		String handler = "((" + PrimitiveInvocationHandler.class.getName() + ")getHandler())";
+		
+		// 构造方法体
+		StringBuilder body = new StringBuilder(); 
+        body.append("{\n");
+        	body.append("if(getHandler() != null){\n");
+        		body.append("if(" + methodField + " == null){");
+        			body.append(methodField + " = this.getClass().getDeclaredMethod(\"" + methodName + "\", $sig);");
+        		body.append("}\n");
+        		body.append("if(getHandler() instanceof " + PrimitiveInvocationHandler.class.getName() + "){\n");
+        			body.append(EndpointEvent.class.getName() + " event = " + EndpointEvents.class.getName() + ".handlerDispatch($0, " + methodField + ");");
+        			if (rtKind == 'J') {
+        				body.append("long result = " + handler + ".invokeLong(" + args + ");");
+        				body.append("event.commit();");
+        				body.append("return (" + rtType + ")result;");
+        			} else if (rtKind == 'D') {
+        				body.append("double result = " + handler + ".invokeDouble(" + args + ");");
+        				body.append("event.commit();");
+        				body.append("return (" + rtType + ")result;");
+        			} else {
+        				body.append("Object result = " + handler + ".invoke(" + args + ");");
+        				body.append("event.commit();");
+        				body.append("return ($r)result;");
+        			}
+        		body.append("}\n");
+        		body.append("return ($r)invokeHandler(" + methodField + ", $args);");
+        	body.append("}\n"); 
+	        body.append(rtKind == 'L' ? "return null;\n" : "return (" + rtType + ")0;\n");
+        body.append("}"); 
+        ctMethod.setBody(body.toString());
+        
+        event.commit();
+        
+	}
+	
+	/**
+	 * 通过反射初始化动态类的静态字段
+	 * @param clazz			: The generated class
+	 * @param statics		: The values of static fields
+	 * @throws CannotCompileException if field can't be initialized
+	 */
+	public static void initStaticFields(Class<?> clazz, Map<String, Object> statics) throws CannotCompileException {
+		for (Map.Entry<String, Object> entry : statics.entrySet()) {
+			try {
+				clazz.getField(entry.getKey()).set(null, entry.getValue());
+			} catch (NoSuchFieldException | IllegalAccessException e) {
+				throw new CannotCompileException(e);
+			}
+		}
+	}
+	
+	/**
+	 * 动态类不再使用（重新生成或注销）时，释放其调用链静态字段占用的资源，如令牌桶
+	 * @param clazz			: The generated class
+	 */
+	public static void releaseInvokers(Class<?> clazz) {
+		for (Field field : clazz.getFields()) {
+			if (Modifier.isStatic(field.getModifiers()) && EndpointInvoker.class.isAssignableFrom(field.getType())) {
+				try {
+					EndpointInvoker.releaseAll((EndpointInvoker) field.get(null));
+				} catch (IllegalAccessException e) {
+					// public 字段
+				}
+			}
+		}
 	}
 	
 	/**
@@ -583,7 +774,9 @@ public class EndpointApiUtils {
 		
 		// 构造异常处理逻辑
         CtClass etype = pool.get("java.lang.Exception");
-        ctMethod.addCatch("{ System.out.println($e); throw $e; }", etype);
+        // 记录 InvocationHandler 异常事件后重新抛出，由 Spring 的异常处理记录日志；并发隔离、限流等拒绝调用及指定响应状态（如 404）的异常不记录
+        ctMethod.addCatch("{ if(!($e instanceof org.springframework.web.server.ResponseStatusException)) { "
+        		+ "org.springframework.javassist.jfr.EndpointEvents.handlerException($0, \"" + ctMethod.getName() + "\", $e); } throw $e; }", etype);
         
 	}
 	
@@ -693,6 +886,35 @@ public class EndpointApiUtils {
 		return annot;
 	}
 	
+	/**
+	 * 将支持直接解析的参数注解替换为 @TypedParam
+	 * @param ctMethod		: The {@link CtMethod ctMethod} instance
+	 * @param constPool		: The {@link ConstPool constPool} instance
+	 * @param field			: The name of {@link TypedArguments} static field
+	 * @param arguments		: The {@link TypedArguments} instance
+	 */
+	public static void typedParams(CtMethod ctMethod, ConstPool constPool, String field, TypedArguments arguments) {
+		
+		MethodInfo methodInfo = ctMethod.getMethodInfo();
+		ParameterAnnotationsAttribute parameterAtrribute = (ParameterAnnotationsAttribute) methodInfo.getAttribute(ParameterAnnotationsAttribute.visibleTag);
+		if (parameterAtrribute == null) {
+			return;
+		}
+		Annotation[][] paramArrays = parameterAtrribute.getAnnotations();
+		for (int i = 0; i < paramArrays.length && i < arguments.size(); i++) {
+			TypedArgument argument = arguments.get(i);
+			if (argument == null) {
+				continue;
+			}
+			Annotation typedAnnot = new Annotation(TypedParam.class.getName(), constPool);
+			typedAnnot.addMemberValue("name", new StringMemberValue(argument.getName(), constPool));
+			typedAnnot.addMemberValue("field", new StringMemberValue(field, constPool));
+			paramArrays[i][0] = typedAnnot;
+		}
+		parameterAtrribute.setAnnotations(paramArrays);
+		
+	}
+	
 	/**
 	 * 构造 @CookieValue | @MatrixVariable | @PathVariable | @RequestAttribute | @RequestBody | @RequestHeader
 	 *  | @RequestParam | @RequestPart 参数注解
@@ -712,6 +934,14 @@ public class EndpointApiUtils {
 			for (int i = 0; i < params.length; i++) {
 				paramAnnot = null;
 				defAnnot = false;
+				// MultipartStream 参数由 MultipartStreamArgumentResolver 流式读取
+				if (MultipartStream.class.isAssignableFrom(params[i].getType())) {
+					paramAnnot = new Annotation(PartStream.class.getName(), constPool);
+					paramAnnot.addMemberValue("name", new StringMemberValue(params[i].getName(), constPool));
+					paramArrays[i][0] = paramAnnot;
+					paramArrays[i][1] = EndpointApiUtils.annotParamName(constPool, params[i]);
+					continue;
+				}
 				switch (params[i].getFrom()) {
 					case COOKIE:{
 						paramAnnot = new Annotation(CookieValue.class.getName(), constPool);
@@ -760,10 +990,7 @@ public class EndpointApiUtils {
 				paramArrays[i][0] = paramAnnot;
 				
 				// 增加参数名称注解,方便业务使用
-				Annotation nameAnnot = new Annotation(ParamName.class.getName(), constPool);
-				nameAnnot.addMemberValue("name", new StringMemberValue(params[i].getName(), constPool));
-				
-				paramArrays[i][1] = nameAnnot;
+				paramArrays[i][1] = EndpointApiUtils.annotParamName(constPool, params[i]);
 				
 			}
 			
@@ -773,4 +1000,16 @@ public class EndpointApiUtils {
 		return null;
 	}
 	
+	/**
+	 * 构造 @ParamName 参数注解
+	 * @param constPool		: The {@link ConstPool constPool} instance
+	 * @param param			: The param
+	 * @return {@link Annotation} instance
+	 */
+	public static Annotation annotParamName(ConstPool constPool, MvcParam<?> param) {
+		Annotation nameAnnot = new Annotation(ParamName.class.getName(), constPool);
+		nameAnnot.addMemberValue("name", new StringMemberValue(param.getName(), constPool));
+		return nameAnnot;
+	}
+	
 }
\ No newline at end of file
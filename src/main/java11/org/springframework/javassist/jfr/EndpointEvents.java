@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.jfr;
+
+import java.lang.reflect.Method;
+
+import org.springframework.javassist.annotation.WebBound;
+
+/**
+ * JDK Flight Recorder 事件入口（JDK 11+ 实现）。
+ * <p>
+ * 事件未启用时直接返回 {@link EndpointEvent#NOOP}，不做任何反射查找。
+ * </p>
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public final class EndpointEvents {
+
+	private EndpointEvents() {
+	}
+	
+	public static EndpointEvent classGeneration(String className) {
+		ClassGenerationEvent event = new ClassGenerationEvent();
+		if (!event.isEnabled()) {
+			return EndpointEvent.NOOP;
+		}
+		event.className = className;
+		event.begin();
+		return event;
+	}
+	
+	public static void classGenerated(EndpointEvent event, String uid) {
+		if (event instanceof ClassGenerationEvent) {
+			((ClassGenerationEvent) event).uid = uid;
+		}
+		event.commit();
+	}
+	
+	public static EndpointEvent methodCompilation(String className, String methodName, String uid) {
+		MethodCompilationEvent event = new MethodCompilationEvent();
+		if (!event.isEnabled()) {
+			return EndpointEvent.NOOP;
+		}
+		event.className = className;
+		event.methodName = methodName;
+		event.uid = uid;
+		event.begin();
+		return event;
+	}
+	
+	public static EndpointEvent handlerDispatch(Object target, Method method) {
+		HandlerDispatchEvent event = new HandlerDispatchEvent();
+		if (!event.isEnabled()) {
+			return EndpointEvent.NOOP;
+		}
+		event.className = target.getClass().getName();
+		event.methodName = method.getName();
+		event.uid = uid(method);
+		event.begin();
+		return event;
+	}
+	
+	public static void handlerException(Object target, String methodName, Throwable ex) {
+		HandlerExceptionEvent event = new HandlerExceptionEvent();
+		if (!event.isEnabled()) {
+			return;
+		}
+		event.className = target.getClass().getName();
+		event.methodName = methodName;
+		event.exceptionClass = ex.getClass().getName();
+		event.message = ex.getMessage();
+		for (Method method : target.getClass().getDeclaredMethods()) {
+			if (method.getName().equals(methodName)) {
+				event.uid = uid(method);
+				break;
+			}
+		}
+		event.commit();
+	}
+	
+	private static String uid(Method method) {
+		// 获取方法上绑定的数据注解
+		WebBound bound = method.getAnnotation(WebBound.class);
+		if (bound == null) {
+			bound = method.getDeclaringClass().getAnnotation(WebBound.class);
+		}
+		return bound != null ? bound.uid() : null;
+	}
+	
+}
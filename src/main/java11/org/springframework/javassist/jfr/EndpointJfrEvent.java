@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * 动态接口 JFR 事件的公共字段
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+abstract class EndpointJfrEvent extends Event implements EndpointEvent {
+
+	@Label("Class Name")
+	String className;
+	
+	@Label("Method Name")
+	String methodName;
+	
+	@Label("Bound Uid")
+	String uid;
+	
+}
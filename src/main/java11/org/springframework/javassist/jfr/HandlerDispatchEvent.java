@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.springframework.javassist.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 动态方法调用 InvocationHandler 事件
+ * @author <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Name("org.springframework.javassist.HandlerDispatch")
+@Label("Handler Dispatch")
+@Category({ "Spring Javassist" })
+@Description("动态方法调用 InvocationHandler 事件")
+class HandlerDispatchEvent extends EndpointJfrEvent {
+
+}
@@ -0,0 +1,151 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.ReactiveHandlerCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcAdaptiveLimit;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.invoke.AdaptiveLimitInvoker;
+import org.springframework.javassist.invoke.AdaptiveLimiter;
+import org.springframework.javassist.invoke.EndpointRejectedException;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import reactor.core.publisher.Mono;
+
+public class AdaptiveLimiter_Test {
+
+	@Test
+	public void testShedLoad() throws Exception {
+		
+		AdaptiveLimiter limiter = new AdaptiveLimiter(50, 1, 200, 1000);
+		// 后端容量为 10：并发超出后 RTT 随并发线性增长（排队），上限随之下降
+		limiter.tryAcquire();
+		limiter.release(TimeUnit.MILLISECONDS.toNanos(2));
+		for (int i = 0; i < 20; i++) {
+			int limit = limiter.getLimit();
+			for (int j = 0; j < limit; j++) {
+				assertTrue(limiter.tryAcquire());
+			}
+			assertFalse(limiter.tryAcquire());
+			while (limiter.getInflight() > 0) {
+				limiter.release(TimeUnit.MILLISECONDS.toNanos(Math.max(2, 2L * limit / 10)));
+			}
+		}
+		assertTrue(limiter.getLimit() < 50);
+		assertEquals(0, limiter.getInflight());
+	}
+	
+	@Test
+	public void testReject() throws Exception {
+		
+		CountDownLatch entered = new CountDownLatch(2);
+		CountDownLatch blocked = new CountDownLatch(1);
+		InvocationHandler handler = (proxy, method, args) -> {
+			entered.countDown();
+			blocked.await();
+			return "ok";
+		};
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.AdaptiveLimitCase")
+				.adaptiveLimit(new MvcAdaptiveLimit(2, 1, 2))
+				.newMethod("sayHello", "say", RequestMethod.GET, "*/*", new MvcBound("100212"))
+				.toInstance(handler);
+		Method sayHello = ctObject.getClass().getMethod("sayHello");
+		AdaptiveLimiter limiter = ((AdaptiveLimitInvoker) ctObject.getClass().getField("__invoker_sayHello").get(null)).getLimiter();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// 两个调用占满上限后，第三个调用立即被拒绝
+			Future<?> first = executor.submit(() -> sayHello.invoke(ctObject));
+			Future<?> second = executor.submit(() -> sayHello.invoke(ctObject));
+			assertTrue(entered.await(5, TimeUnit.SECONDS));
+			try {
+				sayHello.invoke(ctObject);
+				fail("Concurrency limit should reject the call");
+			} catch (InvocationTargetException e) {
+				assertTrue(e.getCause() instanceof EndpointRejectedException);
+			}
+			blocked.countDown();
+			assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+			assertEquals("ok", second.get(5, TimeUnit.SECONDS));
+			assertEquals(0, limiter.getInflight());
+		} finally {
+			blocked.countDown();
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testGrowLimit() throws Exception {
+		
+		AdaptiveLimiter limiter = new AdaptiveLimiter(10, 1, 200, 1000);
+		// 满负载且 RTT 不变：无排队，上限持续提高
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < limiter.getLimit(); j++) {
+				assertTrue(limiter.tryAcquire());
+			}
+			while (limiter.getInflight() > 0) {
+				limiter.release(TimeUnit.MILLISECONDS.toNanos(2));
+			}
+		}
+		assertTrue(limiter.getLimit() > 10);
+	}
+	
+	@Test
+	public void testReactive() throws Exception {
+		
+		InvocationHandler handler = (proxy, method, args) -> Mono.just("ok").delayElement(Duration.ofMillis(5));
+		Object ctObject = new ReactiveHandlerCtClassBuilder("org.apache.cxf.spring.boot.AdaptiveLimitReactive")
+				.adaptiveLimit(new MvcAdaptiveLimit(1, 1, 1))
+				.monoMethod(new MvcBound("100212"))
+				.toInstance(handler);
+		Method mono = ctObject.getClass().getMethod(ReactiveHandlerCtClassBuilder.METHOD_MONO_NAME, 
+				org.springframework.web.reactive.function.server.ServerRequest.class);
+		AdaptiveLimiter limiter = ((AdaptiveLimitInvoker) ctObject.getClass().getField("__invoker_mono").get(null)).getLimiter();
+		
+		// 未订阅的 Mono 不占用许可
+		Mono<?> first = (Mono<?>) mono.invoke(ctObject, (Object) null);
+		assertEquals(0, limiter.getInflight());
+		// 订阅后、完成前占用许可
+		first.subscribe();
+		assertEquals(1, limiter.getInflight());
+		try {
+			((Mono<?>) mono.invoke(ctObject, (Object) null)).block();
+			fail("Concurrency limit should reject the subscription");
+		} catch (EndpointRejectedException e) {
+			assertTrue(e.getReason().startsWith("Concurrency limit exceeded"));
+		}
+		// Mono 完成后释放许可，重复订阅各自获取、释放一次
+		awaitIdle(limiter);
+		assertEquals("ok", first.block());
+		awaitIdle(limiter);
+		assertEquals("ok", first.block());
+		awaitIdle(limiter);
+	}
+	
+	/**
+	 * 许可在 Mono 终止信号发出之后释放，等待释放完成
+	 */
+	private static void awaitIdle(AdaptiveLimiter limiter) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (limiter.getInflight() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(0, limiter.getInflight());
+	}
+	
+}
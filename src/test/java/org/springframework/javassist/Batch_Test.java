@@ -0,0 +1,107 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.javassist.bound.BoundHandlerRegistry;
+import org.springframework.javassist.bound.DefaultBoundHandlerRegistry;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBatch;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.invoke.BatchInvocationHandler;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+public class Batch_Test {
+
+	@Test
+	public void testFuture() throws Exception {
+
+		List<Integer> sizes = new CopyOnWriteArrayList<>();
+		BatchInvocationHandler handler = (proxy, method, args) -> {
+			sizes.add(args.size());
+			List<Object> results = new ArrayList<>();
+			for (Object[] arg : args) {
+				results.add("hi " + arg[0]);
+			}
+			return results;
+		};
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.BatchCase")
+				.batch(new MvcBatch(2, 5000))
+				.newMethod(String.class, new MvcMethod("greet", new String[] { "greet" }, RequestMethod.GET),
+						new MvcBound("batch-test"), new MvcParam<>(String.class, "name"))
+				.toInstance(handler);
+		Method greet = ctObject.getClass().getMethod("greet", String.class);
+
+		// 同步返回类型改为 CompletableFuture，调用线程不等待批量调用
+		assertEquals(CompletableFuture.class, greet.getReturnType());
+		CompletableFuture<?> first = (CompletableFuture<?>) greet.invoke(ctObject, "a");
+		assertFalse(first.isDone());
+		CompletableFuture<?> second = (CompletableFuture<?>) greet.invoke(ctObject, "b");
+		assertEquals("hi a", first.get(5, TimeUnit.SECONDS));
+		assertEquals("hi b", second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, sizes.size());
+		assertEquals(2, sizes.get(0).intValue());
+	}
+	
+	@Test
+	public void testPlainHandler() throws Exception {
+
+		// InvocationHandler 不支持批量调用时直接调用，结果仍以 CompletableFuture 返回
+		InvocationHandler handler = (proxy, method, args) -> "hello".equals(method.getName()) ? "hi " + args[0]
+				: CompletableFuture.supplyAsync(() -> "async " + args[0]);
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.BatchPlainCase")
+				.batch(new MvcBatch(2, 5000))
+				.newMethod(String.class, new MvcMethod("hello", new String[] { "hello" }, RequestMethod.GET),
+						new MvcBound("batch-plain"), new MvcParam<>(String.class, "name"))
+				.newMethod(String.class, new MvcMethod("later", new String[] { "later" }, RequestMethod.GET),
+						new MvcBound("batch-plain"), new MvcParam<>(String.class, "name"))
+				.toInstance(handler);
+		CompletableFuture<?> hello = (CompletableFuture<?>) ctObject.getClass().getMethod("hello", String.class).invoke(ctObject, "a");
+		assertEquals("hi a", hello.get(5, TimeUnit.SECONDS));
+		CompletableFuture<?> later = (CompletableFuture<?>) ctObject.getClass().getMethod("later", String.class).invoke(ctObject, "b");
+		assertEquals("async b", later.get(5, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	public void testRegistry() throws Exception {
+
+		List<Integer> sizes = new CopyOnWriteArrayList<>();
+		BoundHandlerRegistry registry = new DefaultBoundHandlerRegistry();
+		registry.register("batch-registry", (BatchInvocationHandler) (proxy, method, args) -> {
+			sizes.add(args.size());
+			List<Object> results = new ArrayList<>();
+			for (Object[] arg : args) {
+				results.add("registered " + arg[0]);
+			}
+			return results;
+		});
+		// 动态类实例的 InvocationHandler 不支持批量调用，按 uid 注册的 BatchInvocationHandler 优先
+		InvocationHandler handler = (proxy, method, args) -> "instance " + args[0];
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.BatchRegistryCase")
+				.handlerRegistry(registry)
+				.batch(new MvcBatch(2, 5000))
+				.newMethod(String.class, new MvcMethod("greet", new String[] { "greet" }, RequestMethod.GET),
+						new MvcBound("batch-registry"), new MvcParam<>(String.class, "name"))
+				.toInstance(handler);
+		Method greet = ctObject.getClass().getMethod("greet", String.class);
+		
+		CompletableFuture<?> first = (CompletableFuture<?>) greet.invoke(ctObject, "a");
+		CompletableFuture<?> second = (CompletableFuture<?>) greet.invoke(ctObject, "b");
+		assertEquals("registered a", first.get(5, TimeUnit.SECONDS));
+		assertEquals("registered b", second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, sizes.size());
+		assertEquals(2, sizes.get(0).intValue());
+	}
+
+}
@@ -0,0 +1,236 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.bytecode.definition.MvcAdaptiveLimit;
+import org.springframework.javassist.bytecode.definition.MvcBatch;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcBulkhead;
+import org.springframework.javassist.bytecode.definition.MvcCache;
+import org.springframework.javassist.bytecode.definition.MvcController;
+import org.springframework.javassist.bytecode.definition.MvcEndpoint;
+import org.springframework.javassist.bytecode.definition.MvcMapping;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcParamFrom;
+import org.springframework.javassist.bytecode.definition.MvcRateLimit;
+import org.springframework.javassist.bytecode.definition.MvcRateLimitScope;
+import org.springframework.javassist.catalog.BinaryDefinitionReader;
+import org.springframework.javassist.catalog.BinaryDefinitionWriter;
+import org.springframework.javassist.catalog.DefinitionException;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+public class BinaryDefinition_Test {
+
+	@Test
+	public void testRoundTrip() throws Exception {
+
+		Path directory = Files.createTempDirectory("binary-catalog");
+		Path file = directory.resolve("catalog.bin");
+		MvcController expected = this.controller("com.example.OrderApi");
+		MvcController plain = new MvcController("com.example.PlainApi");
+		plain.addEndpoint(new MvcEndpoint(new MvcMethod("ping", new String[] { "/ping" }, RequestMethod.GET)));
+		try (BinaryDefinitionWriter writer = new BinaryDefinitionWriter(file)) {
+			writer.write(expected);
+			writer.write(plain);
+		}
+		try (BinaryDefinitionReader reader = new BinaryDefinitionReader(file)) {
+			this.assertController(expected, reader.read("com.example.OrderApi"));
+			this.assertController(plain, reader.read("com.example.PlainApi"));
+		}
+		// 临时文件已原子替换为目标文件
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	public void testRejectDuplicate() throws Exception {
+
+		Path directory = Files.createTempDirectory("binary-catalog");
+		Path file = directory.resolve("catalog.bin");
+		try (BinaryDefinitionWriter writer = new BinaryDefinitionWriter(file)) {
+			writer.write(this.controller("com.example.OrderApi"));
+			try {
+				writer.write(this.controller("com.example.OrderApi"));
+				fail("Duplicate controller should be rejected");
+			} catch (DefinitionException e) {
+				assertEquals("com.example.OrderApi", e.getController());
+			}
+			writer.write(new MvcController("com.example.OtherApi"));
+		}
+		try (BinaryDefinitionReader reader = new BinaryDefinitionReader(file)) {
+			assertEquals(2, reader.size());
+		}
+	}
+
+	@Test
+	public void testKeepTargetOnFailure() throws Exception {
+
+		Path directory = Files.createTempDirectory("binary-catalog");
+		Path file = directory.resolve("catalog.bin");
+		try (BinaryDefinitionWriter writer = new BinaryDefinitionWriter(file)) {
+			writer.write(new MvcController("com.example.PlainApi"));
+		}
+		byte[] before = Files.readAllBytes(file);
+		// 返回类型为 null 的定义只写入一部分，目标文件保持不变
+		MvcController broken = new MvcController("com.example.BrokenApi");
+		MvcEndpoint endpoint = new MvcEndpoint(new MvcMethod("query", new String[] { "/query" }, RequestMethod.GET));
+		endpoint.setReturnType(null);
+		broken.addEndpoint(endpoint);
+		try (BinaryDefinitionWriter writer = new BinaryDefinitionWriter(file)) {
+			writer.write(broken);
+			fail("Incomplete definition should fail");
+		} catch (NullPointerException e) {
+			// expected
+		}
+		assertArrayEquals(before, Files.readAllBytes(file));
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals(1, files.count());
+		}
+	}
+
+	private MvcController controller(String name) {
+		MvcController controller = new MvcController(name);
+		MvcMapping mapping = new MvcMapping(new String[] { "/orders" }, RequestMethod.GET, RequestMethod.POST);
+		mapping.setName("orders");
+		mapping.setParams(new String[] { "v=1" });
+		mapping.setHeaders(new String[] { "X-Api=1" });
+		mapping.setConsumes(new String[] { "application/json" });
+		mapping.setProduces(new String[] { "application/json", "text/plain" });
+		controller.setMapping(mapping);
+		MvcBound bound = new MvcBound("orders", "{\"table\":\"t_order\"}");
+		bound.setNotes("order api");
+		controller.setBound(bound);
+		controller.setTags(new String[] { "order", "v1" });
+
+		MvcMethod method = new MvcMethod("query", new String[] { "/query" }, false, new RequestMethod[] { RequestMethod.GET },
+				new String[] { "id" }, new String[] { "X-Trace" }, new String[] { "application/json" }, new String[] { "text/plain" });
+		method.setBulkhead(new MvcBulkhead(10, 5, 100, HttpStatus.TOO_MANY_REQUESTS));
+		MvcAdaptiveLimit adaptiveLimit = new MvcAdaptiveLimit(8, 2, 64);
+		adaptiveLimit.setProbeInterval(500);
+		adaptiveLimit.setStatus(HttpStatus.BAD_GATEWAY);
+		method.setAdaptiveLimit(adaptiveLimit);
+		MvcRateLimit rateLimit = new MvcRateLimit(2.5, 5, MvcRateLimitScope.METHOD);
+		rateLimit.setStatus(HttpStatus.SERVICE_UNAVAILABLE);
+		method.setRateLimit(rateLimit);
+		method.setCache(new MvcCache(60000, 100));
+		method.setCoalesce(false);
+		method.setBatch(new MvcBatch(50, 10));
+		MvcParam<Long> id = new MvcParam<>(Long.class, "id", MvcParamFrom.PATH);
+		id.setRequired(true);
+		MvcParam<String> sort = new MvcParam<>(String.class, "sort", MvcParamFrom.PARAM, "asc");
+		sort.setRequired(false);
+		MvcBound methodBound = new MvcBound("orders.query");
+		controller.addEndpoint(new MvcEndpoint(List.class, method, methodBound, id, sort));
+		return controller;
+	}
+
+	private void assertController(MvcController expected, MvcController actual) {
+		assertEquals(expected.getName(), actual.getName());
+		if (expected.getMapping() == null) {
+			assertNull(actual.getMapping());
+		} else {
+			MvcMapping mapping = actual.getMapping();
+			assertEquals(expected.getMapping().getName(), mapping.getName());
+			assertArrayEquals(expected.getMapping().getPath(), mapping.getPath());
+			assertArrayEquals(expected.getMapping().getMethod(), mapping.getMethod());
+			assertArrayEquals(expected.getMapping().getParams(), mapping.getParams());
+			assertArrayEquals(expected.getMapping().getHeaders(), mapping.getHeaders());
+			assertArrayEquals(expected.getMapping().getConsumes(), mapping.getConsumes());
+			assertArrayEquals(expected.getMapping().getProduces(), mapping.getProduces());
+		}
+		this.assertBound(expected.getBound(), actual.getBound());
+		assertArrayEquals(expected.getTags(), actual.getTags());
+		assertEquals(expected.getEndpoints().size(), actual.getEndpoints().size());
+		for (int i = 0; i < expected.getEndpoints().size(); i++) {
+			this.assertEndpoint(expected.getEndpoints().get(i), actual.getEndpoints().get(i));
+		}
+	}
+
+	private void assertEndpoint(MvcEndpoint expected, MvcEndpoint actual) {
+		MvcMethod method = actual.getMethod();
+		assertEquals(expected.getMethod().getName(), method.getName());
+		assertArrayEquals(expected.getMethod().getPath(), method.getPath());
+		assertArrayEquals(expected.getMethod().getMethod(), method.getMethod());
+		assertArrayEquals(expected.getMethod().getParams(), method.getParams());
+		assertArrayEquals(expected.getMethod().getHeaders(), method.getHeaders());
+		assertArrayEquals(expected.getMethod().getConsumes(), method.getConsumes());
+		assertArrayEquals(expected.getMethod().getProduces(), method.getProduces());
+		assertEquals(expected.getMethod().isResponseBody(), method.isResponseBody());
+		assertEquals(expected.getReturnType(), actual.getReturnType());
+		this.assertBound(expected.getBound(), actual.getBound());
+		MvcParam<?>[] params = expected.getParams() != null ? expected.getParams() : new MvcParam<?>[0];
+		assertEquals(params.length, actual.getParams().length);
+		for (int i = 0; i < params.length; i++) {
+			assertEquals(params[i].getName(), actual.getParams()[i].getName());
+			assertEquals(params[i].getType(), actual.getParams()[i].getType());
+			assertEquals(params[i].getFrom(), actual.getParams()[i].getFrom());
+			assertEquals(params[i].isRequired(), actual.getParams()[i].isRequired());
+			assertEquals(params[i].getDef(), actual.getParams()[i].getDef());
+		}
+		this.assertPolicies(expected.getMethod(), method);
+	}
+
+	private void assertPolicies(MvcMethod expected, MvcMethod actual) {
+		if (expected.getBulkhead() == null) {
+			assertNull(actual.getBulkhead());
+		} else {
+			assertEquals(expected.getBulkhead().getMaxConcurrent(), actual.getBulkhead().getMaxConcurrent());
+			assertEquals(expected.getBulkhead().getMaxQueue(), actual.getBulkhead().getMaxQueue());
+			assertEquals(expected.getBulkhead().getMaxWait(), actual.getBulkhead().getMaxWait());
+			assertEquals(expected.getBulkhead().getStatus(), actual.getBulkhead().getStatus());
+		}
+		if (expected.getAdaptiveLimit() == null) {
+			assertNull(actual.getAdaptiveLimit());
+		} else {
+			assertEquals(expected.getAdaptiveLimit().getInitialLimit(), actual.getAdaptiveLimit().getInitialLimit());
+			assertEquals(expected.getAdaptiveLimit().getMinLimit(), actual.getAdaptiveLimit().getMinLimit());
+			assertEquals(expected.getAdaptiveLimit().getMaxLimit(), actual.getAdaptiveLimit().getMaxLimit());
+			assertEquals(expected.getAdaptiveLimit().getProbeInterval(), actual.getAdaptiveLimit().getProbeInterval());
+			assertEquals(expected.getAdaptiveLimit().getStatus(), actual.getAdaptiveLimit().getStatus());
+		}
+		if (expected.getRateLimit() == null) {
+			assertNull(actual.getRateLimit());
+		} else {
+			assertEquals(expected.getRateLimit().getPermitsPerSecond(), actual.getRateLimit().getPermitsPerSecond(), 0);
+			assertEquals(expected.getRateLimit().getBurst(), actual.getRateLimit().getBurst());
+			assertEquals(expected.getRateLimit().getScope(), actual.getRateLimit().getScope());
+			assertEquals(expected.getRateLimit().getStatus(), actual.getRateLimit().getStatus());
+		}
+		if (expected.getCache() == null) {
+			assertNull(actual.getCache());
+		} else {
+			assertEquals(expected.getCache().getTtl(), actual.getCache().getTtl());
+			assertEquals(expected.getCache().getMaximumSize(), actual.getCache().getMaximumSize());
+		}
+		assertEquals(expected.getCoalesce(), actual.getCoalesce());
+		if (expected.getBatch() == null) {
+			assertNull(actual.getBatch());
+		} else {
+			assertEquals(expected.getBatch().getMaxSize(), actual.getBatch().getMaxSize());
+			assertEquals(expected.getBatch().getWindow(), actual.getBatch().getWindow());
+		}
+	}
+
+	private void assertBound(MvcBound expected, MvcBound actual) {
+		if (expected == null) {
+			assertNull(actual);
+			return;
+		}
+		assertEquals(expected.getUid(), actual.getUid());
+		assertEquals(expected.getJson(), actual.getJson());
+		assertEquals(expected.getNotes(), actual.getNotes());
+	}
+
+}
@@ -0,0 +1,167 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.springframework.javassist.bound.DefaultBoundHandlerRegistry;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcAsync;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.invoke.AsyncInvocationHandler;
+import org.springframework.javassist.invoke.StreamingInvocationHandler;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public class BoundHandlerRegistry_Test {
+
+	@Test
+	public void testLookup() throws Exception {
+
+		DefaultBoundHandlerRegistry registry = new DefaultBoundHandlerRegistry();
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.RegistryLookup" + System.nanoTime())
+				.handlerRegistry(registry)
+				.newMethod("query", "query", RequestMethod.GET, "*/*", new MvcBound("registry-sync"))
+				.newMethod(StreamingResponseBody.class, new MvcMethod("export", new String[] { "export" }, RequestMethod.GET),
+						new MvcBound("registry-stream"))
+				.toInstance((proxy, method, args) -> "builder");
+		Method query = ctObject.getClass().getMethod("query");
+		Method export = ctObject.getClass().getMethod("export");
+
+		// 没有注册时调用动态类实例的 InvocationHandler
+		assertEquals("builder", query.invoke(ctObject));
+		assertEquals("builder", this.write(export.invoke(ctObject)));
+
+		InvocationHandler sync = (proxy, method, args) -> "registered";
+		StreamingInvocationHandler streaming = new StreamingInvocationHandler() {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				throw new IllegalStateException("Streaming method should call invokeStreaming");
+			}
+
+			@Override
+			public void invokeStreaming(Object proxy, Method method, Object[] args, OutputStream output) throws Throwable {
+				output.write("streamed".getBytes(StandardCharsets.UTF_8));
+			}
+
+		};
+		assertNull(registry.register("registry-sync", sync));
+		assertNull(registry.register("registry-stream", streaming));
+		assertEquals("registered", query.invoke(ctObject));
+		assertEquals("streamed", this.write(export.invoke(ctObject)));
+
+		// 注销后恢复为动态类实例的 InvocationHandler
+		assertSame(sync, registry.unregister("registry-sync"));
+		assertSame(streaming, registry.unregister("registry-stream"));
+		assertNull(registry.unregister("registry-stream"));
+		assertEquals("builder", query.invoke(ctObject));
+		assertEquals("builder", this.write(export.invoke(ctObject)));
+	}
+
+	@Test
+	public void testAsync() throws Exception {
+
+		DefaultBoundHandlerRegistry registry = new DefaultBoundHandlerRegistry();
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.RegistryAsync" + System.nanoTime())
+				.handlerRegistry(registry)
+				.async(MvcAsync.COMPLETABLE_FUTURE)
+				.newMethod("find", "find", RequestMethod.GET, "*/*", new MvcBound("registry-async"))
+				.toInstance((proxy, method, args) -> "builder");
+		Method find = ctObject.getClass().getMethod("find");
+		assertEquals("builder", ((CompletableFuture<?>) find.invoke(ctObject)).get());
+
+		// 异步方法直接使用注册的 AsyncInvocationHandler 返回的 CompletionStage
+		registry.register("registry-async", new AsyncInvocationHandler() {
+
+			@Override
+			public CompletionStage<?> invokeAsync(Object proxy, Method method, Object[] args) throws Throwable {
+				return CompletableFuture.completedFuture("async");
+			}
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				throw new IllegalStateException("Async method should call invokeAsync");
+			}
+
+		});
+		assertEquals("async", ((CompletableFuture<?>) find.invoke(ctObject)).get());
+		registry.unregister("registry-async");
+		assertEquals("builder", ((CompletableFuture<?>) find.invoke(ctObject)).get());
+	}
+
+	@Test
+	public void testReplace() throws Exception {
+
+		DefaultBoundHandlerRegistry registry = new DefaultBoundHandlerRegistry();
+		InvocationHandler first = (proxy, method, args) -> "first";
+		InvocationHandler second = (proxy, method, args) -> "second";
+		int id = registry.id("registry-replace");
+		assertEquals(id, registry.id("registry-replace"));
+		assertNull(registry.handler(id));
+		assertNull(registry.register("registry-replace", first));
+		assertSame(first, registry.register("registry-replace", second));
+		assertSame(second, registry.handler(id));
+
+		// 之后分配的 uid 扩容数组，不影响已注册的 InvocationHandler
+		InvocationHandler other = (proxy, method, args) -> "other";
+		registry.register("registry-other", other);
+		assertSame(second, registry.handler(id));
+		assertSame(other, registry.handler(registry.id("registry-other")));
+		assertNull(registry.handler(registry.id("registry-unregistered")));
+		assertNull(registry.handler(1000));
+		assertNull(registry.unregister("registry-unknown"));
+		assertEquals(3, registry.size());
+
+		// 并发替换及注销时读取的只能是某次写入的 InvocationHandler 或 null
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicReference<Object> unexpected = new AtomicReference<>();
+		CountDownLatch started = new CountDownLatch(1);
+		Thread reader = new Thread(() -> {
+			started.countDown();
+			while (running.get()) {
+				InvocationHandler handler = registry.handler(id);
+				if (handler != null && handler != first && handler != second) {
+					unexpected.set(handler);
+				}
+				if (registry.handler(registry.id("registry-other")) != other) {
+					unexpected.set("other lost");
+				}
+			}
+		});
+		reader.start();
+		started.await();
+		for (int i = 0; i < 10000; i++) {
+			registry.register("registry-replace", i % 2 == 0 ? first : second);
+			if (i % 3 == 0) {
+				registry.unregister("registry-replace");
+			}
+			registry.register("registry-grow-" + (i % 100), other);
+		}
+		running.set(false);
+		reader.join();
+		assertNull(unexpected.get());
+		assertTrue(registry.size() > 100);
+	}
+
+	private String write(Object body) throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		((StreamingResponseBody) body).writeTo(output);
+		return new String(output.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}
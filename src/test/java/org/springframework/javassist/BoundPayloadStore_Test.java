@@ -0,0 +1,108 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.javassist.bound.BoundPayloadStore;
+import org.springframework.javassist.bound.SimpleJsonDecoder;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.invoke.BoundInvocationHandler;
+import org.springframework.javassist.utils.EndpointApiUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javassist.CannotCompileException;
+
+public class BoundPayloadStore_Test {
+
+	@Test
+	public void testStore() throws Exception {
+
+		Path file = Files.createTempFile("bound-test-", ".dat");
+		try (BoundPayloadStore store = new BoundPayloadStore(file, 64, 0, SimpleJsonDecoder.INSTANCE)) {
+			// 单条数据不跨段
+			long first = store.put("{\"name\":\"first\"}");
+			long second = store.put("{\"name\":\"a longer payload that starts a new segment\"}");
+			assertEquals(0, first);
+			assertEquals(64, second);
+			assertEquals("first", ((Map<?, ?>) store.payload(first)).get("name"));
+			assertEquals("{\"name\":\"first\"}", store.json(first));
+			assertEquals(2, store.size());
+			assertEquals(2, store.live());
+			
+			// 无效的 json 写入时直接失败
+			try {
+				store.put("{\"name\":");
+				fail("Invalid json should be rejected");
+			} catch (IllegalArgumentException e) {
+				assertEquals(2, store.size());
+			}
+			
+			store.release(first);
+			store.release(second);
+			assertEquals(0, store.live());
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	public void testCloseWithLiveHandles() throws Exception {
+
+		BoundPayloadStore store = new BoundPayloadStore();
+		long first = store.put("{\"name\":\"first\"}");
+		long second = store.put("{\"name\":\"second\"}");
+		// 仍有句柄被使用时不能关闭
+		try {
+			store.close();
+			fail("Store with live handles should not be closed");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage().contains("2 live handles"));
+		}
+		store.release(first);
+		store.release(second);
+		store.close();
+	}
+	
+	@Test
+	public void testInvoker() throws Exception {
+
+		BoundPayloadStore store = new BoundPayloadStore();
+		BoundInvocationHandler handler = (proxy, method, payload, args) -> ((Map<?, ?>) payload).get("table");
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.BoundStoreCase")
+				.boundStore(store)
+				.newMethod("query", "query", RequestMethod.GET, "*/*", new MvcBound("bound-store-test", "{\"table\":\"t_user\"}"))
+				.toInstance(handler);
+		Method query = ctObject.getClass().getMethod("query");
+		assertEquals("t_user", query.invoke(ctObject));
+		assertEquals(1, store.live());
+		
+		// 动态类不再使用时释放句柄，之后可以关闭
+		EndpointApiUtils.releaseInvokers(ctObject.getClass());
+		assertEquals(0, store.live());
+		store.close();
+		assertFalse(Files.exists(store.getFile()));
+	}
+	
+	@Test
+	public void testInvalidJson() throws Exception {
+
+		try (BoundPayloadStore store = new BoundPayloadStore()) {
+			new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.BoundStoreInvalid")
+					.boundStore(store)
+					.newMethod("query", "query", RequestMethod.GET, "*/*", new MvcBound("bound-store-invalid", "{\"table\":"));
+			fail("Invalid @WebBound json should fail generation");
+		} catch (CannotCompileException e) {
+			assertTrue(e.getCause().getMessage().contains("query"));
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcBulkhead;
+import org.springframework.javassist.invoke.Bulkhead;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javassist.CannotCompileException;
+
+public class Bulkhead_Test {
+
+	@Test
+	public void testRejectWhenFull() throws Exception {
+
+		Bulkhead bulkhead = new Bulkhead(1, 0, 0);
+		assertTrue(bulkhead.acquire());
+		// 不排队：许可用完立即失败
+		assertFalse(bulkhead.acquire());
+		assertFalse(bulkhead.tryAcquire());
+		bulkhead.release();
+		assertEquals(1, bulkhead.getAvailablePermits());
+	}
+
+	@Test
+	public void testHandOff() throws Exception {
+
+		Bulkhead bulkhead = new Bulkhead(1, 1, 5000);
+		assertTrue(bulkhead.acquire());
+		CompletableFuture<Boolean> waiter = this.acquireAsync(bulkhead);
+		this.awaitQueued(bulkhead, 1);
+		// 队列已满时立即失败
+		assertFalse(bulkhead.acquire());
+		// 释放的许可转交给等待线程
+		bulkhead.release();
+		assertTrue(waiter.get(5, TimeUnit.SECONDS));
+		assertEquals(0, bulkhead.getAvailablePermits());
+		assertEquals(0, bulkhead.getQueued());
+		bulkhead.release();
+		assertEquals(1, bulkhead.getAvailablePermits());
+	}
+
+	@Test
+	public void testWaitTimeout() throws Exception {
+
+		Bulkhead bulkhead = new Bulkhead(1, 1, 50);
+		assertTrue(bulkhead.acquire());
+		long start = System.nanoTime();
+		assertFalse(bulkhead.acquire());
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertEquals(0, bulkhead.getQueued());
+		bulkhead.release();
+		assertEquals(1, bulkhead.getAvailablePermits());
+	}
+
+	@Test
+	public void testCancelledWaiter() throws Exception {
+
+		Bulkhead bulkhead = new Bulkhead(1, 2, 5000);
+		assertTrue(bulkhead.acquire());
+		CompletableFuture<Boolean> cancelled = new CompletableFuture<>();
+		Thread thread = new Thread(() -> {
+			try {
+				cancelled.complete(bulkhead.acquire());
+			} catch (InterruptedException e) {
+				cancelled.completeExceptionally(e);
+			}
+		});
+		thread.start();
+		this.awaitQueued(bulkhead, 1);
+		thread.interrupt();
+		try {
+			cancelled.get(5, TimeUnit.SECONDS);
+			fail("Interrupted waiter should not acquire");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof InterruptedException);
+		}
+		assertEquals(0, bulkhead.getQueued());
+
+		// 放弃的等待节点已移出队列，不会吞掉后续的唤醒
+		CompletableFuture<Boolean> waiter = this.acquireAsync(bulkhead);
+		this.awaitQueued(bulkhead, 1);
+		bulkhead.release();
+		assertTrue(waiter.get(5, TimeUnit.SECONDS));
+		bulkhead.release();
+		assertEquals(1, bulkhead.getAvailablePermits());
+	}
+
+	@Test
+	public void testInvalidConfig() throws Exception {
+
+		MvcBulkhead[] invalid = { new MvcBulkhead(0), new MvcBulkhead(1, -1, 0), new MvcBulkhead(1, 0, -1) };
+		for (int i = 0; i < invalid.length; i++) {
+			try {
+				new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.BulkheadInvalid" + i)
+						.bulkhead(invalid[i])
+						.newMethod("query", "query", RequestMethod.GET, "*/*", new MvcBound("bulkhead-invalid"));
+				fail("Invalid bulkhead should be rejected");
+			} catch (CannotCompileException e) {
+				assertTrue(e.getMessage().contains("Invalid bulkhead"));
+			}
+		}
+	}
+
+	private CompletableFuture<Boolean> acquireAsync(Bulkhead bulkhead) {
+		CompletableFuture<Boolean> future = new CompletableFuture<>();
+		Thread thread = new Thread(() -> {
+			try {
+				future.complete(bulkhead.acquire());
+			} catch (Throwable e) {
+				future.completeExceptionally(e);
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+		return future;
+	}
+
+	private void awaitQueued(Bulkhead bulkhead, int queued) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (bulkhead.getQueued() != queued) {
+			if (System.nanoTime() > deadline) {
+				fail("Waiter not queued");
+			}
+			Thread.sleep(5);
+		}
+		// 计数先于入队，稍等进入等待
+		Thread.sleep(20);
+	}
+
+}
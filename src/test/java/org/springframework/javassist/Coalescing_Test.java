@@ -0,0 +1,255 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.invoke.CoalescingInvoker;
+import org.springframework.javassist.invoke.EndpointInvoker;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import javassist.CannotCompileException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class Coalescing_Test {
+
+	public interface Api {
+		
+		String query(String id);
+		
+		Mono<String> mono(ServerRequest request);
+		
+		Flux<String> flux(ServerRequest request);
+		
+	}
+	
+	@Test
+	public void testSync() throws Exception {
+
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		CoalescingInvoker invoker = new CoalescingInvoker((target, method, args) -> {
+			calls.incrementAndGet();
+			entered.countDown();
+			release.await();
+			return "v" + calls.get();
+		});
+		Method query = Api.class.getMethod("query", String.class);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Object> leader = executor.submit(() -> call(invoker, query, "1"));
+			assertTrue(entered.await(5, TimeUnit.SECONDS));
+			// 同步方法：后到的调用等待首个调用的结果
+			Object[] result = new Object[1];
+			Thread follower = new Thread(() -> {
+				try {
+					result[0] = call(invoker, query, "1");
+				} catch (Throwable e) {
+					result[0] = e;
+				}
+			});
+			follower.start();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (follower.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+			follower.join(5000);
+			assertEquals("v1", leader.get(5, TimeUnit.SECONDS));
+			assertEquals("v1", result[0]);
+			assertEquals(1, calls.get());
+			assertEquals(0, invoker.getInflight());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testServletIdentity() throws Exception {
+
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		CoalescingInvoker invoker = new CoalescingInvoker((target, method, args) -> {
+			calls.incrementAndGet();
+			release.await();
+			return "ok";
+		});
+		Method query = Api.class.getMethod("query", String.class);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// 参数相同但 Authorization 不同的请求不合并
+			Future<Object> alice = executor.submit(() -> this.invokeAs(invoker, query, "Bearer alice"));
+			Future<Object> bob = executor.submit(() -> this.invokeAs(invoker, query, "Bearer bob"));
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (calls.get() < 2 && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+			assertEquals(2, calls.get());
+			release.countDown();
+			alice.get(5, TimeUnit.SECONDS);
+			bob.get(5, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testReactiveKey() throws Exception {
+
+		AtomicInteger calls = new AtomicInteger();
+		CoalescingInvoker invoker = new CoalescingInvoker((target, method, args) -> Mono.never().map(v -> calls.incrementAndGet()));
+		Method mono = Api.class.getMethod("mono", ServerRequest.class);
+		
+		Object first = call(invoker, mono, request(HttpMethod.GET, "/q", "Bearer alice"));
+		// 身份相同的 GET 请求共享同一个 Mono
+		assertEquals(1, invoker.getInflight());
+		call(invoker, mono, request(HttpMethod.GET, "/q", "Bearer alice"));
+		assertEquals(1, invoker.getInflight());
+		// Authorization 不同、URI 不同的请求分别调用
+		call(invoker, mono, request(HttpMethod.GET, "/q", "Bearer bob"));
+		call(invoker, mono, request(HttpMethod.GET, "/r", "Bearer alice"));
+		assertEquals(3, invoker.getInflight());
+		// POST 请求不合并
+		Object post = call(invoker, mono, request(HttpMethod.POST, "/q", "Bearer alice"));
+		assertEquals(3, invoker.getInflight());
+		assertTrue(first != post);
+	}
+	
+	@Test
+	public void testReactiveFollower() throws Exception {
+
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calls = new AtomicInteger();
+		CoalescingInvoker invoker = new CoalescingInvoker((target, method, args) -> {
+			entered.countDown();
+			release.await();
+			return Mono.fromCallable(() -> "v" + calls.incrementAndGet());
+		});
+		Method mono = Api.class.getMethod("mono", ServerRequest.class);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Object> leader = executor.submit(() -> call(invoker, mono, request(HttpMethod.GET, "/q", null)));
+			assertTrue(entered.await(5, TimeUnit.SECONDS));
+			// 首个调用尚未返回时，后到的调用不阻塞，直接返回衔接首个调用的 Mono
+			Object follower = call(invoker, mono, request(HttpMethod.GET, "/q", null));
+			assertTrue(follower instanceof Mono);
+			release.countDown();
+			assertEquals("v1", ((Mono<?>) leader.get(5, TimeUnit.SECONDS)).block());
+			assertEquals("v1", ((Mono<?>) follower).block());
+			assertEquals(1, calls.get());
+			assertEquals(0, invoker.getInflight());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testFlux() throws Exception {
+
+		AtomicInteger calls = new AtomicInteger();
+		EndpointInvoker next = (target, method, args) -> {
+			calls.incrementAndGet();
+			return Flux.just("v" + calls.get());
+		};
+		CoalescingInvoker invoker = new CoalescingInvoker(next);
+		Method flux = Api.class.getMethod("flux", ServerRequest.class);
+		Object first = call(invoker, flux, request(HttpMethod.GET, "/q", null));
+		Object second = call(invoker, flux, request(HttpMethod.GET, "/q", null));
+		// Flux 不合并，也不缓存
+		assertEquals(2, calls.get());
+		assertEquals(0, invoker.getInflight());
+		assertEquals(1, ((Flux<?>) first).count().block().intValue());
+		assertEquals(1, ((Flux<?>) second).count().block().intValue());
+	}
+	
+	@Test
+	public void testRejectPost() throws Exception {
+
+		MvcMethod method = new MvcMethod("update", new String[] { "update" }, RequestMethod.POST);
+		method.setCoalesce(true);
+		try {
+			new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.CoalescingPost")
+					.newMethod(Object.class, method, new MvcBound("coalescing-post"));
+			fail("POST mapping should not be coalesced");
+		} catch (CannotCompileException e) {
+			assertTrue(e.getMessage().contains("GET/HEAD"));
+		}
+	}
+	
+	private Object invokeAs(CoalescingInvoker invoker, Method method, String authorization) throws Exception {
+		HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, (proxy, m, args) -> {
+					if ("getHeaders".equals(m.getName())) {
+						return HttpHeaders.AUTHORIZATION.equals(args[0]) ? Collections.enumeration(Collections.singletonList(authorization))
+								: Collections.emptyEnumeration();
+					}
+					return null;
+				});
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+		try {
+			return call(invoker, method, "1");
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+	
+	private static Object call(EndpointInvoker invoker, Method method, Object... args) throws Exception {
+		try {
+			return invoker.invoke(null, method, args);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static ServerRequest request(HttpMethod httpMethod, String uri, String authorization) {
+		HttpHeaders httpHeaders = new HttpHeaders();
+		if (authorization != null) {
+			httpHeaders.set(HttpHeaders.AUTHORIZATION, authorization);
+		}
+		ServerRequest.Headers headers = (ServerRequest.Headers) Proxy.newProxyInstance(Coalescing_Test.class.getClassLoader(),
+				new Class<?>[] { ServerRequest.Headers.class }, (proxy, m, args) -> "asHttpHeaders".equals(m.getName()) ? httpHeaders : null);
+		return (ServerRequest) Proxy.newProxyInstance(Coalescing_Test.class.getClassLoader(),
+				new Class<?>[] { ServerRequest.class }, (proxy, m, args) -> {
+					switch (m.getName()) {
+						case "method":
+							return httpMethod;
+						case "methodName":
+							return httpMethod.name();
+						case "uri":
+							return URI.create(uri);
+						case "headers":
+							return headers;
+						default:
+							return null;
+					}
+				});
+	}
+	
+}
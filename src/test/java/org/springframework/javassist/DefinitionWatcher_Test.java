@@ -0,0 +1,100 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import org.springframework.javassist.catalog.DefinitionPipelineResult;
+import org.springframework.javassist.catalog.DefinitionWatcher;
+import org.springframework.javassist.catalog.JsonDefinitionReader;
+
+public class DefinitionWatcher_Test {
+
+	@Test
+	public void testDebounceAndDiff() throws Exception {
+
+		Path directory = Files.createTempDirectory("definition-watcher");
+		Path orders = directory.resolve("orders.json");
+		this.write(orders, "{\"name\": \"com.example.A\"}", "{\"name\": \"com.example.B\"}");
+		List<String> generated = new CopyOnWriteArrayList<>();
+		List<String> removed = new CopyOnWriteArrayList<>();
+		BlockingQueue<DefinitionPipelineResult> results = new LinkedBlockingQueue<>();
+		try (DefinitionWatcher watcher = new DefinitionWatcher(controller -> generated.add(controller.getName()), 300, directory)) {
+			watcher.onRemoved(removed::add).onRegenerated(results::add).start();
+
+			// 防抖窗口内的多次变更合并为一批，只重新生成指纹变化的定义
+			this.write(orders, "{\"name\": \"com.example.A\", \"tags\": [\"v2\"]}", "{\"name\": \"com.example.B\"}");
+			this.write(directory.resolve("users.json"), "{\"name\": \"com.example.C\"}");
+			DefinitionPipelineResult result = results.poll(10, TimeUnit.SECONDS);
+			assertNotNull(result);
+			assertTrue(result.isSuccess());
+			assertEquals(Arrays.asList("com.example.A", "com.example.C"), this.sorted(generated));
+			assertNull(results.poll(600, TimeUnit.MILLISECONDS));
+
+			// 只修改方法策略同样重新生成；删除的定义通知注销
+			generated.clear();
+			this.write(orders, "{\"name\": \"com.example.A\", \"tags\": [\"v2\"], \"methods\": [{\"name\": \"query\", \"coalesce\": true}]}");
+			assertNotNull(results.poll(10, TimeUnit.SECONDS));
+			assertEquals(Collections.singletonList("com.example.A"), generated);
+			assertEquals(Collections.singletonList("com.example.B"), removed);
+		}
+	}
+
+	@Test
+	public void testKeepOnReaderFailure() throws Exception {
+
+		Path directory = Files.createTempDirectory("definition-watcher");
+		Path orders = directory.resolve("orders.json");
+		this.write(orders, "{\"name\": \"com.example.A\"}");
+		List<String> removed = new CopyOnWriteArrayList<>();
+		BlockingQueue<DefinitionPipelineResult> results = new LinkedBlockingQueue<>();
+		AtomicBoolean locked = new AtomicBoolean();
+		try (DefinitionWatcher watcher = new DefinitionWatcher(controller -> {}, 100, directory)) {
+			watcher.readers(file -> {
+				if (locked.get()) {
+					throw new IllegalStateException("locked");
+				}
+				try {
+					return new JsonDefinitionReader(file);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}).onRemoved(removed::add).onRegenerated(results::add).start();
+
+			// 创建 reader 失败时记录失败并保留原有定义
+			locked.set(true);
+			this.write(orders);
+			DefinitionPipelineResult result = results.poll(10, TimeUnit.SECONDS);
+			assertNotNull(result);
+			assertTrue(result.getFailures().containsKey(orders.toString()));
+			assertTrue(removed.isEmpty());
+		}
+	}
+
+	private void write(Path file, String... definitions) throws IOException {
+		Files.write(file, String.join("\n", definitions).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private List<String> sorted(List<String> names) {
+		String[] array = names.toArray(new String[0]);
+		Arrays.sort(array);
+		return Arrays.asList(array);
+	}
+
+}
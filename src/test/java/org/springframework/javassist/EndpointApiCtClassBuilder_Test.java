@@ -7,6 +7,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.beanutils.ConstructorUtils;
 import org.apache.commons.io.IOUtils;
@@ -14,6 +16,7 @@ import org.junit.Test;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcAsync;
 import org.springframework.javassist.bytecode.definition.MvcBound;
 import org.springframework.javassist.bytecode.definition.MvcMethod;
 import org.springframework.javassist.bytecode.definition.MvcParam;
@@ -137,5 +140,30 @@ public class EndpointApiCtClassBuilder_Test {
 		Method sayHello2 = clazz.getMethod("sayHello2", String.class);
 		sayHello2.invoke(ctObject,  " hi Hello2 " );
 	}
+	
+	@Test
+	public void testAsync() throws Exception{
+		
+		InvocationHandler handler = new EndpointApiInvocationHandler();
+
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.FirstCaseAsync")
+				.async(MvcAsync.COMPLETABLE_FUTURE)
+				.newMethod("sayHello", "say/{word}", RequestMethod.POST, MediaType.ALL_VALUE, new MvcBound("100212"),
+						new MvcParam(String.class, "text"))
+				.newMethod(Callable.class, new MvcMethod("sayHello2", new String[] { "say2/{word}" }, new RequestMethod[] {RequestMethod.GET} ),
+						new MvcBound("100212"), new MvcParam(String.class, "word", MvcParamFrom.PATH))
+				.controller()
+				.toInstance(handler);
+		Class clazz = ctObject.getClass();
+		
+		System.err.println("=========sayHello======================");
+		Method sayHello = clazz.getMethod("sayHello", String.class);
+		CompletableFuture future = (CompletableFuture) sayHello.invoke(ctObject,  " hi Hello " );
+		System.out.println(future.get());
+		System.err.println("=========sayHello2======================");
+		Method sayHello2 = clazz.getMethod("sayHello2", String.class);
+		Callable callable = (Callable) sayHello2.invoke(ctObject,  " hi Hello2 " );
+		System.out.println(callable.call());
+	}
 
 }
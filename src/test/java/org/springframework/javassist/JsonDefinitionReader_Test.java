@@ -0,0 +1,100 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.bytecode.definition.MvcController;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcRateLimitScope;
+import org.springframework.javassist.catalog.DefinitionException;
+import org.springframework.javassist.catalog.DefinitionGenerator;
+import org.springframework.javassist.catalog.DefinitionPipeline;
+import org.springframework.javassist.catalog.DefinitionPipelineResult;
+import org.springframework.javassist.catalog.JsonDefinitionReader;
+
+public class JsonDefinitionReader_Test {
+
+	@Test
+	public void testSkipInvalid() throws Exception {
+
+		String catalog = "{\"name\": \"com.example.First\"}\n"
+				+ "{\"name\" \"com.example.Broken\"}\n"
+				+ "{\"tags\": [\"unnamed\"]}\n"
+				+ "{\"name\": \"com.example.Second\"}\n";
+		try (JsonDefinitionReader reader = new JsonDefinitionReader(new StringReader(catalog))) {
+			assertEquals("com.example.First", reader.next().getName());
+			// 无效定义抛出 DefinitionException 后可以继续读取
+			this.expectInvalid(reader, "#2");
+			this.expectInvalid(reader, "#3");
+			assertEquals("com.example.Second", reader.next().getName());
+			assertNull(reader.next());
+		}
+	}
+
+	@Test
+	public void testDuplicateFailures() throws Exception {
+
+		String catalog = "[{\"name\": \"com.example.Same\"}, {\"name\": \"com.example.Same\"}, {\"name\": \"com.example.Other\"}]";
+		DefinitionGenerator generator = controller -> {
+			throw new IllegalStateException(controller.getName());
+		};
+		DefinitionPipelineResult result;
+		try (JsonDefinitionReader reader = new JsonDefinitionReader(new StringReader(catalog))) {
+			result = new DefinitionPipeline(generator, 2, 4).run(reader);
+		}
+		// 同名定义的失败不互相覆盖
+		assertEquals(3, result.getFailureCount());
+		Map<String, Throwable> failures = result.getFailures();
+		assertEquals(2, failures.size());
+		assertEquals(1, failures.get("com.example.Same").getSuppressed().length);
+	}
+
+	@Test
+	public void testPolicies() throws Exception {
+
+		String catalog = "{\"name\": \"com.example.Policy\", \"methods\": [{\"name\": \"query\", \"method\": [\"GET\"],"
+				+ " \"bulkhead\": {\"maxConcurrent\": 10, \"maxQueue\": 5, \"maxWait\": 100, \"status\": 429},"
+				+ " \"adaptiveLimit\": {\"initialLimit\": 8, \"minLimit\": 2, \"maxLimit\": 64, \"probeInterval\": 500, \"status\": \"TOO_MANY_REQUESTS\"},"
+				+ " \"rateLimit\": {\"permitsPerSecond\": 2.5, \"burst\": 5, \"scope\": \"method\"},"
+				+ " \"cache\": {\"ttl\": 60000, \"maximumSize\": 100}, \"coalesce\": true, \"batch\": {\"maxSize\": 50, \"window\": 10}}]}";
+		MvcController controller;
+		try (JsonDefinitionReader reader = new JsonDefinitionReader(new StringReader(catalog))) {
+			controller = reader.next();
+		}
+		MvcMethod method = controller.getEndpoints().get(0).getMethod();
+		assertEquals(10, method.getBulkhead().getMaxConcurrent());
+		assertEquals(5, method.getBulkhead().getMaxQueue());
+		assertEquals(100, method.getBulkhead().getMaxWait());
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, method.getBulkhead().getStatus());
+		assertEquals(8, method.getAdaptiveLimit().getInitialLimit());
+		assertEquals(2, method.getAdaptiveLimit().getMinLimit());
+		assertEquals(64, method.getAdaptiveLimit().getMaxLimit());
+		assertEquals(500, method.getAdaptiveLimit().getProbeInterval());
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, method.getAdaptiveLimit().getStatus());
+		assertEquals(2.5, method.getRateLimit().getPermitsPerSecond(), 0);
+		assertEquals(5, method.getRateLimit().getBurst());
+		assertEquals(MvcRateLimitScope.METHOD, method.getRateLimit().getScope());
+		assertEquals(60000, method.getCache().getTtl());
+		assertEquals(100, method.getCache().getMaximumSize());
+		assertTrue(method.getCoalesce());
+		assertEquals(50, method.getBatch().getMaxSize());
+		assertEquals(10, method.getBatch().getWindow());
+	}
+
+	private void expectInvalid(JsonDefinitionReader reader, String record) throws Exception {
+		try {
+			reader.next();
+			fail("Definition " + record + " should be rejected");
+		} catch (DefinitionException e) {
+			assertEquals(record, e.getController());
+		}
+	}
+
+}
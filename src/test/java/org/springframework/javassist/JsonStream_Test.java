@@ -0,0 +1,140 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.stream.JsonArrayWriter;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public class JsonStream_Test {
+
+	public static class Row {
+		
+		private final long id;
+		private final String name;
+		
+		public Row(long id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+
+		public long getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+		
+	}
+	
+	@Test
+	public void testBean() throws Exception {
+		assertEquals("[{\"id\":1,\"name\":\"a\\\"b\"},{\"id\":2,\"name\":null}]",
+				JsonArrayWriter.toJson(Arrays.asList(new Row(1, "a\"b"), new Row(2, null))));
+		// 没有可读属性的对象不编码为 toString()
+		try {
+			JsonArrayWriter.toJson(new Object());
+			fail("Object without properties should not be encoded");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("java.lang.Object"));
+		}
+	}
+	
+	public static class Node {
+		
+		private Node next;
+
+		public Node getNext() {
+			return next;
+		}
+		
+	}
+	
+	@Test
+	public void testCircular() throws Exception {
+		// 同一对象多次出现但不构成循环时正常编码
+		Row row = new Row(1, "a");
+		assertEquals("[{\"id\":1,\"name\":\"a\"},{\"id\":1,\"name\":\"a\"}]", JsonArrayWriter.toJson(Arrays.asList(row, row)));
+		
+		Node node = new Node();
+		node.next = node;
+		this.assertRejected(node, "circular reference");
+		Map<String, Object> map = new HashMap<>();
+		map.put("self", Arrays.asList(map));
+		this.assertRejected(map, "circular reference");
+		List<Object> nested = new ArrayList<>();
+		List<Object> current = nested;
+		for (int i = 0; i < 1000; i++) {
+			List<Object> child = new ArrayList<>();
+			current.add(child);
+			current = child;
+		}
+		this.assertRejected(nested, "nesting deeper than");
+	}
+	
+	private void assertRejected(Object value, String message) {
+		try {
+			JsonArrayWriter.toJson(value);
+			fail("Value should be rejected");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(message));
+		}
+	}
+	
+	@Test
+	public void testAbort() throws Exception {
+
+		InvocationHandler handler = (proxy, method, args) -> new Iterator<Row>() {
+			
+			private int count = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public Row next() {
+				if (++count > 2) {
+					throw new IllegalStateException("cursor closed");
+				}
+				return new Row(count, "row" + count);
+			}
+			
+		};
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.JsonStreamCase")
+				.newMethod(StreamingResponseBody.class, new MvcMethod("export", new String[] { "export" }, RequestMethod.GET),
+						new MvcBound("json-stream-test"))
+				.toInstance(handler);
+		StreamingResponseBody body = (StreamingResponseBody) ctObject.getClass().getMethod("export").invoke(ctObject);
+		
+		// 迭代出错时异常中止，不写出数组结尾
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try {
+			body.writeTo(output);
+			fail("Export should be aborted");
+		} catch (IllegalStateException e) {
+			assertEquals("cursor closed", e.getMessage());
+		}
+		assertFalse(new String(output.toByteArray(), StandardCharsets.UTF_8).endsWith("]"));
+	}
+
+}
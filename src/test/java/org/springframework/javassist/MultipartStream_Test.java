@@ -0,0 +1,137 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.javassist.multipart.MultipartStream;
+import org.springframework.javassist.multipart.StreamingPart;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+public class MultipartStream_Test {
+
+	private static final String BOUNDARY = "----boundary7MA4YWxk";
+	
+	@Test
+	public void testParse() throws Exception {
+
+		byte[] large = new byte[200 * 1024];
+		for (int i = 0; i < large.length; i++) {
+			large[i] = (byte) (i % 251);
+		}
+		byte[] body = body(new Object[] { "title", null, "hello\r\n--not-a-boundary" }, new Object[] { "file", "a.bin", large });
+		Path temp = Files.createTempDirectory("multipart-test");
+		try {
+			// 每次只读取少量字节，分隔符跨越多次读取
+			Path tmp = this.parse(body, large, temp);
+			// 关闭后删除临时文件
+			assertFalse(Files.exists(tmp));
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+	
+	private Path parse(byte[] body, byte[] large, Path temp) throws Exception {
+		try (MultipartStream parts = new MultipartStream(new SlowInputStream(body), BOUNDARY, 1024, -1, temp)) {
+			List<StreamingPart> read = new ArrayList<>();
+			for (StreamingPart part : parts) {
+				read.add(part);
+			}
+			assertEquals(2, read.size());
+			assertEquals(2, parts.getCount());
+			
+			StreamingPart title = read.get(0);
+			assertEquals("title", title.getName());
+			assertNull(title.getFilename());
+			assertTrue(title.isInMemory());
+			assertEquals("hello\r\n--not-a-boundary", new String(StreamUtils.copyToByteArray(title.getInputStream()), StandardCharsets.UTF_8));
+			
+			// 超过内存阈值的内容写入临时文件
+			StreamingPart file = read.get(1);
+			assertEquals("a.bin", file.getFilename());
+			assertFalse(file.isInMemory());
+			assertEquals(large.length, file.getSize());
+			try (InputStream input = file.getInputStream()) {
+				assertArrayEquals(large, StreamUtils.copyToByteArray(input));
+			}
+			Path tmp = file.getFile();
+			assertTrue(Files.exists(tmp));
+			return tmp;
+		}
+	}
+	
+	@Test
+	public void testMaxParts() throws Exception {
+
+		byte[] body = body(new Object[] { "a", null, "1" }, new Object[] { "b", null, "2" }, new Object[] { "c", null, "3" });
+		try (MultipartStream parts = new MultipartStream(new ByteArrayInputStream(body), BOUNDARY, 1024, -1, 2, null)) {
+			parts.next();
+			parts.next();
+			parts.hasNext();
+			fail("Third part should be rejected");
+		} catch (ResponseStatusException e) {
+			assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+		}
+	}
+	
+	@Test
+	public void testMaxPartSize() throws Exception {
+
+		byte[] body = body(new Object[] { "file", "a.txt", "0123456789" });
+		try (MultipartStream parts = new MultipartStream(new ByteArrayInputStream(body), BOUNDARY, 4, 8, null)) {
+			parts.next();
+			fail("Part larger than 8 bytes should be rejected");
+		} catch (ResponseStatusException e) {
+			assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+		}
+	}
+	
+	private static byte[] body(Object[]... parts) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		body.write("preamble\r\n".getBytes(StandardCharsets.ISO_8859_1));
+		for (Object[] part : parts) {
+			StringBuilder headers = new StringBuilder("--").append(BOUNDARY).append("\r\n")
+					.append("Content-Disposition: form-data; name=\"").append(part[0]).append('"');
+			if (part[1] != null) {
+				headers.append("; filename=\"").append(part[1]).append('"');
+			}
+			headers.append("\r\n\r\n");
+			body.write(headers.toString().getBytes(StandardCharsets.ISO_8859_1));
+			body.write(part[2] instanceof byte[] ? (byte[]) part[2] : part[2].toString().getBytes(StandardCharsets.UTF_8));
+			body.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+		}
+		body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+		return body.toByteArray();
+	}
+	
+	private static final class SlowInputStream extends FilterInputStream {
+
+		private SlowInputStream(byte[] body) {
+			super(new ByteArrayInputStream(body));
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return super.read(b, off, Math.min(len, 7));
+		}
+		
+	}
+
+}
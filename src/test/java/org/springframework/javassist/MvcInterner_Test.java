@@ -0,0 +1,83 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.Test;
+import org.springframework.javassist.bytecode.definition.MvcInternStats;
+import org.springframework.javassist.bytecode.definition.MvcInterner;
+
+public class MvcInterner_Test {
+
+	@Test
+	public void testString() throws Exception {
+
+		MvcInterner interner = new MvcInterner();
+		String first = new String("application/json");
+		String second = new String("application/json");
+		assertSame(first, interner.intern(first));
+		assertSame(first, interner.intern(second));
+		assertNull(interner.intern((String) null));
+
+		MvcInternStats stats = interner.stats();
+		assertEquals(1, stats.getMissCount());
+		assertEquals(1, stats.getHitCount());
+		// String 对象头及字段 24 字节 + 字符数组 16 + 2 * 16 字节
+		assertEquals(24 + 48, stats.getSavedBytes());
+		assertEquals(1, stats.getSize());
+	}
+
+	@Test
+	public void testArray() throws Exception {
+
+		MvcInterner interner = new MvcInterner();
+		String[] first = { new String("GET"), new String("POST") };
+		String[] second = { new String("GET"), new String("POST") };
+		String get = first[0];
+		String[] canonical = interner.intern(first);
+		// 不修改传入的数组，规范数组为副本，元素为去重后的字符串
+		assertNotSame(first, canonical);
+		assertArrayEquals(first, canonical);
+		assertSame(get, canonical[0]);
+		assertSame(canonical, interner.intern(second));
+		assertNotSame(get, second[0]);
+
+		// 调用方修改传入的数组不影响规范数组
+		first[0] = "DELETE";
+		assertEquals("GET", canonical[0]);
+		assertSame(canonical, interner.intern(new String[] { "GET", "POST" }));
+		assertEquals(0, interner.intern(new String[0]).length);
+		assertNull(interner.intern((String[]) null));
+
+		MvcInternStats stats = interner.stats();
+		// 2 个字符串及 1 个数组未命中，之后两次各命中 2 个字符串及 1 个数组
+		assertEquals(3, stats.getMissCount());
+		assertEquals(6, stats.getHitCount());
+		// 每次命中节省 "GET"、"POST" 各 48 字节及数组 24 字节
+		assertEquals(2 * (48 + 48 + 24), stats.getSavedBytes());
+		assertEquals(3, stats.getSize());
+	}
+
+	@Test
+	public void testExpunge() throws Exception {
+
+		MvcInterner interner = new MvcInterner();
+		String kept = interner.intern(new String("kept"));
+		WeakReference<String> collected = new WeakReference<>(interner.intern(new String("collected-" + System.nanoTime())));
+		assertEquals(2, interner.size());
+		// 规范实例不再被引用时条目自动清除
+		for (int i = 0; i < 50 && (collected.get() != null || interner.size() > 1); i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		assertNull(collected.get());
+		assertEquals(1, interner.size());
+		assertSame(kept, interner.intern(new String("kept")));
+	}
+
+}
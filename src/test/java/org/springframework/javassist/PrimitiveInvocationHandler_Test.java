@@ -0,0 +1,123 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcParamFrom;
+import org.springframework.javassist.invoke.PrimitiveInvocationHandler;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+public class PrimitiveInvocationHandler_Test {
+
+	@Test
+	public void testBuild() throws Exception {
+
+		// 无参方法走装箱调用；基本类型参数方法的 Method 字段在首次调用时查找，均可直接 build()
+		assertNotNull(new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.PrimitivePing" + System.nanoTime())
+				.newMethod("ping", "ping", RequestMethod.GET, "*/*", new MvcBound("ping")).build());
+		assertNotNull(new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.PrimitiveAdd" + System.nanoTime())
+				.newMethod(long.class, new MvcMethod("add", new String[] { "add" }, RequestMethod.GET), new MvcBound("add"),
+						this.param(long.class, "a"), this.param(long.class, "b"))
+				.build());
+	}
+
+	@Test
+	public void testDispatch() throws Exception {
+
+		RecordingHandler handler = new RecordingHandler();
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.PrimitiveDispatch" + System.nanoTime())
+				.newMethod("ping", "ping", RequestMethod.GET, "*/*", new MvcBound("ping"))
+				.newMethod(long.class, this.method("negate"), new MvcBound("negate"), this.param(long.class, "a"))
+				.newMethod(double.class, this.method("half"), new MvcBound("half"), this.param(double.class, "a"))
+				.newMethod(Long.class, this.method("add"), new MvcBound("add"), this.param(long.class, "a"), this.param(long.class, "b"))
+				.newMethod(double.class, this.method("mul"), new MvcBound("mul"), this.param(double.class, "a"), this.param(double.class, "b"))
+				.newMethod(long.class, this.method("scale"), new MvcBound("scale"), this.param(int.class, "a"), this.param(double.class, "b"))
+				.newMethod(String.class, this.method("format"), new MvcBound("format"), this.param(float.class, "a"), this.param(long.class, "b"))
+				.toInstance(handler);
+		Class<?> clazz = ctObject.getClass();
+
+		assertEquals("pong", clazz.getMethod("ping").invoke(ctObject));
+		assertEquals(-3L, clazz.getMethod("negate", long.class).invoke(ctObject, 3L));
+		assertEquals(1.5, clazz.getMethod("half", double.class).invoke(ctObject, 3.0));
+		assertEquals(5L, clazz.getMethod("add", long.class, long.class).invoke(ctObject, 2L, 3L));
+		assertEquals(6.0, clazz.getMethod("mul", double.class, double.class).invoke(ctObject, 2.0, 3.0));
+		assertEquals(5L, clazz.getMethod("scale", int.class, double.class).invoke(ctObject, 2, 2.5));
+		assertEquals("1.5:2", clazz.getMethod("format", float.class, long.class).invoke(ctObject, 1.5f, 2L));
+		// 基本类型返回值调用 invokeLong | invokeDouble，其余调用 invoke
+		List<String> expected = new ArrayList<>();
+		expected.add("boxed:ping");
+		expected.add("invokeLong(J):negate");
+		expected.add("invokeDouble(D):half");
+		expected.add("invoke(JJ):add");
+		expected.add("invokeDouble(DD):mul");
+		expected.add("invokeLong(JD):scale");
+		expected.add("invoke(DJ):format");
+		assertEquals(expected, handler.calls);
+	}
+
+	private MvcMethod method(String name) {
+		return new MvcMethod(name, new String[] { name }, RequestMethod.GET);
+	}
+
+	private <T> MvcParam<T> param(Class<T> type, String name) {
+		return new MvcParam<>(type, name, MvcParamFrom.PARAM);
+	}
+
+	static class RecordingHandler implements PrimitiveInvocationHandler {
+
+		final List<String> calls = new ArrayList<>();
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			calls.add("boxed:" + method.getName());
+			return "pong";
+		}
+
+		@Override
+		public long invokeLong(Object proxy, Method method, long arg0) throws Throwable {
+			calls.add("invokeLong(J):" + method.getName());
+			return -arg0;
+		}
+
+		@Override
+		public double invokeDouble(Object proxy, Method method, double arg0) throws Throwable {
+			calls.add("invokeDouble(D):" + method.getName());
+			return arg0 / 2;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, long arg0, long arg1) throws Throwable {
+			calls.add("invoke(JJ):" + method.getName());
+			return arg0 + arg1;
+		}
+
+		@Override
+		public double invokeDouble(Object proxy, Method method, double arg0, double arg1) throws Throwable {
+			calls.add("invokeDouble(DD):" + method.getName());
+			return arg0 * arg1;
+		}
+
+		@Override
+		public long invokeLong(Object proxy, Method method, long arg0, double arg1) throws Throwable {
+			calls.add("invokeLong(JD):" + method.getName());
+			return (long) (arg0 * arg1);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, double arg0, long arg1) throws Throwable {
+			calls.add("invoke(DJ):" + method.getName());
+			return arg0 + ":" + arg1;
+		}
+
+	}
+
+}
@@ -85,6 +85,7 @@ public class ReactiveHandlerCtClassBuilder_Test {
 				.monoMethod(new MvcBound("100212"))
 				.fluxMethod(new MvcBound("100213"))
 				.newMethod(Flux.class, "sayHello2", new MvcBound("100214"))
+				.makeMethod("public void sayHello(String txt) { System.out.println(txt); }")
 				.makeField("public int k = 3;")
 				.newField(String.class, "uid", UUID.randomUUID().toString())
 				.toInstance(handler);
@@ -0,0 +1,142 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcParamFrom;
+import org.springframework.javassist.invoke.ResourceInvoker;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+import reactor.core.publisher.Mono;
+
+public class ResourceInvoker_Test {
+
+	@Test
+	public void testNotFound() throws Throwable {
+
+		Path directory = Files.createTempDirectory("resource-invoker");
+		Object ctObject = this.download(directory);
+		Method download = ctObject.getClass().getMethod("download", String.class);
+		// 文件不存在及结果为 null 时响应 404
+		for (String name : new String[] { "absent.txt", null }) {
+			try {
+				download.invoke(ctObject, name);
+				fail("Absent resource should be 404");
+			} catch (InvocationTargetException e) {
+				assertEquals(HttpStatus.NOT_FOUND, ((ResponseStatusException) e.getCause()).getStatus());
+			}
+		}
+		// WebFlux 方法返回空结果或文件不存在时同样以 404 结束
+		for (Object result : new Object[] { Mono.empty(), directory.resolve("absent.txt") }) {
+			Mono<?> response = (Mono<?>) new ResourceInvoker(ResourceInvoker.Adapter.SERVER_RESPONSE, (target, method, args) -> result)
+					.invoke(null, download, new Object[0]);
+			try {
+				response.block();
+				fail("Absent resource should be 404");
+			} catch (ResponseStatusException e) {
+				assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+			}
+		}
+	}
+
+	@Test
+	public void testRange() throws Throwable {
+
+		Path directory = Files.createTempDirectory("resource-invoker");
+		Files.write(directory.resolve("report.txt"), "0123456789".getBytes(StandardCharsets.UTF_8));
+		Object ctObject = this.download(directory);
+		Resource resource = (Resource) ctObject.getClass().getMethod("download", String.class).invoke(ctObject, "report.txt");
+
+		// Spring MVC 按 Range 请求写出部分内容
+		List<HttpRange> ranges = HttpRange.parseRanges("bytes=2-5");
+		ResourceRegion region = HttpRange.toResourceRegions(ranges, resource).get(0);
+		MessageOutput output = new MessageOutput();
+		new ResourceRegionHttpMessageConverter().write(region, null, output);
+		assertEquals("2345", output.body());
+		assertEquals("bytes 2-5/10", output.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+		assertEquals(MediaType.TEXT_PLAIN, output.getHeaders().getContentType());
+
+		// WebFlux 方法返回 200 响应
+		Mono<?> response = (Mono<?>) new ResourceInvoker(ResourceInvoker.Adapter.SERVER_RESPONSE, (target, method, args) -> Mono.just(resource))
+				.invoke(null, null, new Object[0]);
+		assertEquals(HttpStatus.OK, ((ServerResponse) response.block()).statusCode());
+	}
+
+	@Test
+	public void testContentType() throws Exception {
+
+		Path directory = Files.createTempDirectory("resource-invoker");
+		Files.write(directory.resolve("report.json"), "{}".getBytes(StandardCharsets.UTF_8));
+		// Path | File 按文件名解析 Content-Type，byte[] | InputStream 没有文件名，按二进制流写出
+		assertEquals(MediaType.APPLICATION_JSON, this.contentType(ResourceInvoker.resource(directory.resolve("report.json"))));
+		assertEquals(MediaType.APPLICATION_JSON, this.contentType(ResourceInvoker.resource(directory.resolve("report.json").toFile())));
+		assertEquals(MediaType.APPLICATION_OCTET_STREAM, this.contentType(ResourceInvoker.resource(new byte[] { 1, 2 })));
+		try {
+			ResourceInvoker.resource(Boolean.TRUE);
+			fail("Unsupported type should be rejected");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage().contains("java.lang.Boolean"));
+		}
+	}
+
+	private Object download(Path directory) throws Exception {
+		return new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.ResourceDownload" + System.nanoTime())
+				.newMethod(Resource.class, new MvcMethod("download", new String[] { "download" }, RequestMethod.GET),
+						new MvcBound("resource-download"), new MvcParam<>(String.class, "name", MvcParamFrom.PARAM))
+				.toInstance((proxy, method, args) -> args[0] == null ? null : directory.resolve((String) args[0]));
+	}
+
+	private MediaType contentType(Resource resource) throws Exception {
+		MessageOutput output = new MessageOutput();
+		new ResourceHttpMessageConverter().write(resource, null, output);
+		return output.getHeaders().getContentType();
+	}
+
+	static class MessageOutput implements HttpOutputMessage {
+
+		private final HttpHeaders headers = new HttpHeaders();
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		@Override
+		public OutputStream getBody() {
+			return body;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+
+		String body() {
+			return new String(body.toByteArray(), StandardCharsets.UTF_8);
+		}
+
+	}
+
+}
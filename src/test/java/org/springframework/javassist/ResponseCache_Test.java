@@ -0,0 +1,85 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBatch;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcCache;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.invoke.ResponseCaches;
+import org.springframework.javassist.utils.EndpointApiUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javassist.CannotCompileException;
+
+public class ResponseCache_Test {
+
+	@Test
+	public void testGetOnly() throws Exception {
+
+		AtomicInteger calls = new AtomicInteger();
+		InvocationHandler handler = (proxy, method, args) -> "v" + calls.incrementAndGet();
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.ResponseCacheCase")
+				.cache(new MvcCache(60000, 100))
+				.newMethod("query", "query", RequestMethod.GET, "*/*", new MvcBound("response-cache-test"))
+				.newMethod("update", "update", RequestMethod.POST, "*/*", new MvcBound("response-cache-test"))
+				.toInstance(handler);
+		Method query = ctObject.getClass().getMethod("query");
+		Method update = ctObject.getClass().getMethod("update");
+
+		// GET 命中缓存，POST 不缓存
+		assertEquals(query.invoke(ctObject), query.invoke(ctObject));
+		assertNotEquals(update.invoke(ctObject), update.invoke(ctObject));
+		assertEquals(1, ResponseCaches.stats("response-cache-test").getHitCount());
+
+		// 动态类不再使用时注销缓存
+		EndpointApiUtils.releaseInvokers(ctObject.getClass());
+		assertFalse(ResponseCaches.stats().containsKey("response-cache-test"));
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+
+		AtomicInteger calls = new AtomicInteger();
+		InvocationHandler handler = (proxy, method, args) -> "v" + calls.incrementAndGet();
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.ResponseCacheBatch")
+				.cache(new MvcCache(60000, 100))
+				.batch(new MvcBatch(10, 10))
+				.newMethod(String.class, new MvcMethod("query", new String[] { "query" }, RequestMethod.GET), new MvcBound("response-cache-batch"))
+				.toInstance(handler);
+		Method query = ctObject.getClass().getMethod("query");
+
+		// 批量调用将返回类型改为 CompletableFuture，命中缓存时同样返回 CompletableFuture
+		assertEquals("v1", ((CompletableFuture<?>) query.invoke(ctObject)).get(5, TimeUnit.SECONDS));
+		assertEquals("v1", ((CompletableFuture<?>) query.invoke(ctObject)).get(5, TimeUnit.SECONDS));
+		assertEquals(1, calls.get());
+		EndpointApiUtils.releaseInvokers(ctObject.getClass());
+	}
+
+	@Test
+	public void testRejectPost() throws Exception {
+
+		MvcMethod method = new MvcMethod("update", new String[] { "update" }, RequestMethod.POST);
+		method.setCache(new MvcCache(60000, 100));
+		try {
+			new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.ResponseCachePost")
+					.newMethod(Object.class, method, new MvcBound("response-cache-post"));
+			fail("POST mapping should not accept a response cache");
+		} catch (CannotCompileException e) {
+			assertTrue(e.getMessage().contains("GET/HEAD"));
+		}
+	}
+
+}
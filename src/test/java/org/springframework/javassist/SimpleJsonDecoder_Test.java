@@ -0,0 +1,93 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.javassist.bound.SimpleJsonDecoder;
+
+public class SimpleJsonDecoder_Test {
+
+	private final SimpleJsonDecoder decoder = SimpleJsonDecoder.INSTANCE;
+
+	@Test
+	public void testEscapes() throws Exception {
+		assertEquals("a\"b\\c/d\b\f\n\r\t", decoder.decode("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\""));
+		// 没有转义时直接截取，转义前后的内容保持不变
+		assertEquals("plain", decoder.decode(" \"plain\" "));
+		assertEquals("x\ny", decoder.decode("\"x\\ny\""));
+	}
+
+	@Test
+	public void testUnicode() throws Exception {
+		assertEquals("\u00e9\u4e2d", decoder.decode("\"\\u00e9\\u4E2D\""));
+		// 代理对按两个 char 解析
+		assertEquals("\ud83d\ude00", decoder.decode("\"\\ud83d\\ude00\""));
+		assertEquals("中文", decoder.decode("\"中文\""));
+	}
+
+	@Test
+	public void testNested() throws Exception {
+		Object value = decoder.decode("{\"a\": [1, [2, [3, []]], {\"b\": [true, false, null]}], \"c\": {}}");
+		Map<?, ?> map = (Map<?, ?>) value;
+		assertEquals(Arrays.asList("a", "c"), Arrays.asList(map.keySet().toArray()));
+		List<?> a = (List<?>) map.get("a");
+		assertEquals(1L, a.get(0));
+		assertEquals(Arrays.asList(2L, Arrays.asList(3L, Collections.emptyList())), a.get(1));
+		assertEquals(Arrays.asList(true, false, null), ((Map<?, ?>) a.get(2)).get("b"));
+		assertEquals(Collections.emptyMap(), map.get("c"));
+		// 解析结果不可修改
+		try {
+			a.clear();
+			fail("Decoded list should be unmodifiable");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testNumbers() throws Exception {
+		assertEquals(0L, decoder.decode("0"));
+		assertEquals(-42L, decoder.decode("-42"));
+		assertEquals(1.5, decoder.decode("1.5"));
+		assertEquals(1e10, decoder.decode("1e10"));
+		assertEquals(-2.5E-3, decoder.decode("-2.5E-3"));
+		assertEquals(1.0e+2, decoder.decode("1.0e+2"));
+		assertEquals(Long.MAX_VALUE, ((Number) decoder.decode(String.valueOf(Long.MAX_VALUE))).longValue());
+		assertEquals(new BigInteger("123456789012345678901234567890"), decoder.decode("123456789012345678901234567890"));
+	}
+
+	@Test
+	public void testMalformed() throws Exception {
+		String[] malformed = { "", "   ", "{", "[1,", "[1 2]", "{\"a\" 1}", "{a: 1}", "{\"a\": 1,}", "\"open", "\"bad \\", "\"\\u12\"",
+				"\"\\u12g4\"", "\"\\u+123\"", "\"\\x\"", "tru", "nul", "-", "1.2.3", "1e", "+1", "'a'" };
+		for (String json : malformed) {
+			this.assertRejected(json);
+		}
+	}
+
+	@Test
+	public void testTrailing() throws Exception {
+		for (String json : new String[] { "{} {}", "[1]]", "true false", "1 2", "\"a\"x", "null," }) {
+			this.assertRejected(json);
+		}
+		assertEquals(Boolean.TRUE, decoder.decode("\ttrue\r\n"));
+	}
+
+	private void assertRejected(String json) {
+		try {
+			decoder.decode(json);
+			fail("Malformed json should be rejected : " + json);
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("of json"));
+		}
+	}
+
+}
@@ -0,0 +1,160 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcRateLimit;
+import org.springframework.javassist.bytecode.definition.MvcRateLimitScope;
+import org.springframework.javassist.invoke.EndpointRejectedException;
+import org.springframework.javassist.invoke.TokenBuckets;
+import org.springframework.javassist.utils.EndpointApiUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+public class TokenBuckets_Test {
+
+	@Test
+	public void testBurst() throws Exception {
+
+		int slot = TokenBuckets.allocate();
+		try {
+			// 每秒 1 个令牌、容量 3：连续 3 次成功，第 4 次失败
+			long interval = TimeUnit.SECONDS.toNanos(1);
+			for (int i = 0; i < 3; i++) {
+				assertTrue(TokenBuckets.tryAcquire(slot, interval, interval * 3));
+			}
+			assertFalse(TokenBuckets.tryAcquire(slot, interval, interval * 3));
+		} finally {
+			TokenBuckets.release(slot);
+		}
+	}
+
+	@Test
+	public void testRefill() throws Exception {
+
+		int slot = TokenBuckets.allocate();
+		try {
+			long interval = TimeUnit.MILLISECONDS.toNanos(50);
+			assertTrue(TokenBuckets.tryAcquire(slot, interval, interval));
+			assertFalse(TokenBuckets.tryAcquire(slot, interval, interval));
+			Thread.sleep(100);
+			assertTrue(TokenBuckets.tryAcquire(slot, interval, interval));
+		} finally {
+			TokenBuckets.release(slot);
+		}
+	}
+
+	@Test
+	public void testReuse() throws Exception {
+
+		int size = TokenBuckets.size();
+		int slot = TokenBuckets.allocate();
+		long interval = TimeUnit.SECONDS.toNanos(1);
+		assertTrue(TokenBuckets.tryAcquire(slot, interval, interval));
+		TokenBuckets.release(slot);
+		assertEquals(size, TokenBuckets.size());
+		// 归还的位置被复用，且令牌桶已重置为满
+		assertEquals(slot, TokenBuckets.allocate());
+		assertTrue(TokenBuckets.tryAcquire(slot, interval, interval));
+		TokenBuckets.release(slot);
+
+		// uid 共享的令牌桶在最后一个引用释放后归还
+		int shared = TokenBuckets.register("token-buckets-test");
+		assertEquals(shared, TokenBuckets.register("token-buckets-test"));
+		TokenBuckets.unregister("token-buckets-test");
+		assertEquals(size + 1, TokenBuckets.size());
+		TokenBuckets.unregister("token-buckets-test");
+		assertEquals(size, TokenBuckets.size());
+	}
+
+	@Test
+	public void testInvoker() throws Exception {
+
+		InvocationHandler handler = (proxy, method, args) -> "ok";
+		int size = TokenBuckets.size();
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.RateLimitCase")
+				.rateLimit(new MvcRateLimit(1, 2, MvcRateLimitScope.METHOD))
+				.newMethod("sayHello", "say", RequestMethod.GET, "*/*", new MvcBound("100212"))
+				.toInstance(handler);
+		Method sayHello = ctObject.getClass().getMethod("sayHello");
+		assertEquals(size + 1, TokenBuckets.size());
+
+		// 容量为 2：连续 2 次成功，第 3 次被拒绝
+		sayHello.invoke(ctObject);
+		sayHello.invoke(ctObject);
+		try {
+			sayHello.invoke(ctObject);
+			fail("Rate limit should reject the call");
+		} catch (InvocationTargetException e) {
+			assertTrue(e.getCause() instanceof EndpointRejectedException);
+		}
+
+		// 动态类不再使用时归还令牌桶，重复释放无影响
+		EndpointApiUtils.releaseInvokers(ctObject.getClass());
+		EndpointApiUtils.releaseInvokers(ctObject.getClass());
+		assertEquals(size, TokenBuckets.size());
+	}
+
+	@Test
+	public void testSharedConfig() throws Exception {
+
+		InvocationHandler handler = (proxy, method, args) -> "ok";
+		int size = TokenBuckets.size();
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.RateLimitShared")
+				.newMethod(Object.class, this.limited("narrow", new MvcRateLimit(1, 1)), new MvcBound("rate-limit-shared"))
+				.newMethod(Object.class, this.limited("wide", new MvcRateLimit(1, 3)), new MvcBound("rate-limit-shared"))
+				.newMethod(Object.class, this.limited("same", new MvcRateLimit(1, 3)), new MvcBound("rate-limit-shared"))
+				.toInstance(handler);
+		// 同一个 uid 按限流配置分别共享令牌桶
+		assertEquals(size + 2, TokenBuckets.size());
+		Method narrow = ctObject.getClass().getMethod("narrow");
+		Method wide = ctObject.getClass().getMethod("wide");
+		narrow.invoke(ctObject);
+		this.assertRejected(narrow, ctObject);
+		for (int i = 0; i < 3; i++) {
+			wide.invoke(ctObject);
+		}
+		this.assertRejected(ctObject.getClass().getMethod("same"), ctObject);
+
+		EndpointApiUtils.releaseInvokers(ctObject.getClass());
+		assertEquals(size, TokenBuckets.size());
+	}
+
+	private MvcMethod limited(String name, MvcRateLimit limit) {
+		MvcMethod method = new MvcMethod(name, new String[] { name }, RequestMethod.GET);
+		method.setRateLimit(limit);
+		return method;
+	}
+
+	private void assertRejected(Method method, Object target) throws Exception {
+		try {
+			method.invoke(target);
+			fail("Rate limit should reject the call");
+		} catch (InvocationTargetException e) {
+			assertTrue(e.getCause() instanceof EndpointRejectedException);
+		}
+	}
+
+	@Test
+	public void testInvalidRate() {
+		for (double rate : new double[] { 0, -1, Double.NaN, Double.POSITIVE_INFINITY }) {
+			try {
+				new MvcRateLimit(rate, 1);
+				fail("Rate " + rate + " should be rejected");
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage().contains("permitsPerSecond"));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,149 @@
+package org.springframework.javassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.javassist.bytecode.EndpointApiCtClassBuilder;
+import org.springframework.javassist.bytecode.definition.MvcBound;
+import org.springframework.javassist.bytecode.definition.MvcMethod;
+import org.springframework.javassist.bytecode.definition.MvcParam;
+import org.springframework.javassist.bytecode.definition.MvcParamFrom;
+import org.springframework.javassist.resolver.TypedArgumentResolver;
+import org.springframework.web.bind.MissingPathVariableException;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class TypedArgumentResolver_Test {
+
+	private final TypedArgumentResolver resolver = new TypedArgumentResolver();
+
+	@Test
+	public void testResolve() throws Exception {
+
+		Method find = this.find();
+		Map<String, String> parameters = new HashMap<>();
+		parameters.put("size", "20");
+		parameters.put("limit", "5");
+		ServletWebRequest request = this.request(parameters, Collections.singletonMap("X-Trace", "t-1"), Collections.singletonMap("id", "42"));
+
+		assertTrue(resolver.supportsParameter(new MethodParameter(find, 0)));
+		assertEquals(42L, this.resolve(find, 0, request));
+		// 缺少值时使用预先转换的默认值
+		assertEquals(1, this.resolve(find, 1, request));
+		assertEquals(20, this.resolve(find, 2, request));
+		assertEquals("t-1", this.resolve(find, 3, request));
+		assertEquals(5L, this.resolve(find, 4, request));
+
+		// 非必须的包装类型缺少值时为 null
+		ServletWebRequest empty = this.request(Collections.singletonMap("limit", "5"), Collections.emptyMap(), Collections.singletonMap("id", "42"));
+		assertNull(this.resolve(find, 2, empty));
+		assertNull(this.resolve(find, 3, empty));
+	}
+
+	@Test
+	public void testMissing() throws Exception {
+
+		Method find = this.find();
+		ServletWebRequest request = this.request(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+		try {
+			this.resolve(find, 0, request);
+			fail("Missing path variable should be rejected");
+		} catch (MissingPathVariableException e) {
+			assertEquals("id", e.getVariableName());
+		}
+		// 基本类型即使非必须也不能为 null
+		try {
+			this.resolve(find, 4, request);
+			fail("Missing primitive parameter should be rejected");
+		} catch (MissingServletRequestParameterException e) {
+			assertEquals("limit", e.getParameterName());
+		}
+
+		Method header = this.header();
+		try {
+			this.resolve(header, 0, request);
+			fail("Missing required header should be rejected");
+		} catch (MissingRequestHeaderException e) {
+			assertEquals("X-Tenant", e.getHeaderName());
+		}
+	}
+
+	@Test
+	public void testTypeMismatch() throws Exception {
+
+		Method find = this.find();
+		ServletWebRequest request = this.request(Collections.singletonMap("size", "many"), Collections.emptyMap(), Collections.singletonMap("id", "x"));
+		for (int index : new int[] { 0, 2 }) {
+			try {
+				this.resolve(find, index, request);
+				fail("Type mismatch should be rejected");
+			} catch (MethodArgumentTypeMismatchException e) {
+				assertEquals(index == 0 ? "id" : "size", e.getName());
+			}
+		}
+	}
+
+	private Method find() throws Exception {
+		MvcParam<Long> id = new MvcParam<>(long.class, "id", MvcParamFrom.PATH);
+		MvcParam<Integer> page = new MvcParam<>(int.class, "page", MvcParamFrom.PARAM, "1");
+		MvcParam<Integer> size = new MvcParam<>(Integer.class, "size", MvcParamFrom.PARAM);
+		size.setRequired(false);
+		MvcParam<String> trace = new MvcParam<>(String.class, "X-Trace", MvcParamFrom.HEADER);
+		trace.setRequired(false);
+		MvcParam<Long> limit = new MvcParam<>(long.class, "limit", MvcParamFrom.PARAM);
+		limit.setRequired(false);
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.TypedArgumentFind" + System.nanoTime())
+				.typedArguments(true)
+				.newMethod(String.class, new MvcMethod("find", new String[] { "find/{id}" }, RequestMethod.GET),
+						new MvcBound("typed-argument"), id, page, size, trace, limit)
+				.toInstance((proxy, method, args) -> "ok");
+		return ctObject.getClass().getMethod("find", long.class, int.class, Integer.class, String.class, long.class);
+	}
+
+	private Method header() throws Exception {
+		Object ctObject = new EndpointApiCtClassBuilder("org.apache.cxf.spring.boot.TypedArgumentHeader" + System.nanoTime())
+				.typedArguments(true)
+				.newMethod(String.class, new MvcMethod("tenant", new String[] { "tenant" }, RequestMethod.GET),
+						new MvcBound("typed-argument"), new MvcParam<>(String.class, "X-Tenant", MvcParamFrom.HEADER))
+				.toInstance((proxy, method, args) -> "ok");
+		return ctObject.getClass().getMethod("tenant", String.class);
+	}
+
+	private Object resolve(Method method, int index, ServletWebRequest request) throws Exception {
+		return resolver.resolveArgument(new MethodParameter(method, index), null, request, null);
+	}
+
+	private ServletWebRequest request(Map<String, String> parameters, Map<String, String> headers, Map<String, String> variables) {
+		HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { HttpServletRequest.class }, (proxy, m, args) -> {
+					switch (m.getName()) {
+						case "getParameter":
+							return parameters.get(args[0]);
+						case "getHeader":
+							return headers.get(args[0]);
+						case "getAttribute":
+							return HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE.equals(args[0]) ? variables : null;
+						default:
+							return null;
+					}
+				});
+		return new ServletWebRequest(request);
+	}
+
+}